@@ -2,204 +2,195 @@ package com.userorder;
 
 
 import com.userorder.persistence.model.*;
-import com.userorder.persistence.repository.ContactRepository;
-import com.userorder.persistence.repository.UserRepository;
-import com.userorder.service.AddressService;
-import com.userorder.service.ContactService;
-import com.userorder.service.UserService;
-import com.userorder.service.dto.UserDTO;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeds an empty database with synthetic users, addresses and contacts, e.g. {@code --seed.users=5000000}
+ * for load tests; {@code --seed.users=0} disables seeding.
+ * <p>
+ * Every user is derived from its index and the seed alone, so the same settings always produce the same data,
+ * however the work is partitioned. Emails and phone numbers embed the index and are unique by construction,
+ * no lookups are needed. The index range is split into partitions that are inserted in parallel, each in
+ * transactions of chunk-size users with batched inserts (see PooledSequenceIdGenerator).
+ */
 @Slf4j
 @RequiredArgsConstructor
 @Component
-@Transactional
 public class DataLoader implements ApplicationRunner {
 
-
-    private final ContactService contactService;
-    private final AddressService addressService;
-    private final UserService userService;
-    private final UserRepository userRepository;
-    private final ContactRepository contactRepository;
+    private final TransactionTemplate transactionTemplate;
 
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Value("${seed.users:10}")
+    private long users;
+
+    @Value("${seed.partitions:4}")
+    private int partitions;
+
+    @Value("${seed.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${seed.random-seed:42}")
+    private long randomSeed;
+
     // Sample data arrays
-    private static final String[] FIRST_NAMES = {"John", "Jane", "Michael", "Emily", "David", "Sarah", "Robert", "Maria", "Daniel", "Olivia"};
-    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez"};
-    private static final String[] STREETS = {"123 Main St", "456 Elm Ave", "789 Oak Blvd", "101 Pine Lane", "202 Maple Dr", 
-                                           "303 Cedar Ct", "404 Birch Rd", "505 Willow Way", "606 Spruce St", "707 Cherry Ave"};
-    private static final String[] CITIES = {"New York", "Los Angeles", "Chicago", "Houston", "Phoenix", 
-                                          "Philadelphia", "San Antonio", "San Diego", "Dallas", "San Jose"};
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Michael", "Emily", "David", "Sarah", "Robert", "Maria",
+            "Daniel", "Olivia", "James", "Sophia", "William", "Emma", "Joseph", "Ava", "Thomas", "Mia", "Charles", "Grace"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Wilson", "Anderson", "Taylor", "Moore", "Jackson", "Lee", "White", "Harris"};
+    private static final String[] STREETS = {"Main St", "Elm Ave", "Oak Blvd", "Pine Lane", "Maple Dr", "Cedar Ct",
+            "Birch Rd", "Willow Way", "Spruce St", "Cherry Ave", "Park Ave", "Lake Rd", "Hill St", "River Dr"};
+    private static final String[] CITIES = {"New York", "Los Angeles", "Chicago", "Houston", "Phoenix",
+            "Philadelphia", "San Antonio", "San Diego", "Dallas", "San Jose"};
     private static final String[] PROVINCES = {"NY", "CA", "IL", "TX", "AZ", "PA", "TX", "CA", "TX", "CA"};
-    private static final String[] COUNTRIES = {"USA", "USA", "USA", "USA", "USA", "USA", "USA", "USA", "USA", "USA"};
     private static final String[] ZIP_CODES = {"10001", "90001", "60601", "77001", "85001", "19101", "78201", "92101", "75201", "95101"};
-    private static final String[] PHONE_NUMBERS = {"212-555-1234", "213-555-2345", "312-555-3456", "713-555-4567", "602-555-5678", 
-                                                 "215-555-6789", "210-555-7890", "619-555-8901", "214-555-9012", "408-555-0123"};
+    private static final String[] EMAIL_DOMAINS = {"example.com", "example.org", "mail.example.net", "corp.example.com"};
+
+    private static final LocalDate OLDEST_BIRTHDAY = LocalDate.of(1940, 1, 1);
+    private static final int BIRTHDAY_RANGE_DAYS = 365 * 65;
 
     @Override
     public void run(ApplicationArguments args) throws Exception {
-        log.info("Starting data loading...");
-        
-        // Only load data if the database is empty
-        if (isDatabaseEmpty()) {
-            try {
-                // Create 10 people with all related data
-                for (int i = 0; i < 10; i++) {
-                    User user = createUser(i);
-                    userRepository.save(user);
-                    log.info("Created user: {} {}", user.getFirstName(), user.getLastName());
-                }
-                log.info("Data loading completed successfully.");
-                
-                // Update metrics after data loading
-
-            } catch (DataIntegrityViolationException e) {
-                log.warn("Data already exists in the database. Skipping data loading. Error: {}", e.getMessage());
-            }
+        if (users <= 0 || !isDatabaseEmpty()) {
+            log.info("Skipping data seeding: {}", users <= 0 ? "seed.users is 0" : "database is not empty");
+            return;
         }
-        
+
+        int partitionCount = (int) Math.max(1, Math.min(partitions, users));
+        log.info("Seeding {} users in {} partitions of chunks of {} users, random seed {}",
+                users, partitionCount, chunkSize, randomSeed);
+
+        AtomicLong rows = new AtomicLong();
+        long start = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(partitionCount);
         try {
-            // Verify data was loaded properly by retrieving one user with all details
-            Set<String> attributes = new HashSet<>(List.of("contacts","addresses"));
-            UserDTO dto = userService.findById(1L, true, attributes);
-            String a = "";
-        } catch (Exception e) {
-            log.warn("Could not verify data: {}", e.getMessage());
+            List<Future<?>> futures = new ArrayList<>(partitionCount);
+            for (int partition = 0; partition < partitionCount; partition++) {
+                long from = users * partition / partitionCount;
+                long to = users * (partition + 1) / partitionCount;
+                futures.add(executor.submit(() -> seedPartition(from, to, rows)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Data seeding failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        log.info("Seeded {} users ({} rows) in {} s, {} rows/s",
+                users, rows.get(), String.format("%.1f", seconds), Math.round(rows.get() / seconds));
     }
-    
+
     /**
      * Check if the database is empty before inserting data
      * @return true if the database is empty
      */
     private boolean isDatabaseEmpty() {
-        TypedQuery<Long> query = entityManager.createQuery("SELECT COUNT(p) FROM User p", Long.class);
-        Long count = query.getSingleResult();
-        return count == 0;
+        Long count = transactionTemplate.execute(status ->
+                entityManager.createQuery("SELECT COUNT(p) FROM User p", Long.class).getSingleResult());
+        return count != null && count == 0;
     }
-    
+
     /**
-     * Check if an email already exists in the database
-     * @param email the email to check
-     * @return true if the email already exists
+     * Inserts the users with index in [from, to), one transaction per chunk
      */
-    private boolean emailExists(String email) {
-        TypedQuery<Long> query = entityManager.createQuery(
-            "SELECT COUNT(c) FROM Contact c WHERE c.email = :email", Long.class);
-        query.setParameter("email", email);
-        Long count = query.getSingleResult();
-        return count > 0;
+    private void seedPartition(long from, long to, AtomicLong rows) {
+        for (long chunkStart = from; chunkStart < to; chunkStart += chunkSize) {
+            long chunkEnd = Math.min(chunkStart + chunkSize, to);
+            long first = chunkStart;
+            Long chunkRows = transactionTemplate.execute(status -> {
+                long inserted = 0;
+                for (long index = first; index < chunkEnd; index++) {
+                    inserted += persistUser(index);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return inserted;
+            });
+            rows.addAndGet(chunkRows == null ? 0 : chunkRows);
+        }
+        log.debug("Seeded users {} to {}", from, to - 1);
     }
-    
+
     /**
-     * Check if a phone number already exists in the database
-     * @param phoneNumber the phone number to check
-     * @return true if the phone number already exists
+     * Persists the user with the given index and its children through the owning side; new addresses are equal
+     * to each other until they have an ID, so they are not collected in the user's set
+     *
+     * @return the number of inserted rows
      */
-    private boolean phoneNumberExists(String phoneNumber) {
-        TypedQuery<Long> query = entityManager.createQuery(
-            "SELECT COUNT(c) FROM Contact c WHERE c.phoneNumber = :phoneNumber", Long.class);
-        query.setParameter("phoneNumber", phoneNumber);
-        Long count = query.getSingleResult();
-        return count > 0;
-    }
+    private int persistUser(long index) {
+        // Seeded per user, so the data does not depend on partitioning or thread scheduling
+        SplittableRandom random = new SplittableRandom(randomSeed ^ (index * 0x9E3779B97F4A7C15L));
 
-    public User createUser(int index) {
-        // Create the user with basic info
+        String firstName = pick(random, FIRST_NAMES);
+        String lastName = pick(random, LAST_NAMES);
         User user = User.builder()
-                .password("password" + (index + 1))
-                .firstName(FIRST_NAMES[index])
-                .lastName(LAST_NAMES[index])
-                .birthDay(LocalDate.of(1980 + index, (index % 12) + 1, (index % 28) + 1))
+                .password("password" + (index % 10_000))
+                .firstName(firstName)
+                .lastName(lastName)
+                .birthDay(OLDEST_BIRTHDAY.plusDays(random.nextInt(BIRTHDAY_RANGE_DAYS)))
                 .build();
+        entityManager.persist(user);
+        int inserted = 1;
 
-        // Create multiple addresses for each user (1-3 addresses)
-        int numAddresses = (index % 3) + 1;
+        // 1-3 addresses, the first one local
+        int numAddresses = random.nextInt(3) + 1;
         for (int i = 0; i < numAddresses; i++) {
-            Address address = createAddress(user, index, i);
-            user.addAddress(address);
+            int city = random.nextInt(CITIES.length);
+            Address address = Address.builder()
+                    .type(i == 0 ? AddressType.LOCAL : AddressType.INTERNATIONAL)
+                    .street((random.nextInt(9_999) + 1) + " " + pick(random, STREETS))
+                    .postZipCode(ZIP_CODES[city])
+                    .city(CITIES[city])
+                    .province(PROVINCES[city])
+                    .country("USA")
+                    .build();
+            address.setUser(user);
+            entityManager.persist(address);
+            inserted++;
         }
 
-        // Create multiple contacts for each user (1-2 contacts)
-        int numContacts = (index % 2) + 1;
+        // 1-2 contacts, unique through the user index
+        int numContacts = random.nextInt(2) + 1;
         for (int i = 0; i < numContacts; i++) {
-            Contact contact = createContact(user, index, i);
-            if (contact != null) {
-                user.addContact(contact);
-            }
+            Contact contact = Contact.builder()
+                    .contactType(i == 0 ? ContactType.PERSONAL : ContactType.WORK)
+                    .phoneNumber(String.format("+1 %010d", index * 2 + i))
+                    .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + "." + index
+                            + (i > 0 ? ".work" : "") + "@" + pick(random, EMAIL_DOMAINS))
+                    .build();
+            contact.setUser(user);
+            entityManager.persist(contact);
+            inserted++;
         }
-        return user;
-    }
-
-    public Address createAddress(User user, int userIndex, int addressIndex) {
-        // Determine address type based on index - only LOCAL and INTERNATIONAL are available
-        AddressType type = addressIndex == 0 ? AddressType.LOCAL : AddressType.INTERNATIONAL;
-        
-        // Create address with data from our sample arrays, with some variations
-        Address address = Address.builder()
-                .type(type)
-                .street(STREETS[userIndex] + (addressIndex > 0 ? ", Suite " + (addressIndex * 100) : ""))
-                .postZipCode(ZIP_CODES[userIndex])
-                .city(CITIES[userIndex])
-                .province(PROVINCES[userIndex])
-                .country(COUNTRIES[userIndex])
-                .build();
-
-        address.setUser(user);
-        return address;
+        return inserted;
     }
 
-    public Contact createContact(User user, int userIndex, int contactIndex) {
-        // Determine contact type based on index
-        ContactType type = contactIndex == 0 ? ContactType.PERSONAL : ContactType.WORK;
-        
-        // Format email based on user name and contact type
-        String email = FIRST_NAMES[userIndex].toLowerCase() + "." +
-                      LAST_NAMES[userIndex].toLowerCase() +
-                      (contactIndex > 0 ? ".work" : "") + 
-                      "@example.com";
-        
-        // Check if this email already exists in the database
-        if (emailExists(email)) {
-            log.warn("Email {} already exists, skipping this contact", email);
-            return null;
-        }
-        
-        // Generate phone number with variation
-        String phoneNumber = PHONE_NUMBERS[userIndex] + (contactIndex > 0 ? "0" : "");
-        
-        // Check if this phone number already exists in the database
-        if (phoneNumberExists(phoneNumber)) {
-            log.warn("Phone number {} already exists, skipping this contact", phoneNumber);
-            return null;
-        }
-        
-        // Create contact with appropriate data
-        Contact contact = Contact.builder()
-                .contactType(type)
-                .phoneNumber(phoneNumber)
-                .email(email)
-                .build();
-
-        contact.setUser(user);
-        return contact;
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
     }
-
 }
@@ -0,0 +1,48 @@
+package com.userorder.cli;
+
+import com.userorder.service.UserBulkLoadService;
+import com.userorder.service.dto.BulkLoadReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Loads users from newline-delimited JSON files on startup, one file per --bulk-load=&lt;path&gt; option,
+ * e.g. {@code java -jar user-service.jar --bulk-load=/data/users.ndjson}. Does nothing without the option.
+ * <p>
+ * A failing file stops the startup, so a scripted load does not go unnoticed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkLoadRunner implements ApplicationRunner {
+
+    private static final String OPTION = "bulk-load";
+
+    private final UserBulkLoadService userBulkLoadService;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<String> files = args.getOptionValues(OPTION);
+        if (files == null) {
+            return;
+        }
+
+        for (String file : files) {
+            log.info("Bulk loading users from {}", file);
+            try (InputStream input = Files.newInputStream(Path.of(file))) {
+                BulkLoadReport report = userBulkLoadService.load(input);
+                report.getRejections().forEach(rejection ->
+                        log.warn("Bulk load of {} rejected line {}: {}", file, rejection.getLine(), rejection.getErrors()));
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.userorder.config.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.userorder.service.AddressService;
+import com.userorder.service.ContactService;
+import com.userorder.service.UserService;
+import com.userorder.service.cache.CachingAddressService;
+import com.userorder.service.cache.CachingContactService;
+import com.userorder.service.cache.CachingUserService;
+import com.userorder.service.cache.DtoCacheInvalidator;
+import com.userorder.service.cache.DtoCacheStore;
+import com.userorder.service.cache.InMemoryDtoCacheStore;
+import com.userorder.service.cache.RedisDtoCacheStore;
+import com.userorder.service.cache.TwoTierDtoCacheStore;
+import com.userorder.service.impl.AddressServiceImpl;
+import com.userorder.service.impl.ContactServiceImpl;
+import com.userorder.service.impl.UserServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Read-through cache of user, address and contact DTOs. When enabled, the caching services become the
+ * primary service beans and wrap the JPA implementations.
+ * <p>
+ * The shared store is Redis by default; with user-service.dto-cache.near-cache.enabled=true every replica
+ * additionally keeps a bounded in-process L1 that is invalidated over Redis pub/sub.
+ * user-service.dto-cache.store=memory keeps entries in-process only (tests, local runs without Redis).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "user-service.dto-cache", name = "enabled", havingValue = "true")
+public class DtoCacheConfig {
+
+    @Value("${user-service.dto-cache.ttl:10m}")
+    private Duration ttl;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "user-service.dto-cache", name = "store", havingValue = "redis", matchIfMissing = true)
+    public DtoCacheStore redisDtoCacheStore(
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${user-service.dto-cache.near-cache.enabled:false}") boolean nearCacheEnabled,
+            @Value("${user-service.dto-cache.near-cache.max-weight:16777216}") long nearCacheMaxWeight,
+            @Value("${user-service.dto-cache.near-cache.ttl:60s}") Duration nearCacheTtl,
+            @Value("${user-service.dto-cache.near-cache.channel:user-service:dto-cache:invalidations}") String channel) {
+        RedisDtoCacheStore shared = new RedisDtoCacheStore(redisTemplate);
+        if (!nearCacheEnabled) {
+            return shared;
+        }
+        return new TwoTierDtoCacheStore(shared, redisTemplate, channel, UUID.randomUUID().toString(),
+                nearCacheMaxWeight, nearCacheTtl, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "user-service.dto-cache", name = "store", havingValue = "memory")
+    public DtoCacheStore inMemoryDtoCacheStore() {
+        return new InMemoryDtoCacheStore();
+    }
+
+    /**
+     * Subscribes the near cache to the invalidations broadcast by all replicas
+     */
+    @Bean
+    @ConditionalOnExpression("${user-service.dto-cache.near-cache.enabled:false} and '${user-service.dto-cache.store:redis}' == 'redis'")
+    public RedisMessageListenerContainer dtoCacheInvalidationListener(
+            RedisConnectionFactory connectionFactory,
+            DtoCacheStore dtoCacheStore,
+            @Value("${user-service.dto-cache.near-cache.channel:user-service:dto-cache:invalidations}") String channel) {
+        TwoTierDtoCacheStore nearCache = (TwoTierDtoCacheStore) dtoCacheStore;
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> nearCache.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(channel));
+        return container;
+    }
+
+    @Bean
+    @Primary
+    public UserService cachingUserService(UserServiceImpl userServiceImpl,
+                                          DtoCacheStore dtoCacheStore,
+                                          ObjectMapper objectMapper,
+                                          MeterRegistry meterRegistry) {
+        return new CachingUserService(userServiceImpl, dtoCacheStore, objectMapper, ttl, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public AddressService cachingAddressService(AddressServiceImpl addressServiceImpl,
+                                                DtoCacheStore dtoCacheStore,
+                                                ObjectMapper objectMapper,
+                                                MeterRegistry meterRegistry) {
+        return new CachingAddressService(addressServiceImpl, dtoCacheStore, objectMapper, ttl, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public ContactService cachingContactService(ContactServiceImpl contactServiceImpl,
+                                                DtoCacheStore dtoCacheStore,
+                                                ObjectMapper objectMapper,
+                                                MeterRegistry meterRegistry) {
+        return new CachingContactService(contactServiceImpl, dtoCacheStore, objectMapper, ttl, meterRegistry);
+    }
+
+    @Bean
+    public DtoCacheInvalidator dtoCacheInvalidator(DtoCacheStore dtoCacheStore) {
+        return new DtoCacheInvalidator(dtoCacheStore);
+    }
+}
@@ -0,0 +1,96 @@
+package com.userorder.config.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Carries read-your-writes pinning across requests of the same client: a request that committed a change
+ * answers with a {@value #COOKIE} cookie holding the end of the pinning, and requests sending it back read
+ * from the primary until then. Values further in the future than one window are capped, so a client can only
+ * pin its own reads, and only briefly.
+ * <p>
+ * The cookie is added right before the response is committed, like the X-SQL-* headers of SqlStatisticsFilter.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "user-service-primary-until";
+
+    private final long windowMillis;
+
+    public ReadYourWritesFilter(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long requested = primaryUntil(request);
+        ReadYourWritesHolder.begin(requested);
+        try {
+            filterChain.doFilter(request, new PinningCookieResponse(response, requested));
+        } finally {
+            if (!response.isCommitted()) {
+                // Nothing was flushed (e.g. 204 after a delete), the cookie can still be set now
+                writeCookie(response, requested);
+            }
+            ReadYourWritesHolder.end();
+        }
+    }
+
+    /**
+     * End of the pinning sent by the client, capped at one window from now; 0 when absent or malformed
+     */
+    private long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis() + windowMillis);
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the cookie when a write during this request extended the pinning
+     */
+    private static void writeCookie(HttpServletResponse response, long requested) {
+        long primaryUntil = ReadYourWritesHolder.primaryUntil();
+        if (primaryUntil <= requested) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE, Long.toString(primaryUntil));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, (primaryUntil - System.currentTimeMillis() + 999) / 1000));
+        response.addCookie(cookie);
+    }
+
+    private static class PinningCookieResponse extends OnCommittedResponseWrapper {
+
+        private final long requested;
+
+        PinningCookieResponse(HttpServletResponse response, long requested) {
+            super(response);
+            this.requested = requested;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeCookie(this, requested);
+        }
+    }
+}
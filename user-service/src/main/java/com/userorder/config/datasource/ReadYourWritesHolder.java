@@ -0,0 +1,102 @@
+package com.userorder.config.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Binds the read-your-writes state of the current request to the current thread: until the bound instant
+ * (epoch millis) read-only transactions are pinned to the primary, so a client that just changed something
+ * does not read a replica that has not replayed the change yet. Without a bound state (background threads)
+ * nothing is pinned and writes are not tracked.
+ * <p>
+ * Independently of requests, {@link #onPrimary(Supplier)} pins the reads of a piece of work on any thread:
+ * for reads whose result outlives the request (shared caches, in-memory indexes) and must not be taken
+ * from a replica that is behind.
+ */
+public final class ReadYourWritesHolder {
+
+    private static final ThreadLocal<long[]> PRIMARY_UNTIL = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> PRIMARY_SCOPES = new ThreadLocal<>();
+
+    private ReadYourWritesHolder() {
+    }
+
+    /**
+     * Starts tracking on the current thread, pinned to the primary until the given epoch millis (0 for not pinned)
+     */
+    public static void begin(long primaryUntil) {
+        PRIMARY_UNTIL.set(new long[]{primaryUntil});
+    }
+
+    /**
+     * Pins the current thread to the primary for the given window after a committed write
+     *
+     * @return the new end of the pinning in epoch millis, or 0 when nothing is tracked on this thread
+     */
+    public static long markWritten(long windowMillis) {
+        long[] state = PRIMARY_UNTIL.get();
+        if (state == null) {
+            return 0;
+        }
+        state[0] = Math.max(state[0], System.currentTimeMillis() + windowMillis);
+        return state[0];
+    }
+
+    /**
+     * End of the pinning in epoch millis, 0 when the thread is not pinned or not tracked
+     */
+    public static long primaryUntil() {
+        long[] state = PRIMARY_UNTIL.get();
+        return state == null ? 0 : state[0];
+    }
+
+    /**
+     * True while reads of the current thread must go to the primary
+     */
+    public static boolean isPinned() {
+        return isInPrimaryScope() || primaryUntil() > System.currentTimeMillis();
+    }
+
+    /**
+     * True while the current thread runs inside {@link #onPrimary(Supplier)}
+     */
+    public static boolean isInPrimaryScope() {
+        return PRIMARY_SCOPES.get() != null;
+    }
+
+    /**
+     * Runs the work with all its read-only transactions on the primary; nests. The transactions must start
+     * inside the work, a read-only transaction that already holds a replica connection keeps it.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        int[] depth = PRIMARY_SCOPES.get();
+        if (depth == null) {
+            depth = new int[1];
+            PRIMARY_SCOPES.set(depth);
+        }
+        depth[0]++;
+        try {
+            return work.get();
+        } finally {
+            if (--depth[0] == 0) {
+                PRIMARY_SCOPES.remove();
+            }
+        }
+    }
+
+    /**
+     * {@link #onPrimary(Supplier)} for work without result
+     */
+    public static void runOnPrimary(Runnable work) {
+        onPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Stops tracking on the current thread
+     */
+    public static void end() {
+        PRIMARY_UNTIL.remove();
+    }
+}
@@ -0,0 +1,23 @@
+package com.userorder.config.datasource;
+
+import com.userorder.service.event.EntityChangedEvent;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Pins the reads of the current request to the primary once a change to a user, address or contact is
+ * committed, for as long as the replicas may take to replay it
+ */
+public class ReadYourWritesListener {
+
+    private final long windowMillis;
+
+    public ReadYourWritesListener(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        ReadYourWritesHolder.markWritten(windowMillis);
+    }
+}
@@ -0,0 +1,29 @@
+package com.userorder.config.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Keeps entities read from a replica out of the second-level cache: a read-only transaction that is not
+ * pinned to the primary reads the cache but does not put into it (CacheMode.GET), so a replica that is
+ * behind cannot refill an entry that a commit just evicted with the state before the commit.
+ * All other transactions use the cache normally.
+ */
+public class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        // Set on every transaction, the session may outlive this one (open session in view)
+        boolean replicaRead = definition.isReadOnly() && !ReadYourWritesHolder.isPinned();
+        entityManager.unwrap(Session.class).setCacheMode(replicaRead ? CacheMode.GET : CacheMode.NORMAL);
+        return transactionData;
+    }
+}
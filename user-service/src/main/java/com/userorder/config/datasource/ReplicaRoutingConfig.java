@@ -0,0 +1,117 @@
+package com.userorder.config.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to replica pools. The application DataSource is a LazyConnectionDataSourceProxy
+ * over the primary pool: the physical connection is only fetched at the first statement, after the
+ * transaction manager marked it read-only, and read-only connections come from {@link ReplicaRoutingDataSource}.
+ * Writes, and reads inside a read-write transaction, stay on the primary.
+ * <p>
+ * After a committed change the client's reads are pinned to the primary for a window (see
+ * {@link ReadYourWritesFilter}), so it reads its own writes even when the replicas are behind. Reads that fill
+ * shared state run on the primary through {@link ReadYourWritesHolder#onPrimary}, and replica reads do not put
+ * into the second-level cache ({@link ReplicaAwareJpaDialect}).
+ * Switch on with user-service.replicas.enabled=true and a comma-separated list of JDBC URLs; the replica pools
+ * take their settings and credentials from the primary pool unless overridden.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "user-service.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${user-service.replicas.urls:}") List<String> urls,
+            @Value("${user-service.replicas.username:}") String username,
+            @Value("${user-service.replicas.password:}") String password,
+            @Value("${user-service.replicas.lag-query:select 0}") String lagQuery,
+            @Value("${user-service.replicas.max-lag:1s}") Duration maxLag,
+            @Value("${user-service.replicas.lag-check-interval:1s}") Duration lagCheckInterval) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + (pools.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setReadOnly(true);
+            // A replica that is down must not stop the startup, the lag check keeps it out of rotation
+            config.setInitializationFailTimeout(-1);
+            if (!username.isBlank()) {
+                config.setUsername(username);
+                config.setPassword(password);
+            }
+            pools.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, pools, lagQuery, maxLag, lagCheckInterval, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    /**
+     * Sets the {@link ReplicaAwareJpaDialect} on the entity manager factory before it picks the vendor default
+     */
+    @Bean
+    public static BeanPostProcessor replicaAwareJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactory) {
+                    entityManagerFactory.setJpaDialect(new ReplicaAwareJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public ReadYourWritesListener readYourWritesListener(
+            @Value("${user-service.replicas.read-your-writes-window:5s}") Duration window) {
+        return new ReadYourWritesListener(window.toMillis());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${user-service.replicas.read-your-writes-window:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(window.toMillis()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,169 @@
+package com.userorder.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections for read-only transactions (see the LazyConnectionDataSourceProxy in
+ * ReplicaRoutingConfig): round-robin over the replica pools that are reachable and no further behind the
+ * primary than the configured maximum lag, the primary when none is, when the current request is pinned
+ * by read-your-writes, or when the work asked for the primary (ReadYourWritesHolder.onPrimary).
+ * <p>
+ * The lag of every replica is measured in the background with the configured lag query; a replica that
+ * cannot be reached, or fails to hand out a connection, is skipped until the next successful check.
+ * Startup does not wait for the replicas, they join the rotation with their first successful check.
+ * Metrics: datasource.routing.connections{target, reason} and datasource.replica.lag{replica} in milliseconds.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final ScheduledExecutorService lagChecker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryPinned;
+    private final Counter primaryScoped;
+    private final Counter primaryFallback;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, String lagQuery,
+                                    Duration maxLag, Duration lagCheckInterval, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLag.toMillis();
+        this.replicas = replicaPools.stream().map(pool -> new Replica(pool, meterRegistry)).toList();
+        this.primaryPinned = routingCounter(meterRegistry, "primary", "read-your-writes");
+        this.primaryScoped = routingCounter(meterRegistry, "primary", "primary-scope");
+        this.primaryFallback = routingCounter(meterRegistry, "primary", "no-replica");
+
+        this.lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = lagCheckInterval.toMillis();
+        // Replicas join the rotation with their first successful check, reads go to the primary until then
+        lagChecker.scheduleWithFixedDelay(() -> replicas.forEach(this::checkLag), 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadYourWritesHolder.isInPrimaryScope()) {
+            primaryScoped.increment();
+            return primary.getConnection();
+        }
+        if (ReadYourWritesHolder.isPinned()) {
+            primaryPinned.increment();
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                Connection connection = replica.pool.getConnection();
+                replica.routed.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.markUnavailable("no connection: " + e.getMessage());
+            }
+        }
+        primaryFallback.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connections are routed to pools with fixed credentials");
+    }
+
+    /**
+     * Measures the lag of the replica and takes it in or out of the rotation
+     */
+    private void checkLag(Replica replica) {
+        try (Connection connection = replica.pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            long lag = resultSet.next() ? resultSet.getLong(1) : 0;
+            replica.lagMillis = lag;
+            if (lag > maxLagMillis) {
+                replica.markUnavailable("lag " + lag + " ms exceeds " + maxLagMillis + " ms");
+            } else {
+                replica.markAvailable();
+            }
+        } catch (SQLException | RuntimeException e) {
+            replica.lagMillis = -1;
+            replica.markUnavailable("lag check failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Connections handed out for read-only transactions")
+                .tags("target", target, "reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static class Replica {
+
+        private final HikariDataSource pool;
+        private final Counter routed;
+
+        private volatile boolean available;
+        private volatile boolean checked;
+        private volatile long lagMillis = -1;
+
+        Replica(HikariDataSource pool, MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.routed = routingCounter(meterRegistry, pool.getPoolName(), "read-only");
+            Gauge.builder("datasource.replica.lag", this, replica -> replica.lagMillis)
+                    .description("Replication lag measured by the last check in milliseconds, -1 when unreachable")
+                    .tag("replica", pool.getPoolName())
+                    .register(meterRegistry);
+        }
+
+        void markAvailable() {
+            if (!available) {
+                available = true;
+                log.info("Replica {} is in rotation (lag {} ms)", pool.getPoolName(), lagMillis);
+            }
+            checked = true;
+        }
+
+        void markUnavailable(String reason) {
+            if (available || !checked) {
+                log.warn("Replica {} is out of rotation, reads go to the other replicas or the primary: {}",
+                        pool.getPoolName(), reason);
+            }
+            available = false;
+            checked = true;
+        }
+    }
+}
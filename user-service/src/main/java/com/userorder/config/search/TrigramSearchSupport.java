@@ -0,0 +1,79 @@
+package com.userorder.config.search;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Decides whether fuzzy search can use PostgreSQL pg_trgm. The extension and the GIN trigram indexes on
+ * user.first_name, user.last_name, address.street and address.city come from the Liquibase changelog
+ * (003-trigram-indexes); with user-service.fuzzy-search.create-indexes=true they are also created on startup
+ * for schemas not managed by it. On other databases, with user-service.fuzzy-search.trigram=false, or when
+ * the extension is not installed, fuzzy search falls back to substring matching.
+ */
+@Slf4j
+@Component
+public class TrigramSearchSupport {
+
+    private static final List<String> DDL = List.of(
+            "create extension if not exists pg_trgm",
+            "create index if not exists idx_user_first_name_trgm on \"user\" using gin (first_name gin_trgm_ops)",
+            "create index if not exists idx_user_last_name_trgm on \"user\" using gin (last_name gin_trgm_ops)",
+            "create index if not exists idx_address_street_trgm on address using gin (street gin_trgm_ops)",
+            "create index if not exists idx_address_city_trgm on address using gin (city gin_trgm_ops)");
+
+    private static final String EXTENSION_INSTALLED =
+            "select exists (select 1 from pg_extension where extname = 'pg_trgm')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean createIndexes;
+
+    private volatile boolean available;
+
+    public TrigramSearchSupport(EntityManagerFactory entityManagerFactory,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${user-service.fuzzy-search.trigram:true}") boolean enabled,
+                                @Value("${user-service.fuzzy-search.create-indexes:false}") boolean createIndexes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.createIndexes = createIndexes;
+        this.available = enabled && entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        if (!available) {
+            log.info("Fuzzy search uses substring matching");
+            return;
+        }
+        try {
+            if (createIndexes) {
+                DDL.forEach(jdbcTemplate::execute);
+            }
+            available = Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXTENSION_INSTALLED, Boolean.class));
+            if (available) {
+                log.info("Fuzzy search uses pg_trgm");
+            } else {
+                log.warn("pg_trgm is not installed, fuzzy search falls back to substring matching");
+            }
+        } catch (RuntimeException e) {
+            available = false;
+            log.warn("Could not set up pg_trgm, fuzzy search falls back to substring matching: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * True when fuzzy search should rank with pg_trgm
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+}
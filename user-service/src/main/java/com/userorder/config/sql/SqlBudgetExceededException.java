@@ -0,0 +1,12 @@
+package com.userorder.config.sql;
+
+/**
+ * Thrown when a unit of work exceeds its SQL budget or repeats a statement past the N+1 threshold
+ * while strict mode is on (or when a test asserts the budget explicitly)
+ */
+public class SqlBudgetExceededException extends IllegalStateException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
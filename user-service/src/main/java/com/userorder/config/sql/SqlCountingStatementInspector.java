@@ -0,0 +1,32 @@
+package com.userorder.config.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that counts every statement prepared by Hibernate for the
+ * {@link SqlStatistics} bound to the current thread. The SQL itself is returned unchanged.
+ */
+@Slf4j
+public class SqlCountingStatementInspector implements StatementInspector {
+
+    private final boolean strict;
+
+    public SqlCountingStatementInspector(boolean strict) {
+        this.strict = strict;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatistics statistics = SqlStatisticsHolder.current();
+        if (statistics != null && statistics.recordStatement(sql)) {
+            String message = "Possible N+1 query pattern, statement repeated "
+                    + statistics.getNPlusOneSuspects().get(sql) + " times: " + sql;
+            if (strict) {
+                throw new SqlBudgetExceededException(message);
+            }
+            log.warn(message);
+        }
+        return sql;
+    }
+}
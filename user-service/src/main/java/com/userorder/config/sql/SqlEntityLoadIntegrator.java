@@ -0,0 +1,37 @@
+package com.userorder.config.sql;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Registers a post-load listener that counts every entity materialized from a result set
+ * (roots, joined associations and initialized collection elements) for the current {@link SqlStatistics}.
+ * Scalar projections do not create entities and are not counted.
+ */
+public class SqlEntityLoadIntegrator implements Integrator {
+
+    private static final PostLoadEventListener COUNTING_LISTENER = event -> {
+        SqlStatistics statistics = SqlStatisticsHolder.current();
+        if (statistics != null) {
+            statistics.recordEntityLoad();
+        }
+    };
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        sessionFactory.getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, COUNTING_LISTENER);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Nothing to release
+    }
+}
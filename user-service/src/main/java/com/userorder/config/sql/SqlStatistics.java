@@ -0,0 +1,121 @@
+package com.userorder.config.sql;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL activity of one unit of work (usually one HTTP request): statements sent to the database,
+ * entities loaded from result sets and time spent executing JDBC statements.
+ * <p>
+ * Identical queries are counted per SQL string; a query repeated more often than the
+ * N+1 threshold is a strong hint for a lazy association being walked in a loop.
+ * Repetition is expected, and not counted as N+1, for writes (inserts, updates and deletes are
+ * prepared again for every JDBC batch) and for queries that bind a list of IDs
+ * ({@code in (?,?,...)}): full chunks of the batched summary, child and export reads share the same SQL.
+ * Instances are confined to one thread and not thread-safe.
+ */
+public class SqlStatistics {
+
+    private static final Pattern ID_LIST = Pattern.compile("\\bin\\s*\\(\\s*\\?\\s*,", Pattern.CASE_INSENSITIVE);
+
+    private final int nPlusOneThreshold;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private final Map<String, Integer> nPlusOneSuspects = new LinkedHashMap<>();
+
+    private int statements;
+    private long entitiesLoaded;
+    private long jdbcNanos;
+
+    public SqlStatistics(int nPlusOneThreshold) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    /**
+     * Counts one prepared statement
+     *
+     * @return true when this execution pushed the statement over the N+1 threshold for the first time
+     */
+    boolean recordStatement(String sql) {
+        statements++;
+        if (!isNPlusOneCandidate(sql)) {
+            return false;
+        }
+        int executions = executionsBySql.merge(sql, 1, Integer::sum);
+        if (executions > nPlusOneThreshold) {
+            boolean first = !nPlusOneSuspects.containsKey(sql);
+            nPlusOneSuspects.put(sql, executions);
+            return first;
+        }
+        return false;
+    }
+
+    /**
+     * Single-row or single-parent queries can form an N+1 pattern, batched writes and ID-list queries cannot
+     */
+    static boolean isNPlusOneCandidate(String sql) {
+        String statement = sql.stripLeading();
+        boolean query = statement.regionMatches(true, 0, "select", 0, 6) || statement.regionMatches(true, 0, "with", 0, 4);
+        return query && !ID_LIST.matcher(statement).find();
+    }
+
+    void recordEntityLoad() {
+        entitiesLoaded++;
+    }
+
+    void recordJdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public double getJdbcMillis() {
+        return jdbcNanos / 1_000_000.0;
+    }
+
+    /**
+     * Statements executed more often than the N+1 threshold, with their execution count
+     */
+    public Map<String, Integer> getNPlusOneSuspects() {
+        return Map.copyOf(nPlusOneSuspects);
+    }
+
+    public boolean hasNPlusOne() {
+        return !nPlusOneSuspects.isEmpty();
+    }
+
+    /**
+     * Fails when more statements than allowed were issued or any statement crossed the N+1 threshold.
+     * Meant for tests: wrap the code under test with {@link SqlStatisticsHolder#begin(int)} / {@link SqlStatisticsHolder#end()}
+     * and assert the budget on the returned statistics.
+     */
+    public void assertWithin(int maxStatements) {
+        if (statements > maxStatements) {
+            throw new SqlBudgetExceededException("Expected at most " + maxStatements + " SQL statements, but "
+                    + statements + " were executed");
+        }
+        if (hasNPlusOne()) {
+            throw new SqlBudgetExceededException("N+1 query pattern detected: " + nPlusOneSuspects);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SqlStatistics{statements=" + statements
+                + ", entitiesLoaded=" + entitiesLoaded
+                + ", jdbcMillis=" + String.format(Locale.ROOT, "%.2f", getJdbcMillis())
+                + ", nPlusOneSuspects=" + nPlusOneSuspects.size() + "}";
+    }
+}
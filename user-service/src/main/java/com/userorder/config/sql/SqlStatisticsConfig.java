@@ -0,0 +1,81 @@
+package com.userorder.config.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-request SQL statistics: hooks the statement counter, the JDBC timer and the entity load
+ * counter into Hibernate and measures every HTTP request with {@link SqlStatisticsFilter}.
+ * Switch off with user-service.sql-stats.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "user-service.sql-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsConfig {
+
+    private static final String INTEGRATOR_PROVIDER = "hibernate.integrator_provider";
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatisticsHibernateCustomizer(
+            @Value("${user-service.sql-stats.strict:false}") boolean strict) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlCountingStatementInspector(strict));
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingSessionListener.class.getName());
+            properties.put(INTEGRATOR_PROVIDER, withEntityLoadIntegrator(properties.get(INTEGRATOR_PROVIDER)));
+        };
+    }
+
+    /**
+     * Adds the entity load counter to the integrators of a provider configured elsewhere
+     * (an IntegratorProvider instance, class or class name) instead of replacing it
+     */
+    static IntegratorProvider withEntityLoadIntegrator(Object configured) {
+        IntegratorProvider existing = toIntegratorProvider(configured);
+        return () -> {
+            List<Integrator> integrators = new ArrayList<>();
+            if (existing != null) {
+                integrators.addAll(existing.getIntegrators());
+            }
+            integrators.add(new SqlEntityLoadIntegrator());
+            return integrators;
+        };
+    }
+
+    private static IntegratorProvider toIntegratorProvider(Object configured) {
+        if (configured == null || configured instanceof IntegratorProvider) {
+            return (IntegratorProvider) configured;
+        }
+        try {
+            Class<?> type = configured instanceof Class<?> clazz
+                    ? clazz
+                    : Class.forName(configured.toString().trim(), true, SqlStatisticsConfig.class.getClassLoader());
+            return (IntegratorProvider) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException("Cannot instantiate " + INTEGRATOR_PROVIDER + " " + configured, e);
+        }
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${user-service.sql-stats.n-plus-one-threshold:5}") int nPlusOneThreshold,
+            @Value("${user-service.sql-stats.max-statements:50}") int maxStatements,
+            @Value("${user-service.sql-stats.response-headers:true}") boolean responseHeaders) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatisticsFilter(meterRegistry, nPlusOneThreshold, maxStatements, responseHeaders));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,127 @@
+package com.userorder.config.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the SQL activity of every request, publishes it as Micrometer metrics
+ * (http.server.sql.statements, http.server.sql.entities, http.server.sql.time, http.server.sql.n_plus_one
+ * tagged with method and uri) and, optionally, as X-SQL-* response headers.
+ * <p>
+ * Headers are added right before the response is committed, so they only reflect the statements
+ * issued up to that point; streamed bodies written on another thread are not measured.
+ */
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ENTITIES_HEADER = "X-SQL-Entities";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+    public static final String N_PLUS_ONE_HEADER = "X-SQL-N-Plus-One";
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+    private final int maxStatements;
+    private final boolean responseHeaders;
+
+    public SqlStatisticsFilter(MeterRegistry meterRegistry, int nPlusOneThreshold, int maxStatements, boolean responseHeaders) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.maxStatements = maxStatements;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatisticsHolder.begin(nPlusOneThreshold);
+        HttpServletResponse measuredResponse = responseHeaders
+                ? new StatisticsHeaderResponse(response, statistics)
+                : response;
+        try {
+            filterChain.doFilter(request, measuredResponse);
+        } finally {
+            SqlStatisticsHolder.end();
+            if (responseHeaders && !response.isCommitted()) {
+                // Nothing was flushed (e.g. empty body), the headers can still be set now
+                writeHeaders(response, statistics);
+            }
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.sql.statements")
+                .description("SQL statements issued per request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("http.server.sql.entities")
+                .description("Entities loaded from result sets per request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getEntitiesLoaded());
+        Timer.builder("http.server.sql.time")
+                .description("Time spent executing JDBC statements per request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        if (statistics.hasNPlusOne()) {
+            Counter.builder("http.server.sql.n_plus_one")
+                    .description("Requests that repeated a statement past the N+1 threshold")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        if (statistics.getStatements() > maxStatements) {
+            log.warn("{} {} issued {} SQL statements (budget {}): {}",
+                    method, uri, statistics.getStatements(), maxStatements, statistics);
+        }
+    }
+
+    private static void writeHeaders(HttpServletResponse response, SqlStatistics statistics) {
+        response.setHeader(STATEMENTS_HEADER, Integer.toString(statistics.getStatements()));
+        response.setHeader(ENTITIES_HEADER, Long.toString(statistics.getEntitiesLoaded()));
+        response.setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.2f", statistics.getJdbcMillis()));
+        if (statistics.hasNPlusOne()) {
+            response.setHeader(N_PLUS_ONE_HEADER, Integer.toString(statistics.getNPlusOneSuspects().size()));
+        }
+    }
+
+    /**
+     * Adds the X-SQL-* headers at the last moment before the response is committed
+     */
+    private static class StatisticsHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final SqlStatistics statistics;
+
+        StatisticsHeaderResponse(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders(this, statistics);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.userorder.config.sql;
+
+/**
+ * Binds the {@link SqlStatistics} of the current unit of work to the current thread.
+ * Hibernate callbacks record into whatever is bound; without a bound instance they are no-ops,
+ * so background threads (startup loaders, async exports) are not measured.
+ */
+public final class SqlStatisticsHolder {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private SqlStatisticsHolder() {
+    }
+
+    /**
+     * Starts measuring on the current thread, replacing any previous measurement
+     */
+    public static SqlStatistics begin(int nPlusOneThreshold) {
+        SqlStatistics statistics = new SqlStatistics(nPlusOneThreshold);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Statistics bound to the current thread, or null when nothing is measured
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops measuring on the current thread and returns what was measured
+     */
+    public static SqlStatistics end() {
+        SqlStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+}
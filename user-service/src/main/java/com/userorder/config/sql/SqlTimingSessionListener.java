@@ -0,0 +1,41 @@
+package com.userorder.config.sql;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Measures the time every JDBC statement and batch of a Hibernate session spends executing.
+ * Hibernate creates one instance per session (hibernate.session.events.auto), so the start
+ * timestamp needs no synchronization.
+ */
+public class SqlTimingSessionListener implements SessionEventListener {
+
+    private long executionStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(executionStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private static void record(long start) {
+        SqlStatistics statistics = SqlStatisticsHolder.current();
+        if (statistics != null && start != 0) {
+            statistics.recordJdbcTime(System.nanoTime() - start);
+        }
+    }
+}
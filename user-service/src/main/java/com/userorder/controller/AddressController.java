@@ -2,18 +2,27 @@ package com.userorder.controller;
 
 
 import com.userorder.controller.swagger.api.AddressControllerEndpoint;
+import com.userorder.persistence.repository.KeysetOrder;
 import com.userorder.service.AddressService;
 import com.userorder.service.dto.AddressDTO;
+import com.userorder.service.dto.BatchResult;
+import com.userorder.service.dto.CursorPage;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Set;
+
+import static com.userorder.service.utils.ParamUtils.parseAttributesParam;
 
 /**
  * REST controller for managing Address entities
@@ -34,12 +43,61 @@ public class AddressController implements AddressControllerEndpoint {
         return ResponseEntity.ok(addresses);
     }
 
+    /**
+     * GET /api/addresses/cursor : Get addresses page by page using an opaque continuation token
+     *
+     * @param cursor Token returned as nextCursor by the previous page, omit for the first page
+     * @param size Maximum number of addresses in the page
+     * @param orderBy Sort keys of the listing: ID or MODIFIED_DATE
+     * @param withAudit If true, include audit information
+     * @param attributes Comma-separated list of attributes to include
+     * @return ResponseEntity with status 200 (OK) and the page of addresses in body
+     */
+    @Override
+    public ResponseEntity<CursorPage<AddressDTO>> getAddressesAfterCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(200) int size,
+            @RequestParam(name = "orderBy", defaultValue = "ID") KeysetOrder orderBy,
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @RequestParam(name = "attributes", required = false) String attributes) {
+
+        Set<String> attributeSet = parseAttributesParam(attributes);
+        CursorPage<AddressDTO> page = addressService.findAfter(cursor, size, orderBy, withAudit, attributeSet);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * GET /api/addresses/batch : Get many addresses by ID in one request
+     *
+     * @param ids Comma-separated list of address IDs
+     * @param withAudit If true, include audit information
+     * @param attributes Comma-separated list of attributes to include
+     * @return ResponseEntity with status 200 (OK), the found addresses in request order and the missing IDs in body
+     */
+    @Override
+    public ResponseEntity<BatchResult<AddressDTO>> getAddressesByIds(
+            @RequestParam(name = "ids") @NotEmpty List<Long> ids,
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @RequestParam(name = "attributes", required = false) String attributes) {
+
+        Set<String> attributeSet = parseAttributesParam(attributes);
+        BatchResult<AddressDTO> result = addressService.findAllByIds(ids, withAudit, attributeSet);
+        return ResponseEntity.ok(result);
+    }
 
     @Override
     public ResponseEntity<AddressDTO> getAddress(
             @PathVariable @NotNull @Min(1) Long id,
-            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit) {
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            WebRequest webRequest) {
+
+        // Version-only lookup; a matching If-None-Match skips loading, mapping and serialization
+        String eTag = addressService.getETag(id, withAudit, null);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
 
+        // checkNotModified already set the ETag header
         AddressDTO address = addressService.findById(id, withAudit, null);
         return ResponseEntity.ok(address);
     }
@@ -0,0 +1,29 @@
+package com.userorder.controller;
+
+
+import com.userorder.controller.swagger.api.AdminControllerEndpoint;
+import com.userorder.service.UserBulkLoadService;
+import com.userorder.service.dto.BulkLoadReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST controller for administrative operations
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController implements AdminControllerEndpoint {
+
+    private final UserBulkLoadService userBulkLoadService;
+
+    @Override
+    public ResponseEntity<BulkLoadReport> bulkLoadUsers(InputStream body) throws IOException {
+        return ResponseEntity.ok(userBulkLoadService.load(body));
+    }
+}
@@ -2,16 +2,22 @@ package com.userorder.controller;
 
 
 import com.userorder.controller.swagger.api.ContactControllerEndpoint;
+import com.userorder.persistence.repository.KeysetOrder;
 import com.userorder.service.ContactService;
 import com.userorder.service.dto.ContactDTO;
+import com.userorder.service.dto.BatchResult;
+import com.userorder.service.dto.CursorPage;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Set;
@@ -48,11 +54,56 @@ public class ContactController implements ContactControllerEndpoint {
         return ResponseEntity.ok(contacts);
     }
 
+    /**
+     * GET /api/contacts/cursor : Get contacts page by page using an opaque continuation token
+     *
+     * @param cursor Token returned as nextCursor by the previous page, omit for the first page
+     * @param size Maximum number of contacts in the page
+     * @param orderBy Sort keys of the listing: ID or MODIFIED_DATE
+     * @param withAudit If true, include audit information
+     * @param attributes Comma-separated list of attributes to include
+     * @return ResponseEntity with status 200 (OK) and the page of contacts in body
+     */
+    @Override
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<ContactDTO>> getContactsAfterCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(200) int size,
+            @RequestParam(name = "orderBy", defaultValue = "ID") KeysetOrder orderBy,
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @RequestParam(name = "attributes", required = false) String attributes) {
+
+        Set<String> attributeSet = parseAttributesParam(attributes);
+        CursorPage<ContactDTO> page = contactService.findAfter(cursor, size, orderBy, withAudit, attributeSet);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * GET /api/contacts/batch : Get many contacts by ID in one request
+     *
+     * @param ids Comma-separated list of contact IDs
+     * @param withAudit If true, include audit information
+     * @param attributes Comma-separated list of attributes to include
+     * @return ResponseEntity with status 200 (OK), the found contacts in request order and the missing IDs in body
+     */
+    @Override
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResult<ContactDTO>> getContactsByIds(
+            @RequestParam(name = "ids") @NotEmpty List<Long> ids,
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @RequestParam(name = "attributes", required = false) String attributes) {
+
+        Set<String> attributeSet = parseAttributesParam(attributes);
+        BatchResult<ContactDTO> result = contactService.findAllByIds(ids, withAudit, attributeSet);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * GET /api/contacts/:id : Get a contact by ID with configurable options
      *
      * @param id the id of the contact to retrieve
      * @param withAudit If true, include audit information
+     * @param webRequest Current request, answered with 304 (Not Modified) when its If-None-Match matches the ETag
      * @return the ResponseEntity with status 200 (OK) and the contact in body,
      * or with status 404 (Not Found)
      */
@@ -60,9 +111,17 @@ public class ContactController implements ContactControllerEndpoint {
     @GetMapping("/{id}")
     public ResponseEntity<ContactDTO> getContact(
             @PathVariable @NotNull @Min(1) Long id,
-            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit) {
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            WebRequest webRequest) {
+
+        // Version-only lookup; a matching If-None-Match skips loading, mapping and serialization
+        String eTag = contactService.getETag(id, withAudit, null);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
 
-        ContactDTO contact = contactService.findById(id, withAudit , null);
+        // checkNotModified already set the ETag header
+        ContactDTO contact = contactService.findById(id, withAudit, null);
         return ResponseEntity.ok(contact);
     }
 
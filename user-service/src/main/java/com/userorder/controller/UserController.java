@@ -1,18 +1,41 @@
 package com.userorder.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.userorder.controller.swagger.api.UserControllerEndpoint;
+import com.userorder.persistence.repository.KeysetOrder;
+import com.userorder.service.UserImportService;
 import com.userorder.service.UserService;
+import com.userorder.service.UserSuggestService;
+import com.userorder.service.dto.BatchResult;
+import com.userorder.service.dto.BulkImportResult;
+import com.userorder.service.dto.CursorPage;
 import com.userorder.service.dto.UserDTO;
+import com.userorder.service.dto.UserSearchCriteria;
+import com.userorder.service.dto.UserSearchHit;
+import com.userorder.service.dto.UserSuggestion;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Set;
 
@@ -29,31 +52,199 @@ import static com.userorder.service.utils.ParamUtils.parseAttributesParam;
 public class UserController implements UserControllerEndpoint {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserSuggestService userSuggestService;
+    private final ObjectMapper objectMapper;
 
     /**
      * GET /api/users : Get all users with configurable options
      * 
      * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
      * @param attributes Comma-separated list of attributes to include (e.g., "contacts,roles.permissions,addresses")
+     * @param summary If true, return own fields plus address/contact IDs and counts without loading collections (attributes are ignored)
      * @return ResponseEntity with status 200 (OK) and the list of users in body
      */
     @Override
     @GetMapping
     public ResponseEntity<List<UserDTO>> getAllUsers(
             @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
-            @RequestParam(name = "attributes", required = false) String attributes) {
+            @RequestParam(name = "attributes", required = false) String attributes,
+            @RequestParam(name = "summary", defaultValue = "false") boolean summary) {
         
+        if (summary) {
+            return ResponseEntity.ok(userService.findAllSummaries(withAudit));
+        }
+
         Set<String> attributeSet = parseAttributesParam(attributes);
         List<UserDTO> users = userService.findAll(withAudit, attributeSet);
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * GET /api/users/page : Get one page of users with configurable options
+     *
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "contacts,addresses")
+     * @param summary If true, return own fields plus address/contact IDs and counts without loading collections (attributes are ignored)
+     * @param pageable Page number, size and sort order
+     * @return ResponseEntity with status 200 (OK) and the page of users in body
+     */
+    @Override
+    @GetMapping("/page")
+    public ResponseEntity<Page<UserDTO>> getUserPage(
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @RequestParam(name = "attributes", required = false) String attributes,
+            @RequestParam(name = "summary", defaultValue = "false") boolean summary,
+            @ParameterObject @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+
+        if (summary) {
+            return ResponseEntity.ok(userService.findSummaryPage(withAudit, pageable));
+        }
+
+        Set<String> attributeSet = parseAttributesParam(attributes);
+        Page<UserDTO> users = userService.findPage(withAudit, attributeSet, pageable);
+        return ResponseEntity.ok(users);
+    }
+
+    /**
+     * GET /api/users/search : Search users by name prefix, birthday range, address city or country and contact email domain
+     *
+     * @param criteria Filters, all given filters must match
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "contacts,addresses")
+     * @param pageable Page number, size and sort order
+     * @return ResponseEntity with status 200 (OK) and the page of matching users in body
+     */
+    @Override
+    @GetMapping("/search")
+    public ResponseEntity<Page<UserDTO>> searchUsers(
+            @ParameterObject UserSearchCriteria criteria,
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @RequestParam(name = "attributes", required = false) String attributes,
+            @ParameterObject @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+
+        Set<String> attributeSet = parseAttributesParam(attributes);
+        Page<UserDTO> users = userService.search(criteria, withAudit, attributeSet, pageable);
+        return ResponseEntity.ok(users);
+    }
+
+    /**
+     * GET /api/users/fuzzy : Find users by partial or misspelled name, street or city, best match first
+     *
+     * @param query Search text, at least 3 characters
+     * @param limit Maximum number of users
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "contacts,addresses")
+     * @return ResponseEntity with status 200 (OK) and the ranked users in body
+     */
+    @Override
+    @GetMapping("/fuzzy")
+    public ResponseEntity<List<UserSearchHit>> fuzzySearchUsers(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "limit", defaultValue = "20") @Min(1) @Max(100) int limit,
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @RequestParam(name = "attributes", required = false) String attributes) {
+
+        Set<String> attributeSet = parseAttributesParam(attributes);
+        return ResponseEntity.ok(userService.fuzzySearch(query, limit, withAudit, attributeSet));
+    }
+
+    /**
+     * GET /api/users/suggest : Autocomplete users by name or email prefix
+     *
+     * @param query Typed text
+     * @param limit Maximum number of users
+     * @return ResponseEntity with status 200 (OK) and the matching users in body
+     */
+    @Override
+    @GetMapping("/suggest")
+    public ResponseEntity<List<UserSuggestion>> suggestUsers(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "limit", defaultValue = "10") @Min(1) @Max(50) int limit) {
+        return ResponseEntity.ok(userSuggestService.suggest(query, limit));
+    }
+
+    /**
+     * GET /api/users/cursor : Get users page by page using an opaque continuation token
+     *
+     * @param cursor Token returned as nextCursor by the previous page, omit for the first page
+     * @param size Maximum number of users in the page
+     * @param orderBy Sort keys of the listing: ID or MODIFIED_DATE
+     * @param withAudit If true, include audit information
+     * @param attributes Comma-separated list of attributes to include
+     * @param summary If true, return own fields plus address/contact IDs and counts without loading collections (attributes are ignored)
+     * @return ResponseEntity with status 200 (OK) and the page of users in body
+     */
+    @Override
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<UserDTO>> getUsersAfterCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(200) int size,
+            @RequestParam(name = "orderBy", defaultValue = "ID") KeysetOrder orderBy,
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @RequestParam(name = "attributes", required = false) String attributes,
+            @RequestParam(name = "summary", defaultValue = "false") boolean summary) {
+
+        if (summary) {
+            return ResponseEntity.ok(userService.findSummariesAfter(cursor, size, orderBy, withAudit));
+        }
+
+        Set<String> attributeSet = parseAttributesParam(attributes);
+        CursorPage<UserDTO> page = userService.findAfter(cursor, size, orderBy, withAudit, attributeSet);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * GET /api/users/stream : Export all users as newline-delimited JSON
+     *
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "contacts,addresses")
+     * @return ResponseEntity with status 200 (OK) and one user per line written as the rows are read
+     */
+    @Override
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers(
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @RequestParam(name = "attributes", required = false) String attributes) {
+
+        Set<String> attributeSet = parseAttributesParam(attributes);
+        StreamingResponseBody body = outputStream -> {
+            userService.streamAll(withAudit, attributeSet, user -> writeLine(outputStream, user));
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * GET /api/users/batch : Get many users by ID in one request
+     *
+     * @param ids Comma-separated list of user IDs
+     * @param withAudit If true, include audit information
+     * @param attributes Comma-separated list of attributes to include
+     * @return ResponseEntity with status 200 (OK), the found users in request order and the missing IDs in body
+     */
+    @Override
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResult<UserDTO>> getUsersByIds(
+            @RequestParam(name = "ids") @NotEmpty List<Long> ids,
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @RequestParam(name = "attributes", required = false) String attributes) {
+
+        Set<String> attributeSet = parseAttributesParam(attributes);
+        BatchResult<UserDTO> result = userService.findAllByIds(ids, withAudit, attributeSet);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * GET /api/users/:id : Get a user by ID with configurable options
      * 
      * @param id The ID of the user to retrieve
      * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
      * @param attributes Comma-separated list of attributes to include (e.g., "contacts,roles.permissions,addresses")
+     * @param summary If true, return own fields plus address/contact IDs and counts without loading collections (attributes are ignored)
+     * @param webRequest Current request, answered with 304 (Not Modified) when its If-None-Match matches the ETag
      * @return ResponseEntity with status 200 (OK) and the user in body
      */
     @Override
@@ -61,10 +252,23 @@ public class UserController implements UserControllerEndpoint {
     public ResponseEntity<UserDTO> getUser(
             @PathVariable @NotNull @Min(1) Long id,
             @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
-            @RequestParam(name = "attributes", required = false) String attributes) {
-        
-        Set<String> attributeSet = parseAttributesParam(attributes);
-        UserDTO user = userService.findById(id, withAudit, attributeSet);
+            @RequestParam(name = "attributes", required = false) String attributes,
+            @RequestParam(name = "summary", defaultValue = "false") boolean summary,
+            WebRequest webRequest) {
+
+        Set<String> attributeSet = summary ? null : parseAttributesParam(attributes);
+        // Version-only lookup; a matching If-None-Match skips loading, mapping and serialization
+        String eTag = summary
+                ? userService.getSummaryETag(id, withAudit)
+                : userService.getETag(id, withAudit, attributeSet);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        // checkNotModified already set the ETag header
+        UserDTO user = summary
+                ? userService.findSummaryById(id, withAudit)
+                : userService.findById(id, withAudit, attributeSet);
         return ResponseEntity.ok(user);
     }
 
@@ -72,28 +276,46 @@ public class UserController implements UserControllerEndpoint {
      * POST /api/users : Create a new user
      * 
      * @param userDTO The user to create
+     * @param attributes Comma-separated list of collections to include in the response, none by default
      * @return ResponseEntity with status 201 (Created) and the new user in body
      */
     @Override
     @PostMapping
-    public ResponseEntity<UserDTO> createUser(@Valid @RequestBody UserDTO userDTO) {
-        UserDTO result = userService.save(userDTO);
+    public ResponseEntity<UserDTO> createUser(
+            @Valid @RequestBody UserDTO userDTO,
+            @RequestParam(name = "attributes", required = false) String attributes) {
+        UserDTO result = userService.save(userDTO, parseAttributesParam(attributes));
         return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
 
+    /**
+     * POST /api/users/bulk : Import users with their addresses and contacts from newline-delimited JSON
+     *
+     * @param body One user per line with nested addresses and contacts
+     * @return ResponseEntity with status 200 (OK) and the outcome of every record in body
+     * @throws IOException if the body cannot be read
+     */
+    @Override
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkImportResult> importUsers(InputStream body) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(body));
+    }
+
     /**
      * PUT /api/users/:id : Update an existing user
      * 
      * @param id The ID of the user to update
      * @param userDTO The user to update
+     * @param attributes Comma-separated list of collections to include in the response, none by default
      * @return ResponseEntity with status 200 (OK) and the updated user in body
      */
     @Override
     @PutMapping("/{id}")
     public ResponseEntity<UserDTO> updateUser(
             @PathVariable @NotNull @Min(1) Long id, 
-            @Valid @RequestBody UserDTO userDTO) {
-        UserDTO result = userService.update(id, userDTO);
+            @Valid @RequestBody UserDTO userDTO,
+            @RequestParam(name = "attributes", required = false) String attributes) {
+        UserDTO result = userService.update(id, userDTO, parseAttributesParam(attributes));
         return ResponseEntity.ok(result);
     }
 
@@ -109,4 +331,14 @@ public class UserController implements UserControllerEndpoint {
         userService.deleteById(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private void writeLine(OutputStream outputStream, UserDTO user) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(user));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            // Client went away, abort the export and release the cursor
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -3,7 +3,10 @@ package com.userorder.controller.swagger.api;
 
 import com.userorder.controller.swagger.model.ErrorResponse;
 import com.userorder.controller.swagger.model.ValidationErrorResponse;
+import com.userorder.persistence.repository.KeysetOrder;
 import com.userorder.service.dto.AddressDTO;
+import com.userorder.service.dto.BatchResult;
+import com.userorder.service.dto.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,10 +15,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -50,13 +56,85 @@ public interface AddressControllerEndpoint {
             @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
             @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit);
 
+
+    /**
+     * GET /api/addresses/cursor : Get addresses page by page using an opaque continuation token
+     *
+     * @param cursor Token returned as nextCursor by the previous page, omit for the first page
+     * @param size Maximum number of addresses in the page
+     * @param orderBy Sort keys of the listing: ID or MODIFIED_DATE (ignored when a cursor is given)
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "user")
+     * @return the ResponseEntity with status 200 (OK) and the page of addresses in body
+     */
+    @Operation(
+        summary = "Get addresses with cursor-based pagination",
+        description = "Returns addresses ordered by (id) or (modifiedDate, id); deep pages cost the same as the first one"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor or size",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/cursor")
+    ResponseEntity<CursorPage<AddressDTO>> getAddressesAfterCursor(
+            @Parameter(description = "Opaque token returned as nextCursor by the previous page")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Maximum number of addresses in the page")
+            @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(200) int size,
+            @Parameter(description = "Sort keys of the listing")
+            @RequestParam(name = "orderBy", defaultValue = "ID") KeysetOrder orderBy,
+            @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @Parameter(description = "Comma-separated list of attributes to include (e.g., \"user\")")
+            @RequestParam(name = "attributes", required = false) String attributes);
+
+    /**
+     * GET /api/addresses/batch : Get many addresses by ID in one request
+     *
+     * @param ids Comma-separated list of address IDs
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "user")
+     * @return the ResponseEntity with status 200 (OK), the found addresses in request order and the missing IDs in body
+     */
+    @Operation(
+        summary = "Get many addresses by ID",
+        description = "Loads all requested addresses with one query per chunk of IDs and reports the IDs that do not exist"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "No IDs or too many IDs",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/batch")
+    ResponseEntity<BatchResult<AddressDTO>> getAddressesByIds(
+            @Parameter(description = "Comma-separated list of address IDs", required = true)
+            @RequestParam(name = "ids") @NotEmpty List<Long> ids,
+            @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @Parameter(description = "Comma-separated list of attributes to include (e.g., \"user\")")
+            @RequestParam(name = "attributes", required = false) String attributes);
+
     /**
      * GET /api/addresses/:id : Get an address by ID with configurable options
      *
      * @param id the id of the address to retrieve
      * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
-     * @return the ResponseEntity with status 200 (OK) and the address in body,
-     * or with status 404 (Not Found)
+     * @param webRequest Current request, its If-None-Match header is compared with the ETag
+     * @return the ResponseEntity with status 200 (OK) and the address in body, 304 (Not Modified) when the
+     * ETag matches, or with status 404 (Not Found)
      */
     @Operation(
         summary = "Get an address by ID with configurable options",
@@ -68,6 +146,10 @@ public interface AddressControllerEndpoint {
             description = "Successful operation",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = AddressDTO.class))
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Not modified since the ETag given in If-None-Match"
+        ),
         @ApiResponse(
             responseCode = "400",
             description = "Invalid ID",
@@ -84,7 +166,8 @@ public interface AddressControllerEndpoint {
             @Parameter(description = "ID of the address to retrieve", required = true)
             @PathVariable @NotNull @Min(1) Long id,
             @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
-            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit);
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            WebRequest webRequest);
 
     /**
      * GET /api/addresses/user/:userId : Get all addresses for a user with configurable options
@@ -0,0 +1,61 @@
+package com.userorder.controller.swagger.api;
+
+
+import com.userorder.controller.swagger.model.ErrorResponse;
+import com.userorder.service.dto.BulkLoadReport;
+import com.userorder.service.dto.UserDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * API interface for administrative operations
+ */
+@Tag(name = "Admin", description = "Administrative APIs")
+public interface AdminControllerEndpoint {
+
+    /**
+     * POST /api/admin/users/bulk-load : Load users with their addresses and contacts from newline-delimited JSON
+     * through the database's native load path
+     *
+     * @param body One user per line with nested addresses and contacts
+     * @return the ResponseEntity with status 200 (OK) and the load summary in body
+     * @throws IOException if the body cannot be read
+     */
+    @Operation(
+        summary = "Load users in bulk",
+        description = "Validates one user with nested addresses and contacts per line and loads all valid records "
+                + "in one transaction, with COPY on PostgreSQL. Contacts whose email or phone number already exists "
+                + "are skipped. Meant for initial loads and migrations; use POST /api/users/bulk for per-record outcomes",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            required = true,
+            content = @Content(
+                mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = UserDTO.class)
+            )
+        )
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Load committed, see the summary",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkLoadReport.class))
+        ),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Load failed in the database and was rolled back",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @PostMapping(value = "/users/bulk-load", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<BulkLoadReport> bulkLoadUsers(InputStream body) throws IOException;
+}
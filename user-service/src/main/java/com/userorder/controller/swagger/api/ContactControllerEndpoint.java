@@ -3,7 +3,10 @@ package com.userorder.controller.swagger.api;
 
 import com.userorder.controller.swagger.model.ErrorResponse;
 import com.userorder.controller.swagger.model.ValidationErrorResponse;
+import com.userorder.persistence.repository.KeysetOrder;
 import com.userorder.service.dto.ContactDTO;
+import com.userorder.service.dto.BatchResult;
+import com.userorder.service.dto.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,10 +15,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -53,13 +59,84 @@ public interface ContactControllerEndpoint {
             @Parameter(description = "Comma-separated list of attributes to include")
             @RequestParam(name = "attributes", required = false) String attributes);
 
+    /**
+     * GET /api/contacts/cursor : Get contacts page by page using an opaque continuation token
+     *
+     * @param cursor Token returned as nextCursor by the previous page, omit for the first page
+     * @param size Maximum number of contacts in the page
+     * @param orderBy Sort keys of the listing: ID or MODIFIED_DATE (ignored when a cursor is given)
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "user")
+     * @return the ResponseEntity with status 200 (OK) and the page of contacts in body
+     */
+    @Operation(
+        summary = "Get contacts with cursor-based pagination",
+        description = "Returns contacts ordered by (id) or (modifiedDate, id); deep pages cost the same as the first one"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor or size",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/cursor")
+    ResponseEntity<CursorPage<ContactDTO>> getContactsAfterCursor(
+            @Parameter(description = "Opaque token returned as nextCursor by the previous page")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Maximum number of contacts in the page")
+            @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(200) int size,
+            @Parameter(description = "Sort keys of the listing")
+            @RequestParam(name = "orderBy", defaultValue = "ID") KeysetOrder orderBy,
+            @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @Parameter(description = "Comma-separated list of attributes to include (e.g., \"user\")")
+            @RequestParam(name = "attributes", required = false) String attributes);
+
+    /**
+     * GET /api/contacts/batch : Get many contacts by ID in one request
+     *
+     * @param ids Comma-separated list of contact IDs
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "user")
+     * @return the ResponseEntity with status 200 (OK), the found contacts in request order and the missing IDs in body
+     */
+    @Operation(
+        summary = "Get many contacts by ID",
+        description = "Loads all requested contacts with one query per chunk of IDs and reports the IDs that do not exist"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "No IDs or too many IDs",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/batch")
+    ResponseEntity<BatchResult<ContactDTO>> getContactsByIds(
+            @Parameter(description = "Comma-separated list of contact IDs", required = true)
+            @RequestParam(name = "ids") @NotEmpty List<Long> ids,
+            @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @Parameter(description = "Comma-separated list of attributes to include (e.g., \"user\")")
+            @RequestParam(name = "attributes", required = false) String attributes);
+
     /**
      * GET /api/contacts/:id : Get a contact by ID with configurable options
      *
      * @param id the id of the contact to retrieve
      * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
-     * @return the ResponseEntity with status 200 (OK) and the contact in body,
-     * or with status 404 (Not Found)
+     * @param webRequest Current request, its If-None-Match header is compared with the ETag
+     * @return the ResponseEntity with status 200 (OK) and the contact in body, 304 (Not Modified) when the
+     * ETag matches, or with status 404 (Not Found)
      */
     @Operation(
         summary = "Get a contact by ID with configurable options",
@@ -71,6 +148,10 @@ public interface ContactControllerEndpoint {
             description = "Successful operation",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ContactDTO.class))
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Not modified since the ETag given in If-None-Match"
+        ),
         @ApiResponse(
             responseCode = "400",
             description = "Invalid ID",
@@ -87,7 +168,8 @@ public interface ContactControllerEndpoint {
             @Parameter(description = "ID of the contact to retrieve", required = true)
             @PathVariable @NotNull @Min(1) Long id,
             @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
-            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit);
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            WebRequest webRequest);
 
     /**
      * GET /api/contacts/user/:userId : Get all contacts for a user with configurable options
@@ -127,6 +209,11 @@ public interface ContactControllerEndpoint {
             responseCode = "400",
             description = "Invalid input data",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ValidationErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Email or phone number already used by another contact",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
         )
     })
     @PostMapping
@@ -161,6 +248,11 @@ public interface ContactControllerEndpoint {
             responseCode = "404",
             description = "Contact not found",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Email or phone number already used by another contact",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
         )
     })
     @PutMapping("/{id}")
@@ -3,7 +3,14 @@ package com.userorder.controller.swagger.api;
 
 import com.userorder.controller.swagger.model.ErrorResponse;
 import com.userorder.controller.swagger.model.ValidationErrorResponse;
+import com.userorder.persistence.repository.KeysetOrder;
+import com.userorder.service.dto.BatchResult;
+import com.userorder.service.dto.BulkImportResult;
+import com.userorder.service.dto.CursorPage;
 import com.userorder.service.dto.UserDTO;
+import com.userorder.service.dto.UserSearchCriteria;
+import com.userorder.service.dto.UserSearchHit;
+import com.userorder.service.dto.UserSuggestion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,11 +19,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -30,6 +48,7 @@ public interface UserControllerEndpoint {
      *
      * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
      * @param attributes Comma-separated list of attributes to include (e.g., "contacts,roles.permissions,addresses")
+     * @param summary If true, return own fields plus address/contact IDs and counts without loading collections (attributes are ignored)
      * @return the ResponseEntity with status 200 (OK) and the list of users in body
      */
     @Operation(
@@ -51,6 +70,246 @@ public interface UserControllerEndpoint {
             @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
             @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
             @Parameter(description = "Comma-separated list of attributes to include (e.g., \"contacts,roles.permissions,addresses\")")
+            @RequestParam(name = "attributes", required = false) String attributes,
+            @Parameter(description = "Return own fields plus address/contact IDs and counts without loading collections; attributes are ignored")
+            @RequestParam(name = "summary", defaultValue = "false") boolean summary);
+
+    /**
+     * GET /api/users/page : Get one page of users with configurable options
+     *
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "contacts,addresses")
+     * @param summary If true, return own fields plus address/contact IDs and counts without loading collections (attributes are ignored)
+     * @param pageable Page number, size and sort order (e.g., "page=0&size=20&sort=lastName,asc")
+     * @return the ResponseEntity with status 200 (OK) and the page of users in body
+     */
+    @Operation(
+        summary = "Get one page of users with configurable options",
+        description = "Returns a page of users; only the IDs of the page are selected in SQL and then loaded with the specified attributes"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid sort property",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/page")
+    ResponseEntity<Page<UserDTO>> getUserPage(
+            @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @Parameter(description = "Comma-separated list of attributes to include (e.g., \"contacts,addresses\")")
+            @RequestParam(name = "attributes", required = false) String attributes,
+            @Parameter(description = "Return own fields plus address/contact IDs and counts without loading collections; attributes are ignored")
+            @RequestParam(name = "summary", defaultValue = "false") boolean summary,
+            @ParameterObject @PageableDefault(size = 20, sort = "id") Pageable pageable);
+
+    /**
+     * GET /api/users/search : Search users by name prefix, birthday range, address city or country and contact email domain
+     *
+     * @param criteria Filters, all given filters must match
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "contacts,addresses")
+     * @param pageable Page number, size and sort order (e.g., "page=0&size=20&sort=lastName,asc")
+     * @return the ResponseEntity with status 200 (OK) and the page of matching users in body
+     */
+    @Operation(
+        summary = "Search users",
+        description = "Filters users in SQL: name is a case-insensitive prefix of the first or last name, bornFrom/bornTo "
+                + "an inclusive birthday range, city/country match any address and emailDomain any contact email. "
+                + "Only the IDs of the page are selected and then loaded with the specified attributes"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid filter or sort property",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/search")
+    ResponseEntity<Page<UserDTO>> searchUsers(
+            @ParameterObject UserSearchCriteria criteria,
+            @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @Parameter(description = "Comma-separated list of attributes to include (e.g., \"contacts,addresses\")")
+            @RequestParam(name = "attributes", required = false) String attributes,
+            @ParameterObject @PageableDefault(size = 20, sort = "id") Pageable pageable);
+
+
+    /**
+     * GET /api/users/fuzzy : Find users by partial or misspelled name, street or city, best match first
+     *
+     * @param query Search text, at least 3 characters
+     * @param limit Maximum number of users
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "contacts,addresses")
+     * @return the ResponseEntity with status 200 (OK) and the ranked users in body
+     */
+    @Operation(
+        summary = "Fuzzy user search",
+        description = "Ranks users by trigram similarity of first name, last name, address street and city to the query "
+                + "(PostgreSQL pg_trgm with GIN indexes); falls back to case-insensitive substring matching elsewhere"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Query too short or invalid limit",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/fuzzy")
+    ResponseEntity<List<UserSearchHit>> fuzzySearchUsers(
+            @Parameter(description = "Search text, at least 3 characters", required = true)
+            @RequestParam(name = "q") String query,
+            @Parameter(description = "Maximum number of users")
+            @RequestParam(name = "limit", defaultValue = "20") @Min(1) @Max(100) int limit,
+            @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @Parameter(description = "Comma-separated list of attributes to include (e.g., \"contacts,addresses\")")
+            @RequestParam(name = "attributes", required = false) String attributes);
+
+    /**
+     * GET /api/users/suggest : Autocomplete users by name or email prefix
+     *
+     * @param query Typed text
+     * @param limit Maximum number of users
+     * @return the ResponseEntity with status 200 (OK) and the matching users in body
+     */
+    @Operation(
+        summary = "Autocomplete users",
+        description = "Returns users whose first name, last name, full name or contact email starts with the text, "
+                + "ignoring case and accents; served from an in-memory index without querying the database"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid limit",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/suggest")
+    ResponseEntity<List<UserSuggestion>> suggestUsers(
+            @Parameter(description = "Typed text", required = true)
+            @RequestParam(name = "q") String query,
+            @Parameter(description = "Maximum number of users")
+            @RequestParam(name = "limit", defaultValue = "10") @Min(1) @Max(50) int limit);
+
+    /**
+     * GET /api/users/cursor : Get users page by page using an opaque continuation token
+     *
+     * @param cursor Token returned as nextCursor by the previous page, omit for the first page
+     * @param size Maximum number of users in the page
+     * @param orderBy Sort keys of the listing: ID or MODIFIED_DATE (ignored when a cursor is given)
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "contacts,addresses")
+     * @param summary If true, return own fields plus address/contact IDs and counts without loading collections (attributes are ignored)
+     * @return the ResponseEntity with status 200 (OK) and the page of users in body
+     */
+    @Operation(
+        summary = "Get users with cursor-based pagination",
+        description = "Returns users ordered by (id) or (modifiedDate, id); deep pages cost the same as the first one"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor or size",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/cursor")
+    ResponseEntity<CursorPage<UserDTO>> getUsersAfterCursor(
+            @Parameter(description = "Opaque token returned as nextCursor by the previous page")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Maximum number of users in the page")
+            @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(200) int size,
+            @Parameter(description = "Sort keys of the listing")
+            @RequestParam(name = "orderBy", defaultValue = "ID") KeysetOrder orderBy,
+            @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @Parameter(description = "Comma-separated list of attributes to include (e.g., \"contacts,addresses\")")
+            @RequestParam(name = "attributes", required = false) String attributes,
+            @Parameter(description = "Return own fields plus address/contact IDs and counts without loading collections; attributes are ignored")
+            @RequestParam(name = "summary", defaultValue = "false") boolean summary);
+
+    /**
+     * GET /api/users/stream : Export all users as newline-delimited JSON
+     *
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "contacts,addresses")
+     * @return the ResponseEntity with status 200 (OK) and one user per line in body
+     */
+    @Operation(
+        summary = "Export all users as NDJSON",
+        description = "Streams every user as one JSON document per line, ordered by ID. "
+                + "Rows are read through a database cursor, so memory use does not depend on the number of users"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = UserDTO.class)
+            )
+        )
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamUsers(
+            @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @Parameter(description = "Comma-separated list of attributes to include (e.g., \"contacts,addresses\")")
+            @RequestParam(name = "attributes", required = false) String attributes);
+
+    /**
+     * GET /api/users/batch : Get many users by ID in one request
+     *
+     * @param ids Comma-separated list of user IDs
+     * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
+     * @param attributes Comma-separated list of attributes to include (e.g., "contacts,addresses")
+     * @return the ResponseEntity with status 200 (OK), the found users in request order and the missing IDs in body
+     */
+    @Operation(
+        summary = "Get many users by ID",
+        description = "Loads all requested users with one query per chunk of IDs and reports the IDs that do not exist"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successful operation"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "No IDs or too many IDs",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/batch")
+    ResponseEntity<BatchResult<UserDTO>> getUsersByIds(
+            @Parameter(description = "Comma-separated list of user IDs", required = true)
+            @RequestParam(name = "ids") @NotEmpty List<Long> ids,
+            @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
+            @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
+            @Parameter(description = "Comma-separated list of attributes to include (e.g., \"contacts,addresses\")")
             @RequestParam(name = "attributes", required = false) String attributes);
 
     /**
@@ -59,8 +318,10 @@ public interface UserControllerEndpoint {
      * @param id The ID of the user to retrieve
      * @param withAudit If true, include audit information (createdDate, modifiedDate, createdBy, modifiedBy)
      * @param attributes Comma-separated list of attributes to include (e.g., "contacts,roles.permissions,addresses")
-     * @return the ResponseEntity with status 200 (OK) and the user in body,
-     * or with status 404 (Not Found)
+     * @param summary If true, return own fields plus address/contact IDs and counts without loading collections (attributes are ignored)
+     * @param webRequest Current request, its If-None-Match header is compared with the ETag
+     * @return the ResponseEntity with status 200 (OK) and the user in body, 304 (Not Modified) when the
+     * ETag matches, or with status 404 (Not Found)
      */
     @Operation(
         summary = "Get a user by ID with configurable options",
@@ -72,6 +333,10 @@ public interface UserControllerEndpoint {
             description = "Successful operation",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class))
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Not modified since the ETag given in If-None-Match"
+        ),
         @ApiResponse(
             responseCode = "400",
             description = "Invalid ID",
@@ -90,12 +355,16 @@ public interface UserControllerEndpoint {
             @Parameter(description = "Include audit information (createdDate, modifiedDate, createdBy, modifiedBy)")
             @RequestParam(name = "withAudit", defaultValue = "false") boolean withAudit,
             @Parameter(description = "Comma-separated list of attributes to include (e.g., \"contacts,roles.permissions,addresses\")")
-            @RequestParam(name = "attributes", required = false) String attributes);
+            @RequestParam(name = "attributes", required = false) String attributes,
+            @Parameter(description = "Return own fields plus address/contact IDs and counts without loading collections; attributes are ignored")
+            @RequestParam(name = "summary", defaultValue = "false") boolean summary,
+            WebRequest webRequest);
 
     /**
      * POST /api/users : Create a new user
      *
      * @param userDTO the user to create
+     * @param attributes Comma-separated list of collections to include in the response, none by default
      * @return the ResponseEntity with status 201 (Created) and the new user in body
      */
     @Operation(
@@ -117,13 +386,46 @@ public interface UserControllerEndpoint {
     @PostMapping
     ResponseEntity<UserDTO> createUser(
             @Parameter(description = "User data", required = true)
-            @Valid @RequestBody UserDTO userDTO);
+            @Valid @RequestBody UserDTO userDTO,
+            @Parameter(description = "Comma-separated list of collections to include in the response (e.g., \"contacts,addresses\"); none by default")
+            @RequestParam(name = "attributes", required = false) String attributes);
+
+    /**
+     * POST /api/users/bulk : Import users with their addresses and contacts from newline-delimited JSON
+     *
+     * @param body One user per line with nested addresses and contacts
+     * @return the ResponseEntity with status 200 (OK) and the outcome of every record in body
+     * @throws IOException if the body cannot be read
+     */
+    @Operation(
+        summary = "Import users in bulk",
+        description = "Reads one user with nested addresses and contacts per line, validates every record and "
+                + "persists valid ones in chunks with one transaction per chunk. Invalid or failing records are "
+                + "reported per line and do not stop the import",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            required = true,
+            content = @Content(
+                mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = UserDTO.class)
+            )
+        )
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Import finished, see the record outcomes",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkImportResult.class))
+        )
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<BulkImportResult> importUsers(InputStream body) throws IOException;
 
     /**
      * PUT /api/users/:id : Update an existing user
      *
      * @param id the id of the user to update
      * @param userDTO the user to update
+     * @param attributes Comma-separated list of collections to include in the response, none by default
      * @return the ResponseEntity with status 200 (OK) and the updated user in body,
      * or with status 404 (Not Found)
      */
@@ -153,7 +455,9 @@ public interface UserControllerEndpoint {
             @Parameter(description = "ID of the user to update", required = true)
             @PathVariable @NotNull @Min(1) Long id,
             @Parameter(description = "User data", required = true)
-            @Valid @RequestBody UserDTO userDTO);
+            @Valid @RequestBody UserDTO userDTO,
+            @Parameter(description = "Comma-separated list of collections to include in the response (e.g., \"contacts,addresses\"); none by default")
+            @RequestParam(name = "attributes", required = false) String attributes);
 
     /**
      * DELETE /api/users/:id : Delete the user with the specified id
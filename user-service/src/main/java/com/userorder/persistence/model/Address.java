@@ -5,6 +5,9 @@ import com.userorder.persistence.utils.mapping.MappingAttribute;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 @Data
@@ -13,6 +16,13 @@ import lombok.experimental.SuperBuilder;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+        @Index(name = "idx_address_modified_date_id", columnList = "modifiedDate, id"),
+        @Index(name = "idx_address_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_address_city_user_id", columnList = "city, user_id"),
+        @Index(name = "idx_address_country_user_id", columnList = "country, user_id")
+})
 public class Address extends PersistenceModel {
 
     @Enumerated(EnumType.STRING)
@@ -49,10 +59,13 @@ public class Address extends PersistenceModel {
         this.user = user;
     }
     
+    /**
+     * Sets the owning side and keeps the user's collection in sync only if it is already loaded
+     */
     public void addUser(User user) {
         if (user != null) {
             this.user = user;
-            if (!user.getAddresses().contains(this)) {
+            if (Hibernate.isInitialized(user.getAddresses()) && !user.getAddresses().contains(this)) {
                 user.getAddresses().add(this);
             }
         }
@@ -62,7 +75,9 @@ public class Address extends PersistenceModel {
         if (this.user != null) {
             User tempUser = this.user;
             this.user = null;
-            tempUser.getAddresses().remove(this);
+            if (Hibernate.isInitialized(tempUser.getAddresses())) {
+                tempUser.getAddresses().remove(this);
+            }
         }
     }
 
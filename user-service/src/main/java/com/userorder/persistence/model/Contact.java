@@ -4,6 +4,11 @@ import com.userorder.persistence.model.base.PersistenceModel;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.Locale;
 
 @Data
 @SuperBuilder(toBuilder = true)
@@ -11,6 +16,12 @@ import lombok.experimental.SuperBuilder;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+        @Index(name = "idx_contact_modified_date_id", columnList = "modifiedDate, id"),
+        @Index(name = "idx_contact_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_contact_email_domain_user_id", columnList = "emailDomain, user_id")
+})
 public class Contact extends PersistenceModel {
 
     @Enumerated(EnumType.STRING)
@@ -25,6 +36,13 @@ public class Contact extends PersistenceModel {
     @Column(unique = true, length = 50)
     private String email;
 
+    /**
+     * Lower-cased part of the email after the '@', kept in sync on every write so searches by domain can use an index
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(length = 50)
+    private String emailDomain;
+
     @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
@@ -34,10 +52,13 @@ public class Contact extends PersistenceModel {
         this.user = user;
     }
     
+    /**
+     * Sets the owning side and keeps the user's collection in sync only if it is already loaded
+     */
     public void addUser(User user) {
         if (user != null) {
             this.user = user;
-            if (!user.getContacts().contains(this)) {
+            if (Hibernate.isInitialized(user.getContacts()) && !user.getContacts().contains(this)) {
                 user.getContacts().add(this);
             }
         }
@@ -47,8 +68,27 @@ public class Contact extends PersistenceModel {
         if (this.user != null) {
             User tempUser = this.user;
             this.user = null;
-            tempUser.getContacts().remove(this);
+            if (Hibernate.isInitialized(tempUser.getContacts())) {
+                tempUser.getContacts().remove(this);
+            }
+        }
+    }
+
+    @PrePersist
+    @PreUpdate
+    void deriveEmailDomain() {
+        this.emailDomain = emailDomainOf(email);
+    }
+
+    /**
+     * Domain of an email as stored in emailDomain, null when there is no email
+     */
+    public static String emailDomainOf(String email) {
+        if (email == null) {
+            return null;
         }
+        int at = email.lastIndexOf('@');
+        return at < 0 ? null : email.substring(at + 1).trim().toLowerCase(Locale.ROOT);
     }
 
     public Contact(ContactType contactType, String phoneNumber, String email){
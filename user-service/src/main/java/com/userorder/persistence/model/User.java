@@ -6,6 +6,9 @@ import com.userorder.persistence.utils.mapping.MappingAttribute;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 import java.time.LocalDate;
@@ -18,6 +21,11 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+        @Index(name = "idx_user_modified_date_id", columnList = "modifiedDate, id"),
+        @Index(name = "idx_user_birthday", columnList = "birthday")
+})
 public class User extends PersistenceModel {
 
     @ToString.Exclude
@@ -40,6 +48,7 @@ public class User extends PersistenceModel {
             targetEntity = Address.class,
             description = "User addresses"
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<Address> addresses = new HashSet<>();
 
@@ -50,44 +59,54 @@ public class User extends PersistenceModel {
             targetEntity = Contact.class,
             description = "User contacts"
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<Contact> contacts = new HashSet<>();
 
     public void setAddress(Address address) {
-        if (address != null) {
-            this.addresses.add(address);
-            address.setUser(this);
-        }
+        addAddress(address);
     }
     
+    /**
+     * Links the address to this user. The owning side (address.user) is always set,
+     * the inverse collection only when it is already loaded, so adding never selects all addresses.
+     */
     public void addAddress(Address address) {
         if (address != null) {
-            this.addresses.add(address);
+            if (Hibernate.isInitialized(this.addresses)) {
+                this.addresses.add(address);
+            }
             address.setUser(this);
         }
     }
 
     public void removeAddress(Address address){
-        this.addresses.remove(address);
+        if (Hibernate.isInitialized(this.addresses)) {
+            this.addresses.remove(address);
+        }
         address.setUser(null);
     }
 
     public void setContact(Contact contact) {
-        if (contact != null) {
-            this.contacts.add(contact);
-            contact.setUser(this);
-        }
+        addContact(contact);
     }
     
+    /**
+     * Links the contact to this user, touching the inverse collection only when it is already loaded
+     */
     public void addContact(Contact contact) {
         if (contact != null) {
-            this.contacts.add(contact);
+            if (Hibernate.isInitialized(this.contacts)) {
+                this.contacts.add(contact);
+            }
             contact.setUser(this);
         }
     }
 
     public void removeContact(Contact contact) {
-        this.contacts.remove(contact);
+        if (Hibernate.isInitialized(this.contacts)) {
+            this.contacts.remove(contact);
+        }
         contact.setUser(null);
     }
 
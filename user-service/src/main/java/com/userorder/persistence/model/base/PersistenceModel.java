@@ -6,6 +6,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -29,7 +30,8 @@ public abstract class PersistenceModel implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooled-sequence")
+    @GenericGenerator(name = "pooled-sequence", type = PooledSequenceIdGenerator.class)
     @Column(name = "id", updatable = false, unique = true, nullable = false)
     private Long id;
 
@@ -47,4 +49,13 @@ public abstract class PersistenceModel implements Serializable {
 
     @LastModifiedBy
     protected String modifiedBy;
+
+    /**
+     * Optimistic lock version, also the basis of the HTTP ETags. A user's version is incremented
+     * whenever one of its addresses or contacts changes as well.
+     */
+    @Version
+    @EqualsAndHashCode.Exclude
+    @Column(nullable = false)
+    protected Long version;
 }
@@ -1,9 +1,16 @@
 package com.userorder.persistence.repository;
 
 import com.userorder.persistence.model.Address;
+import com.userorder.persistence.repository.projection.EntityVersion;
+import com.userorder.persistence.repository.projection.AddressRow;
+import com.userorder.persistence.repository.projection.ChildRef;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface AddressRepository extends BaseCustomJpaRepository<Address, Long>, JpaSpecificationExecutor<Address> {
     
@@ -15,4 +22,39 @@ public interface AddressRepository extends BaseCustomJpaRepository<Address, Long
      */
     List<Address> findByUserId(Long userId);
 
+    /**
+     * Find the scalar columns of a address by ID without loading the entity
+     *
+     * @param id the ID of the address
+     * @return the address row, empty if not found
+     */
+    @Query("select new com.userorder.persistence.repository.projection.AddressRow(a.id, a.createdDate, a.modifiedDate, a.createdBy, a.modifiedBy, a.type, a.street, a.postZipCode, a.province, a.city, a.country, a.user.id) from Address a where a.id = :id")
+    Optional<AddressRow> findRowById(@Param("id") Long id);
+
+    /**
+     * Find the version columns of a address and its user by ID, used to answer conditional requests
+     *
+     * @param id the ID of the address
+     * @return the address version, empty if not found
+     */
+    @Query("select new com.userorder.persistence.repository.projection.EntityVersion(a.version, a.modifiedDate, u.version) from Address a left join a.user u where a.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Find the scalar columns of all addresses without loading the entities
+     *
+     * @return list of address rows
+     */
+    @Query("select new com.userorder.persistence.repository.projection.AddressRow(a.id, a.createdDate, a.modifiedDate, a.createdBy, a.modifiedBy, a.type, a.street, a.postZipCode, a.province, a.city, a.country, a.user.id) from Address a")
+    List<AddressRow> findAllRows();
+
+    /**
+     * Find the IDs of the addresses of many users at once, without loading the addresses or the users' collections
+     *
+     * @param userIds the IDs of the users
+     * @return (user ID, address ID) pairs ordered by user
+     */
+    @Query("select new com.userorder.persistence.repository.projection.ChildRef(a.user.id, a.id) from Address a where a.user.id in :userIds order by a.user.id, a.id")
+    List<ChildRef> findRefsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 //@NoRepositoryBean каже Spring, що цей інтерфейс — лише база для інших репозиторіїв і не повинен бути створений як окремий бін.
 @NoRepositoryBean // не створювати як окремий бін , а встановити як базу для інших репозіторієв
@@ -17,6 +18,7 @@ public interface BaseCustomJpaRepository<T, ID extends Serializable> extends Ent
 
     /**
      * Finds entities by IDs with dynamic entity graph loading based on the provided attributes.
+     * Uses {@link GraphFetchStrategy#SPLIT} automatically when more than one collection is requested.
      *
      * @param ids        List of entity IDs
      * @param attributes Collection of attributes to fetch
@@ -24,8 +26,19 @@ public interface BaseCustomJpaRepository<T, ID extends Serializable> extends Ent
      */
     List<T> findAllByIdWithAttributes(Collection<ID> ids, Collection<String> attributes);
 
+    /**
+     * Finds entities by IDs, fetching the requested attributes with the given strategy.
+     *
+     * @param ids        List of entity IDs
+     * @param attributes Collection of attributes to fetch
+     * @param strategy   JOIN for a single statement, SPLIT for one batched query per collection
+     * @return List of entities with the specified attributes loaded
+     */
+    List<T> findAllByIdWithAttributes(Collection<ID> ids, Collection<String> attributes, GraphFetchStrategy strategy);
+
     /**
      * Finds a single entity by ID with dynamic entity graph loading based on the provided attributes.
+     * Uses {@link GraphFetchStrategy#SPLIT} automatically when more than one collection is requested.
      *
      * @param id         Entity ID
      * @param attributes Collection of attributes to fetch
@@ -33,8 +46,19 @@ public interface BaseCustomJpaRepository<T, ID extends Serializable> extends Ent
      */
     Optional<T> findByIdWithAttributes(ID id, Collection<String> attributes);
 
+    /**
+     * Finds a single entity by ID, fetching the requested attributes with the given strategy.
+     *
+     * @param id         Entity ID
+     * @param attributes Collection of attributes to fetch
+     * @param strategy   JOIN for a single statement, SPLIT for one query per collection
+     * @return Optional containing the entity with the specified attributes loaded
+     */
+    Optional<T> findByIdWithAttributes(ID id, Collection<String> attributes, GraphFetchStrategy strategy);
+
     /**
      * Finds all entities matching the specification with dynamic entity graph loading.
+     * Uses {@link GraphFetchStrategy#SPLIT} automatically when more than one collection is requested.
      *
      * @param spec       Specification defining the search criteria
      * @param attributes Collection of attributes to fetch
@@ -42,8 +66,20 @@ public interface BaseCustomJpaRepository<T, ID extends Serializable> extends Ent
      */
     List<T> findAllWithAttributes(Specification<T> spec, Collection<String> attributes);
 
+    /**
+     * Finds all entities matching the specification, fetching the requested attributes with the given strategy.
+     *
+     * @param spec       Specification defining the search criteria, may be null to match all entities
+     * @param attributes Collection of attributes to fetch
+     * @param strategy   JOIN for a single statement, SPLIT for one batched query per collection
+     * @return List of matching entities with the specified attributes loaded
+     */
+    List<T> findAllWithAttributes(Specification<T> spec, Collection<String> attributes, GraphFetchStrategy strategy);
+
     /**
      * Finds a page of entities matching the specification with dynamic entity graph loading.
+     * Only the IDs of the page are selected with LIMIT/OFFSET, the entities are then hydrated by ID,
+     * so collection fetches are never paginated in memory.
      *
      * @param spec       Specification defining the search criteria
      * @param pageable   Pagination information
@@ -51,4 +87,43 @@ public interface BaseCustomJpaRepository<T, ID extends Serializable> extends Ent
      * @return Page of matching entities with the specified attributes loaded
      */
     Page<T> findPageWithAttributes(Specification<T> spec, Pageable pageable, Collection<String> attributes);
+
+    /**
+     * Finds the next keyset page of entities matching the specification with dynamic entity graph loading.
+     * Rows are located with a range predicate on the sort keys instead of OFFSET,
+     * so deep pages cost the same as the first one.
+     *
+     * @param spec       Specification defining the search criteria, may be null to match all entities
+     * @param order      Sort keys of the scan
+     * @param after      Position after the last row of the previous page, null for the first page
+     * @param limit      Maximum number of entities to return
+     * @param attributes Collection of attributes to fetch
+     * @return Slice of matching entities and the cursor of the next page
+     */
+    KeysetSlice<T> findKeysetWithAttributes(Specification<T> spec, KeysetOrder order, KeysetCursor after,
+                                            int limit, Collection<String> attributes);
+
+    /**
+     * Streams all entities matching the specification in ID order without materializing the result.
+     * The IDs are read through a forward-only database cursor; every chunk of IDs is hydrated with the
+     * requested attributes, handed to the consumer and then detached by clearing the persistence context,
+     * so memory stays bounded by the chunk size. Must run inside a (read-only) transaction.
+     *
+     * @param spec          Specification defining the search criteria, may be null to match all entities
+     * @param attributes    Collection of attributes to fetch
+     * @param fetchSize     JDBC fetch size of the ID cursor
+     * @param chunkSize     Number of entities hydrated and handed to the consumer at once
+     * @param chunkConsumer Receives each chunk; entities are detached once it returns
+     * @return Number of streamed entities
+     */
+    long streamWithAttributes(Specification<T> spec, Collection<String> attributes,
+                              int fetchSize, int chunkSize, Consumer<List<T>> chunkConsumer);
+
+    /**
+     * Increments the version of a managed entity at flush even though none of its columns changed.
+     * Used to version an aggregate root (a user) together with its children (addresses, contacts).
+     *
+     * @param entity Managed entity
+     */
+    void forceVersionIncrement(T entity);
 }
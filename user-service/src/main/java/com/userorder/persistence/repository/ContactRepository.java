@@ -3,9 +3,19 @@ package com.userorder.persistence.repository;
 
 import com.cosium.spring.data.jpa.entity.graph.domain2.EntityGraph;
 import com.userorder.persistence.model.Contact;
+import com.userorder.persistence.repository.projection.EntityVersion;
+import com.userorder.persistence.repository.projection.ContactRow;
+import com.userorder.persistence.repository.projection.ChildRef;
+import com.userorder.persistence.repository.projection.ContactEmail;
+import com.userorder.persistence.repository.projection.ContactKey;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ContactRepository extends BaseCustomJpaRepository<Contact, Long>, JpaSpecificationExecutor<Contact> {
     
@@ -25,4 +35,86 @@ public interface ContactRepository extends BaseCustomJpaRepository<Contact, Long
      * @return list of contacts for the specified user
      */
     List<Contact> findByUserId(Long userId, EntityGraph entityGraph);
-}
\ No newline at end of file
+
+    /**
+     * Find the scalar columns of a contact by ID without loading the entity
+     *
+     * @param id the ID of the contact
+     * @return the contact row, empty if not found
+     */
+    @Query("select new com.userorder.persistence.repository.projection.ContactRow(c.id, c.createdDate, c.modifiedDate, c.createdBy, c.modifiedBy, c.contactType, c.phoneNumber, c.email, c.user.id) from Contact c where c.id = :id")
+    Optional<ContactRow> findRowById(@Param("id") Long id);
+
+    /**
+     * Find the version columns of a contact and its user by ID, used to answer conditional requests
+     *
+     * @param id the ID of the contact
+     * @return the contact version, empty if not found
+     */
+    @Query("select new com.userorder.persistence.repository.projection.EntityVersion(c.version, c.modifiedDate, u.version) from Contact c left join c.user u where c.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Find the scalar columns of all contacts without loading the entities
+     *
+     * @return list of contact rows
+     */
+    @Query("select new com.userorder.persistence.repository.projection.ContactRow(c.id, c.createdDate, c.modifiedDate, c.createdBy, c.modifiedBy, c.contactType, c.phoneNumber, c.email, c.user.id) from Contact c")
+    List<ContactRow> findAllRows();
+
+    /**
+     * Find the IDs of the contacts of many users at once, without loading the contacts or the users' collections
+     *
+     * @param userIds the IDs of the users
+     * @return (user ID, contact ID) pairs ordered by user
+     */
+    @Query("select new com.userorder.persistence.repository.projection.ChildRef(c.user.id, c.id) from Contact c where c.user.id in :userIds order by c.user.id, c.id")
+    List<ChildRef> findRefsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Find the unique columns of the contacts after the given ID, used to page through all contacts by keyset
+     *
+     * @param afterId the last ID of the previous page, 0 for the first page
+     * @param limit the page size
+     * @return the contact keys ordered by ID
+     */
+    @Query("select new com.userorder.persistence.repository.projection.ContactKey(c.id, c.email, c.phoneNumber) from Contact c where c.id > :afterId order by c.id")
+    List<ContactKey> findKeysAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Find the unique columns of a contact by ID
+     *
+     * @param id the ID of the contact
+     * @return the contact key, empty if not found
+     */
+    @Query("select new com.userorder.persistence.repository.projection.ContactKey(c.id, c.email, c.phoneNumber) from Contact c where c.id = :id")
+    Optional<ContactKey> findKeyById(@Param("id") Long id);
+
+    /**
+     * Find the unique columns of the contacts of many users at once
+     *
+     * @param userIds the IDs of the users
+     * @return the contact keys
+     */
+    @Query("select new com.userorder.persistence.repository.projection.ContactKey(c.id, c.email, c.phoneNumber) from Contact c where c.user.id in :userIds")
+    List<ContactKey> findKeysByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Find the emails of the contacts after the given ID, used to page through all contacts by keyset
+     *
+     * @param afterId the last ID of the previous page, 0 for the first page
+     * @param limit the page size
+     * @return the contact emails ordered by ID, contacts without email or user included
+     */
+    @Query("select new com.userorder.persistence.repository.projection.ContactEmail(c.id, c.user.id, c.email) from Contact c where c.id > :afterId order by c.id")
+    List<ContactEmail> findEmailsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Find the emails of the contacts of many users at once
+     *
+     * @param userIds the IDs of the users
+     * @return the contact emails, contacts without email included
+     */
+    @Query("select new com.userorder.persistence.repository.projection.ContactEmail(c.id, c.user.id, c.email) from Contact c where c.user.id in :userIds")
+    List<ContactEmail> findEmailsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,27 @@
+package com.userorder.persistence.repository;
+
+import com.userorder.persistence.utils.mapping.FetchPlan;
+
+/**
+ * How requested attributes are fetched by {@link BaseCustomJpaRepository}
+ */
+public enum GraphFetchStrategy {
+
+    /**
+     * Single statement, all requested attributes joined into the root query
+     */
+    JOIN,
+
+    /**
+     * Root rows first, then one batched IN (...) query per requested collection.
+     * Avoids the cartesian product of joining several collections at once.
+     */
+    SPLIT;
+
+    /**
+     * Picks SPLIT as soon as more than one collection is requested
+     */
+    public static GraphFetchStrategy forPlan(FetchPlan plan) {
+        return plan.hasMultipleCollections() ? SPLIT : JOIN;
+    }
+}
@@ -0,0 +1,53 @@
+package com.userorder.persistence.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a keyset page.
+ * Serialized as an opaque URL-safe token, clients must pass it back unchanged.
+ *
+ * @param order        sort keys the position refers to
+ * @param modifiedDate modification time of the last row, only set for {@link KeysetOrder#MODIFIED_DATE}
+ * @param id           ID of the last row
+ */
+public record KeysetCursor(KeysetOrder order, LocalDateTime modifiedDate, Long id) {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    public KeysetCursor {
+        if (order == null || id == null || (order == KeysetOrder.MODIFIED_DATE && modifiedDate == null)) {
+            throw new IllegalArgumentException("Incomplete keyset cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + SEPARATOR + order.name() + SEPARATOR
+                + (modifiedDate != null ? modifiedDate.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a token produced by {@link #encode()}
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+
+            KeysetOrder order = KeysetOrder.valueOf(parts[1]);
+            LocalDateTime modifiedDate = parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]);
+            return new KeysetCursor(order, modifiedDate, Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.userorder.persistence.repository;
+
+/**
+ * Sort keys supported by keyset (cursor) pagination, always ascending with the ID as last key
+ */
+public enum KeysetOrder {
+
+    /**
+     * Ordered by (id)
+     */
+    ID,
+
+    /**
+     * Ordered by (modifiedDate, id), e.g. for change feeds
+     */
+    MODIFIED_DATE;
+}
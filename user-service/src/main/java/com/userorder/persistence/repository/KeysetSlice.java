@@ -0,0 +1,16 @@
+package com.userorder.persistence.repository;
+
+import java.util.List;
+
+/**
+ * One page of a keyset scan
+ *
+ * @param content    entities of the page, in keyset order
+ * @param nextCursor position after the last entity, or null when this is the last page
+ */
+public record KeysetSlice<T>(List<T> content, KeysetCursor nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -3,8 +3,16 @@ package com.userorder.persistence.repository;
 
 import com.cosium.spring.data.jpa.entity.graph.domain2.EntityGraph;
 import com.userorder.persistence.model.User;
+import com.userorder.persistence.repository.projection.EntityVersion;
+import com.userorder.persistence.repository.projection.ScoredId;
+import com.userorder.persistence.repository.projection.UserName;
+import com.userorder.persistence.repository.projection.UserRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +22,99 @@ public interface UserRepository extends BaseCustomJpaRepository<User, Long> , Jp
      
      List<User> findAll(EntityGraph entityGraph);
 
-}
\ No newline at end of file
+    /**
+     * Find the scalar columns of a user by ID without loading the entity
+     *
+     * @param id the ID of the user
+     * @return the user row, empty if not found
+     */
+    @Query("select new com.userorder.persistence.repository.projection.UserRow(u.id, u.createdDate, u.modifiedDate, u.createdBy, u.modifiedBy, u.firstName, u.lastName, u.birthDay) from User u where u.id = :id")
+    Optional<UserRow> findRowById(@Param("id") Long id);
+
+    /**
+     * Find the version columns of a user by ID, used to answer conditional requests
+     *
+     * @param id the ID of the user
+     * @return the user version, empty if not found
+     */
+    @Query("select new com.userorder.persistence.repository.projection.EntityVersion(u.version, u.modifiedDate) from User u where u.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Find the scalar columns of all users without loading the entities
+     *
+     * @return list of user rows
+     */
+    @Query("select new com.userorder.persistence.repository.projection.UserRow(u.id, u.createdDate, u.modifiedDate, u.createdBy, u.modifiedBy, u.firstName, u.lastName, u.birthDay) from User u")
+    List<UserRow> findAllRows();
+
+    /**
+     * Find the names of the users after the given ID, used to page through all users by keyset
+     *
+     * @param afterId the last ID of the previous page, 0 for the first page
+     * @param limit the page size
+     * @return the user names ordered by ID
+     */
+    @Query("select new com.userorder.persistence.repository.projection.UserName(u.id, u.firstName, u.lastName) from User u where u.id > :afterId order by u.id")
+    List<UserName> findNamesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Find the names of many users at once
+     *
+     * @param ids the IDs of the users
+     * @return the user names, users that do not exist are missing
+     */
+    @Query("select new com.userorder.persistence.repository.projection.UserName(u.id, u.firstName, u.lastName) from User u where u.id in :ids")
+    List<UserName> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Rank users by trigram similarity of their names, and of the streets and cities of their addresses, to the
+     * query (PostgreSQL pg_trgm). The % and <% operators are answered from the GIN trigram indexes and keep
+     * rows above pg_trgm.similarity_threshold / word_similarity_threshold; a user scores its best match.
+     *
+     * @param query the search text
+     * @param limit the maximum number of users
+     * @return user IDs with their similarity, best first
+     */
+    @Query(nativeQuery = true, value = """
+            select m.id as id, max(m.score) as score from (
+                select u.id as id, greatest(similarity(u.first_name, :query), similarity(u.last_name, :query)) as score
+                from "user" u
+                where u.first_name % :query or u.last_name % :query
+                union all
+                select a.user_id, greatest(word_similarity(:query, a.street), similarity(a.city, :query))
+                from address a
+                where a.user_id is not null and (:query <% a.street or a.city % :query)
+            ) m
+            group by m.id
+            order by score desc, m.id
+            limit :limit""")
+    List<ScoredId> findFuzzyByTrigram(@Param("query") String query, @Param("limit") int limit);
+
+    /**
+     * Substring fallback of {@link #findFuzzyByTrigram} for databases without pg_trgm (H2 in tests):
+     * case-insensitive contains, names before addresses and prefixes before infixes
+     *
+     * @param contains the lower-cased LIKE pattern %query%
+     * @param prefix the lower-cased LIKE pattern query%
+     * @param limit the maximum number of users
+     * @return user IDs with a rough relevance, best first
+     */
+    @Query(nativeQuery = true, value = """
+            select m.id as id, max(m.score) as score from (
+                select u.id as id,
+                       case when lower(u.first_name) like :prefix or lower(u.last_name) like :prefix then 1.0 else 0.6 end as score
+                from "user" u
+                where lower(u.first_name) like :contains or lower(u.last_name) like :contains
+                union all
+                select a.user_id,
+                       case when lower(a.city) like :prefix then 0.8 else 0.4 end
+                from address a
+                where a.user_id is not null and (lower(a.street) like :contains or lower(a.city) like :contains)
+            ) m
+            group by m.id
+            order by score desc, m.id
+            limit :limit""")
+    List<ScoredId> findFuzzyByLike(@Param("contains") String contains, @Param("prefix") String prefix,
+                                   @Param("limit") int limit);
+}
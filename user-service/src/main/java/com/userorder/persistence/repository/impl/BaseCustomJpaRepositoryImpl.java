@@ -4,20 +4,56 @@ import com.cosium.spring.data.jpa.entity.graph.domain2.EntityGraph;
 import com.cosium.spring.data.jpa.entity.graph.repository.support.EntityGraphSimpleJpaRepository;
 
 import com.userorder.persistence.repository.BaseCustomJpaRepository;
+import com.userorder.persistence.repository.GraphFetchStrategy;
+import com.userorder.persistence.repository.KeysetCursor;
+import com.userorder.persistence.repository.KeysetOrder;
+import com.userorder.persistence.repository.KeysetSlice;
+import com.userorder.persistence.utils.mapping.FetchPlan;
 import com.userorder.persistence.utils.mapping.GraphBuilderMappingService;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.support.PageableExecutionUtils;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class BaseCustomJpaRepositoryImpl<T, ID extends Serializable> extends EntityGraphSimpleJpaRepository<T, ID> implements BaseCustomJpaRepository<T, ID> {
 
+    /**
+     * Maximum number of IDs bound into a single IN (...) list
+     */
+    static final int IN_CLAUSE_BATCH_SIZE = 500;
+
+    /**
+     * Modification timestamp declared by PersistenceModel, second key of {@link KeysetOrder#MODIFIED_DATE}
+     */
+    static final String MODIFIED_DATE_ATTRIBUTE = "modifiedDate";
+
     private final JpaEntityInformation<T, ID> entityInformation;
     private final EntityManager entityManager;
     private final Class<T> domainClass;
@@ -35,25 +71,304 @@ public class BaseCustomJpaRepositoryImpl<T, ID extends Serializable> extends Ent
 
     @Override
     public List<T> findAllByIdWithAttributes(Collection<ID> ids, Collection<String> attributes) {
-        EntityGraph entityGraph = graphBuilderService.getGraphWithAttributes(domainClass, attributes);
-        return findAllById(ids, entityGraph);
+        return findAllByIdWithAttributes(ids, attributes, defaultStrategy(attributes));
+    }
+
+    @Override
+    public List<T> findAllByIdWithAttributes(Collection<ID> ids, Collection<String> attributes, GraphFetchStrategy strategy) {
+        if (strategy == GraphFetchStrategy.JOIN) {
+            EntityGraph entityGraph = graphBuilderService.getGraphWithAttributes(domainClass, attributes);
+            return findAllByIdInChunks(ids, entityGraph);
+        }
+
+        FetchPlan plan = graphBuilderService.getFetchPlan(domainClass, attributes);
+        List<T> roots = findAllByIdInChunks(ids, graphBuilderService.getGraphWithAttributes(domainClass, plan.rootPaths()));
+        fetchCollections(roots, plan);
+        return roots;
     }
 
     @Override
     public Optional<T> findByIdWithAttributes(ID id, Collection<String> attributes) {
-        EntityGraph entityGraph = graphBuilderService.getGraphWithAttributes(domainClass, attributes);
-        return findById(id, entityGraph);
+        return findByIdWithAttributes(id, attributes, defaultStrategy(attributes));
+    }
+
+    @Override
+    public Optional<T> findByIdWithAttributes(ID id, Collection<String> attributes, GraphFetchStrategy strategy) {
+        if (strategy == GraphFetchStrategy.JOIN) {
+            EntityGraph entityGraph = graphBuilderService.getGraphWithAttributes(domainClass, attributes);
+            return findById(id, entityGraph);
+        }
+
+        FetchPlan plan = graphBuilderService.getFetchPlan(domainClass, attributes);
+        Optional<T> root = findById(id, graphBuilderService.getGraphWithAttributes(domainClass, plan.rootPaths()));
+        root.ifPresent(entity -> fetchCollections(List.of(entity), plan));
+        return root;
     }
 
     @Override
     public List<T> findAllWithAttributes(Specification<T> spec, Collection<String> attributes) {
-        EntityGraph entityGraph = graphBuilderService.getGraphWithAttributes(domainClass, attributes);
-        return findAll(spec, entityGraph);
+        return findAllWithAttributes(spec, attributes, defaultStrategy(attributes));
+    }
+
+    @Override
+    public List<T> findAllWithAttributes(Specification<T> spec, Collection<String> attributes, GraphFetchStrategy strategy) {
+        if (strategy == GraphFetchStrategy.JOIN) {
+            EntityGraph entityGraph = graphBuilderService.getGraphWithAttributes(domainClass, attributes);
+            return findAll(spec, entityGraph);
+        }
+
+        FetchPlan plan = graphBuilderService.getFetchPlan(domainClass, attributes);
+        List<T> roots = findAll(spec, graphBuilderService.getGraphWithAttributes(domainClass, plan.rootPaths()));
+        fetchCollections(roots, plan);
+        return roots;
     }
 
+    /**
+     * Two-phase pagination: selects only the IDs of the requested page in SQL (LIMIT/OFFSET applied by the database),
+     * then hydrates exactly those IDs with the requested attributes. Hibernate never has to paginate a
+     * collection fetch in memory, so cost scales with the page size instead of the table size.
+     */
     @Override
     public Page<T> findPageWithAttributes(Specification<T> spec, Pageable pageable, Collection<String> attributes) {
-        EntityGraph entityGraph = graphBuilderService.getGraphWithAttributes(domainClass, attributes);
-        return findAll(spec, pageable, entityGraph);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAllWithAttributes(spec, attributes));
+        }
+
+        List<ID> ids = findIdPage(spec, pageable);
+        List<T> content = findAllByIdInOrder(ids, attributes);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public KeysetSlice<T> findKeysetWithAttributes(Specification<T> spec, KeysetOrder order, KeysetCursor after,
+                                                   int limit, Collection<String> attributes) {
+        if (after != null && after.order() != order) {
+            throw new IllegalArgumentException("Cursor was issued for order " + after.order() + ", not " + order);
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(domainClass);
+
+        Path<Long> idPath = root.get(entityInformation.getIdAttribute().getName());
+        Path<LocalDateTime> modifiedDatePath = root.get(MODIFIED_DATE_ATTRIBUTE);
+        boolean byModifiedDate = order == KeysetOrder.MODIFIED_DATE;
+
+        if (byModifiedDate) {
+            query.multiselect(idPath, modifiedDatePath);
+            query.orderBy(cb.asc(modifiedDatePath), cb.asc(idPath));
+        } else {
+            query.multiselect(idPath);
+            query.orderBy(cb.asc(idPath));
+        }
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (after != null) {
+            // (modifiedDate, id) > (:modifiedDate, :id), written out so that the composite index can be used
+            predicates.add(byModifiedDate
+                    ? cb.or(cb.greaterThan(modifiedDatePath, after.modifiedDate()),
+                            cb.and(cb.equal(modifiedDatePath, after.modifiedDate()), cb.greaterThan(idPath, after.id())))
+                    : cb.greaterThan(idPath, after.id()));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        // One extra row tells whether another page exists
+        List<Tuple> keys = entityManager.createQuery(query)
+                .setMaxResults(limit + 1)
+                .getResultList();
+
+        boolean hasNext = keys.size() > limit;
+        if (hasNext) {
+            keys = keys.subList(0, limit);
+        }
+
+        List<ID> ids = new ArrayList<>(keys.size());
+        for (Tuple key : keys) {
+            ids.add(idType().cast(key.get(0)));
+        }
+
+        KeysetCursor next = null;
+        if (hasNext) {
+            Tuple last = keys.get(keys.size() - 1);
+            next = new KeysetCursor(order,
+                    byModifiedDate ? last.get(1, LocalDateTime.class) : null,
+                    last.get(0, Long.class));
+        }
+
+        return new KeysetSlice<>(findAllByIdInOrder(ids, attributes), next);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public long streamWithAttributes(Specification<T> spec, Collection<String> attributes,
+                                     int fetchSize, int chunkSize, Consumer<List<T>> chunkConsumer) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ID> query = cb.createQuery(idType());
+        Root<T> root = query.from(domainClass);
+
+        Path<ID> idPath = root.get(entityInformation.getIdAttribute().getName());
+        query.select(idPath);
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(cb.asc(idPath));
+
+        Query<ID> idQuery = entityManager.createQuery(query).unwrap(Query.class);
+        idQuery.setFetchSize(fetchSize);
+        idQuery.setReadOnly(true);
+
+        long streamed = 0;
+        List<ID> chunk = new ArrayList<>(chunkSize);
+        try (ScrollableResults<ID> ids = idQuery.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (ids.next()) {
+                chunk.add(ids.get());
+                if (chunk.size() == chunkSize) {
+                    streamed += streamChunk(chunk, attributes, chunkConsumer);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                streamed += streamChunk(chunk, attributes, chunkConsumer);
+            }
+        }
+        return streamed;
+    }
+
+    @Override
+    public void forceVersionIncrement(T entity) {
+        entityManager.lock(entity, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+
+    /**
+     * Hydrates one chunk of streamed IDs, hands it over and detaches it again
+     */
+    private int streamChunk(List<ID> chunk, Collection<String> attributes, Consumer<List<T>> chunkConsumer) {
+        List<T> entities = findAllByIdInOrder(chunk, attributes);
+        chunkConsumer.accept(entities);
+
+        // Entities are not modified by a stream, nothing to flush before detaching them
+        entityManager.clear();
+        chunk.clear();
+        return entities.size();
+    }
+
+    /**
+     * Selects the root IDs of one page, ordered by the pageable sort with the ID as tie-breaker
+     * so that pages are stable. The specification must not multiply root rows (use EXISTS subqueries
+     * instead of joins on collections).
+     */
+    private List<ID> findIdPage(Specification<T> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ID> query = cb.createQuery(entityInformation.getIdType());
+        Root<T> root = query.from(domainClass);
+
+        String idName = entityInformation.getIdAttribute().getName();
+        Path<ID> idPath = root.get(idName);
+        query.select(idPath);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor(idName) == null) {
+            sort = sort.and(Sort.by(idName));
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<ID> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize());
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Hydrates the given IDs with the requested attributes and returns them in the order of the IDs
+     */
+    private List<T> findAllByIdInOrder(List<ID> ids, Collection<String> attributes) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<ID, T> byId = new HashMap<>(ids.size() * 2);
+        for (T entity : findAllByIdWithAttributes(ids, attributes)) {
+            byId.put(entityInformation.getId(entity), entity);
+        }
+
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (ID id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+
+    private Class<ID> idType() {
+        return entityInformation.getIdType();
+    }
+
+    private GraphFetchStrategy defaultStrategy(Collection<String> attributes) {
+        return GraphFetchStrategy.forPlan(graphBuilderService.getFetchPlan(domainClass, attributes));
+    }
+
+    /**
+     * Loads every requested collection of the already managed roots with its own batched IN (...) query.
+     * Hibernate resolves the returned rows to the same instances of the persistence context, so the
+     * collections get initialized in place and the number of rows stays linear in the data.
+     * Has to run inside the transaction that loaded the roots.
+     */
+    private void fetchCollections(List<T> roots, FetchPlan plan) {
+        if (roots.isEmpty() || plan.collectionPaths().isEmpty()) {
+            return;
+        }
+
+        List<ID> ids = new ArrayList<>(roots.size());
+        for (T root : roots) {
+            ids.add(entityInformation.getId(root));
+        }
+
+        for (Map.Entry<String, Set<String>> collection : plan.collectionPaths().entrySet()) {
+            EntityGraph collectionGraph = graphBuilderService.getGraphWithAttributes(domainClass, collection.getValue());
+            for (List<ID> chunk : partition(ids, IN_CLAUSE_BATCH_SIZE)) {
+                findAllById(chunk, collectionGraph);
+            }
+        }
+    }
+
+    /**
+     * Loads the IDs with the graph, binding at most {@link #IN_CLAUSE_BATCH_SIZE} IDs per IN (...) list
+     */
+    private List<T> findAllByIdInChunks(Collection<ID> ids, EntityGraph entityGraph) {
+        List<ID> idList = ids instanceof List<ID> list ? list : new ArrayList<>(ids);
+        if (idList.size() <= IN_CLAUSE_BATCH_SIZE) {
+            return findAllById(idList, entityGraph);
+        }
+
+        List<T> entities = new ArrayList<>(idList.size());
+        for (List<ID> chunk : partition(idList, IN_CLAUSE_BATCH_SIZE)) {
+            entities.addAll(findAllById(chunk, entityGraph));
+        }
+        return entities;
+    }
+
+    static <V> List<List<V>> partition(List<V> values, int size) {
+        List<List<V>> chunks = new ArrayList<>((values.size() + size - 1) / size);
+        for (int from = 0; from < values.size(); from += size) {
+            chunks.add(values.subList(from, Math.min(from + size, values.size())));
+        }
+        return chunks;
     }
 }
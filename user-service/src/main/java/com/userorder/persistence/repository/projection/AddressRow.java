@@ -0,0 +1,22 @@
+package com.userorder.persistence.repository.projection;
+
+import com.userorder.persistence.model.AddressType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Scalar columns of an address including the foreign key of its user, selected by a JPQL constructor expression
+ */
+public record AddressRow(Long id,
+                         LocalDateTime createdDate,
+                         LocalDateTime modifiedDate,
+                         String createdBy,
+                         String modifiedBy,
+                         AddressType type,
+                         String street,
+                         String postZipCode,
+                         String province,
+                         String city,
+                         String country,
+                         Long userId) {
+}
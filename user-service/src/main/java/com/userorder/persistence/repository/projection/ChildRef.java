@@ -0,0 +1,8 @@
+package com.userorder.persistence.repository.projection;
+
+/**
+ * ID of a child row together with the ID of the parent it belongs to,
+ * used to collect child IDs and counts of many parents with one query
+ */
+public record ChildRef(Long parentId, Long id) {
+}
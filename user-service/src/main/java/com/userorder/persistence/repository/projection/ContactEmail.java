@@ -0,0 +1,7 @@
+package com.userorder.persistence.repository.projection;
+
+/**
+ * Email of a contact with the ID of its user, selected by a JPQL constructor expression
+ */
+public record ContactEmail(Long id, Long userId, String email) {
+}
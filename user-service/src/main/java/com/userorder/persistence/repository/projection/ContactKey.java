@@ -0,0 +1,7 @@
+package com.userorder.persistence.repository.projection;
+
+/**
+ * Unique columns of a contact, selected by a JPQL constructor expression
+ */
+public record ContactKey(Long id, String email, String phoneNumber) {
+}
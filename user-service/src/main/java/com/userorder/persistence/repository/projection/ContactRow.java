@@ -0,0 +1,19 @@
+package com.userorder.persistence.repository.projection;
+
+import com.userorder.persistence.model.ContactType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Scalar columns of a contact including the foreign key of its user, selected by a JPQL constructor expression
+ */
+public record ContactRow(Long id,
+                         LocalDateTime createdDate,
+                         LocalDateTime modifiedDate,
+                         String createdBy,
+                         String modifiedBy,
+                         ContactType contactType,
+                         String phoneNumber,
+                         String email,
+                         Long userId) {
+}
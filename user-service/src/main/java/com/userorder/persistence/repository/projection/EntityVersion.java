@@ -0,0 +1,17 @@
+package com.userorder.persistence.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version columns of an entity, read instead of the entity to answer conditional requests
+ *
+ * @param version      Optimistic lock version
+ * @param modifiedDate Last modification time
+ * @param ownerVersion Version of the owning user for addresses and contacts, null for users and orphans
+ */
+public record EntityVersion(Long version, LocalDateTime modifiedDate, Long ownerVersion) {
+
+    public EntityVersion(Long version, LocalDateTime modifiedDate) {
+        this(version, modifiedDate, null);
+    }
+}
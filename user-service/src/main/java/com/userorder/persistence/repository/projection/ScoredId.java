@@ -0,0 +1,11 @@
+package com.userorder.persistence.repository.projection;
+
+/**
+ * ID of a matching row with its relevance, selected by native ranking queries (columns id and score)
+ */
+public interface ScoredId {
+
+    Long getId();
+
+    Double getScore();
+}
@@ -0,0 +1,7 @@
+package com.userorder.persistence.repository.projection;
+
+/**
+ * Name columns of a user, selected by a JPQL constructor expression
+ */
+public record UserName(Long id, String firstName, String lastName) {
+}
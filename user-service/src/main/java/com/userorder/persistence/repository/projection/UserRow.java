@@ -0,0 +1,18 @@
+package com.userorder.persistence.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Scalar columns of a user, selected straight into this record by a JPQL constructor expression.
+ * Nothing is managed by the persistence context, so flat reads skip entity hydration and dirty-checking snapshots.
+ */
+public record UserRow(Long id,
+                      LocalDateTime createdDate,
+                      LocalDateTime modifiedDate,
+                      String createdBy,
+                      String modifiedBy,
+                      String firstName,
+                      String lastName,
+                      LocalDate birthDay) {
+}
@@ -0,0 +1,93 @@
+package com.userorder.persistence.repository.spec;
+
+import com.userorder.persistence.model.Address;
+import com.userorder.persistence.model.Contact;
+import com.userorder.persistence.model.User;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Specifications of the user search. Address and contact filters are EXISTS subqueries correlated on user_id,
+ * so a user matching through several children is returned once and paging counts stay exact; each subquery
+ * is answered from the (column, user_id) index of its filter.
+ */
+public final class UserSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private UserSpecifications() {
+    }
+
+    /**
+     * First or last name starts with the prefix, ignoring case
+     */
+    public static Specification<User> nameStartsWith(String prefix) {
+        String pattern = escapeLike(prefix.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("firstName")), pattern, LIKE_ESCAPE),
+                cb.like(cb.lower(root.get("lastName")), pattern, LIKE_ESCAPE));
+    }
+
+    /**
+     * Born on or after the date
+     */
+    public static Specification<User> bornOnOrAfter(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("birthDay"), from);
+    }
+
+    /**
+     * Born on or before the date
+     */
+    public static Specification<User> bornOnOrBefore(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("birthDay"), to);
+    }
+
+    /**
+     * Has an address in the city
+     */
+    public static Specification<User> hasAddressInCity(String city) {
+        return hasAddressWith("city", city);
+    }
+
+    /**
+     * Has an address in the country
+     */
+    public static Specification<User> hasAddressInCountry(String country) {
+        return hasAddressWith("country", country);
+    }
+
+    /**
+     * Has a contact with an email in the domain, ignoring case
+     */
+    public static Specification<User> hasEmailDomain(String domain) {
+        String normalized = domain.trim().toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> {
+            Subquery<Long> contacts = query.subquery(Long.class);
+            Root<Contact> contact = contacts.from(Contact.class);
+            contacts.select(contact.get("id"))
+                    .where(cb.equal(contact.get("emailDomain"), normalized),
+                            cb.equal(contact.get("user"), root));
+            return cb.exists(contacts);
+        };
+    }
+
+    private static Specification<User> hasAddressWith(String attribute, String value) {
+        String trimmed = value.trim();
+        return (root, query, cb) -> {
+            Subquery<Long> addresses = query.subquery(Long.class);
+            Root<Address> address = addresses.from(Address.class);
+            addresses.select(address.get("id"))
+                    .where(cb.equal(address.get(attribute), trimmed),
+                            cb.equal(address.get("user"), root));
+            return cb.exists(addresses);
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
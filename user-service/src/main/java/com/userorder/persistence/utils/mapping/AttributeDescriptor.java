@@ -0,0 +1,28 @@
+package com.userorder.persistence.utils.mapping;
+
+/**
+ * Immutable description of a single entity attribute, resolved once at startup
+ *
+ * @param name        attribute name as declared on the entity
+ * @param kind        singular or collection valued
+ * @param targetType  attribute type, or the element type for collections
+ * @param association whether the attribute points to another entity
+ * @param mapping     the {@link MappingAttribute} declared on the attribute, or null when it is not mappable
+ */
+public record AttributeDescriptor(String name,
+                                  AttributeKind kind,
+                                  Class<?> targetType,
+                                  boolean association,
+                                  MappingAttribute mapping) {
+
+    public boolean isCollection() {
+        return kind == AttributeKind.COLLECTION;
+    }
+
+    /**
+     * Mappable attributes may be requested through the "attributes" parameter and fetched by entity graphs
+     */
+    public boolean isMappable() {
+        return mapping != null;
+    }
+}
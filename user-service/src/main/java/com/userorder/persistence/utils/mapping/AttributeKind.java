@@ -0,0 +1,8 @@
+package com.userorder.persistence.utils.mapping;
+
+/**
+ * Cardinality of an entity attribute as seen by the JPA metamodel
+ */
+public enum AttributeKind {
+    SINGULAR, COLLECTION;
+}
@@ -0,0 +1,142 @@
+package com.userorder.persistence.utils.mapping;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.util.*;
+
+/**
+ * Attribute metamodel of all entities, built once at startup from the Hibernate metamodel
+ * plus {@link MappingAttribute} declarations.
+ * <p>
+ * For every entity it keeps the attributes with their cardinality and target type, and the
+ * tree of legal (mappable) attribute paths such as "addresses" or "user.contacts".
+ * All lookups are plain map reads, so graph builders and mapping options never touch reflection per request.
+ */
+@Slf4j
+@Component
+public class EntityAttributeRegistry {
+
+    private final Map<Class<?>, Map<String, AttributeDescriptor>> attributesByEntity;
+    private final Map<Class<?>, Map<String, AttributeDescriptor>> mappablePathsByEntity;
+    private final Map<Class<?>, Set<String>> associationsByEntity;
+
+    public EntityAttributeRegistry(EntityManagerFactory entityManagerFactory) {
+        Map<Class<?>, Map<String, AttributeDescriptor>> attributes = new HashMap<>();
+
+        for (EntityType<?> entityType : entityManagerFactory.getMetamodel().getEntities()) {
+            Map<String, AttributeDescriptor> descriptors = new HashMap<>();
+            for (Attribute<?, ?> attribute : entityType.getAttributes()) {
+                descriptors.put(attribute.getName(), describe(attribute));
+            }
+            attributes.put(entityType.getJavaType(), Collections.unmodifiableMap(descriptors));
+        }
+
+        Map<Class<?>, Map<String, AttributeDescriptor>> mappablePaths = new HashMap<>();
+        Map<Class<?>, Set<String>> associations = new HashMap<>();
+        for (Map.Entry<Class<?>, Map<String, AttributeDescriptor>> entry : attributes.entrySet()) {
+            Map<String, AttributeDescriptor> paths = new LinkedHashMap<>();
+            collectMappablePaths(attributes, entry.getKey(), "", paths, new HashSet<>());
+            mappablePaths.put(entry.getKey(), Collections.unmodifiableMap(paths));
+
+            Set<String> associationNames = new TreeSet<>();
+            entry.getValue().values().stream()
+                    .filter(AttributeDescriptor::association)
+                    .forEach(descriptor -> associationNames.add(descriptor.name()));
+            associations.put(entry.getKey(), Collections.unmodifiableSet(associationNames));
+        }
+
+        this.attributesByEntity = Collections.unmodifiableMap(attributes);
+        this.mappablePathsByEntity = Collections.unmodifiableMap(mappablePaths);
+        this.associationsByEntity = Collections.unmodifiableMap(associations);
+
+        log.info("Attribute registry built for {} entities: {}", attributesByEntity.size(), mappablePathsByEntity);
+    }
+
+    /**
+     * Finds the attribute with the given name declared on (or inherited by) the entity
+     */
+    public Optional<AttributeDescriptor> getAttribute(Class<?> entityClass, String attributeName) {
+        Map<String, AttributeDescriptor> attributes = attributesByEntity.get(entityClass);
+        return attributes == null ? Optional.empty() : Optional.ofNullable(attributes.get(attributeName));
+    }
+
+    /**
+     * Resolves a dotted attribute path (e.g. "user.contacts") against the tree of legal paths of the root entity.
+     * Returns the descriptor of the last segment, or empty when any segment is unknown or not mappable.
+     */
+    public Optional<AttributeDescriptor> resolveMappablePath(Class<?> rootClass, String attributePath) {
+        Map<String, AttributeDescriptor> paths = mappablePathsByEntity.get(rootClass);
+        return paths == null ? Optional.empty() : Optional.ofNullable(paths.get(attributePath));
+    }
+
+    /**
+     * Checks whether the attribute is collection valued. Empty when the entity or attribute is unknown.
+     */
+    public Optional<AttributeKind> getKind(Class<?> entityClass, String attributeName) {
+        return getAttribute(entityClass, attributeName).map(AttributeDescriptor::kind);
+    }
+
+    /**
+     * All legal attribute paths of the entity, cycles between entities are cut at the first repetition
+     */
+    public Set<String> getMappablePaths(Class<?> rootClass) {
+        Map<String, AttributeDescriptor> paths = mappablePathsByEntity.get(rootClass);
+        return paths == null ? Collections.emptySet() : paths.keySet();
+    }
+
+    /**
+     * Names of all attributes of the entity that point to other entities
+     */
+    public Set<String> getAssociationNames(Class<?> entityClass) {
+        return associationsByEntity.getOrDefault(entityClass, Collections.emptySet());
+    }
+
+    private static AttributeDescriptor describe(Attribute<?, ?> attribute) {
+        AttributeKind kind = attribute.isCollection() ? AttributeKind.COLLECTION : AttributeKind.SINGULAR;
+        Class<?> targetType = attribute instanceof PluralAttribute<?, ?, ?> plural
+                ? plural.getElementType().getJavaType()
+                : attribute.getJavaType();
+
+        MappingAttribute mapping = null;
+        Member member = attribute.getJavaMember();
+        if (member instanceof AnnotatedElement annotated) {
+            mapping = annotated.getAnnotation(MappingAttribute.class);
+        }
+
+        return new AttributeDescriptor(attribute.getName(), kind, targetType, attribute.isAssociation(), mapping);
+    }
+
+    /**
+     * Walks @MappingAttribute associations depth first, same rules the graph builders used to apply per request
+     */
+    private static void collectMappablePaths(Map<Class<?>, Map<String, AttributeDescriptor>> attributes,
+                                             Class<?> entityClass,
+                                             String basePath,
+                                             Map<String, AttributeDescriptor> paths,
+                                             Set<Class<?>> visited) {
+        if (!visited.add(entityClass)) {
+            return;
+        }
+
+        Map<String, AttributeDescriptor> descriptors = attributes.getOrDefault(entityClass, Collections.emptyMap());
+        for (AttributeDescriptor descriptor : descriptors.values()) {
+            if (!descriptor.isMappable()) {
+                continue;
+            }
+
+            String path = basePath.isEmpty() ? descriptor.name() : basePath + "." + descriptor.name();
+            paths.put(path, descriptor);
+
+            if (descriptor.association()) {
+                collectMappablePaths(attributes, descriptor.targetType(), path, paths, new HashSet<>(visited));
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.userorder.persistence.utils.mapping;
+
+import com.cosium.spring.data.jpa.entity.graph.domain2.EntityGraph;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Bounded, thread-safe cache of prebuilt entity graphs and, next to them, of fetch plans.
+ * Plans are keyed by the root entity class and the canonical form of the requested attribute set,
+ * so "contacts,addresses" and " addresses ,contacts" resolve to the same graph.
+ */
+public class EntityGraphPlanCache {
+
+    private final Cache<PlanKey, EntityGraph> plans;
+    private final Cache<PlanKey, FetchPlan> fetchPlans;
+
+    public EntityGraphPlanCache(String name, long maximumSize, MeterRegistry meterRegistry) {
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.fetchPlans = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+
+        // Exposes cache.gets{result=hit|miss}, cache.size, cache.evictions tagged with cache=<name>
+        CaffeineCacheMetrics.monitor(meterRegistry, plans, name);
+        CaffeineCacheMetrics.monitor(meterRegistry, fetchPlans, name + ".fetch-plans");
+    }
+
+    /**
+     * Returns the cached graph for the given attributes, building it with the planner on a miss.
+     * The planner receives the canonical attribute set; exceptions thrown by it are not cached.
+     */
+    public EntityGraph get(Class<?> rootClass, Collection<String> attributes, Function<Set<String>, EntityGraph> planner) {
+        PlanKey key = new PlanKey(rootClass, canonicalize(attributes));
+        return plans.get(key, k -> planner.apply(k.attributes()));
+    }
+
+    /**
+     * Returns the cached fetch plan for the given attributes, building it with the planner on a miss; same
+     * contract as {@link #get}
+     */
+    public FetchPlan getFetchPlan(Class<?> rootClass, Collection<String> attributes, Function<Set<String>, FetchPlan> planner) {
+        PlanKey key = new PlanKey(rootClass, canonicalize(attributes));
+        return fetchPlans.get(key, k -> planner.apply(k.attributes()));
+    }
+
+    /**
+     * Hit/miss statistics of the graph cache
+     */
+    public CacheStats stats() {
+        return plans.stats();
+    }
+
+    public void invalidateAll() {
+        plans.invalidateAll();
+        fetchPlans.invalidateAll();
+    }
+
+    /**
+     * Trims attribute paths, drops blanks and sorts the result so equal requests share one key
+     */
+    public static SortedSet<String> canonicalize(Collection<String> attributes) {
+        SortedSet<String> canonical = new TreeSet<>();
+        if (attributes != null) {
+            for (String attribute : attributes) {
+                if (attribute != null && !attribute.isBlank()) {
+                    canonical.add(attribute.trim());
+                }
+            }
+        }
+        return Collections.unmodifiableSortedSet(canonical);
+    }
+
+    private record PlanKey(Class<?> rootClass, Set<String> attributes) {
+    }
+}
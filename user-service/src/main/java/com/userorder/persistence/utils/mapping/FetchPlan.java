@@ -0,0 +1,21 @@
+package com.userorder.persistence.utils.mapping;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Requested attribute paths split by how they are fetched
+ *
+ * @param rootPaths       paths fetched together with the root rows (singular associations and their sub-paths)
+ * @param collectionPaths paths grouped by the top-level collection attribute they start with,
+ *                        e.g. "addresses" -> ["addresses", "addresses.user"]
+ */
+public record FetchPlan(Set<String> rootPaths, Map<String, Set<String>> collectionPaths) {
+
+    /**
+     * More than one collection joined in the same statement multiplies the result rows
+     */
+    public boolean hasMultipleCollections() {
+        return collectionPaths.size() > 1;
+    }
+}
@@ -2,55 +2,128 @@ package com.userorder.persistence.utils.mapping;
 
 import com.cosium.spring.data.jpa.entity.graph.domain2.DynamicEntityGraph;
 import com.cosium.spring.data.jpa.entity.graph.domain2.EntityGraph;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
+/**
+ * Builds entity graphs and fetch plans for the requested attribute paths. Paths that are not mappable from the
+ * root entity are skipped, like the service-level GraphBuilderMapperService does, so clients sending unknown
+ * attribute names get the entity without them rather than an error. Graphs and fetch plans are both cached per
+ * canonical attribute set; skipped paths are logged at DEBUG when the fetch plan of a set is built, so a client
+ * cannot flood the log with made-up names.
+ */
+@Slf4j
 @Component
 public class GraphBuilderMappingService {
 
+    private final EntityAttributeRegistry attributeRegistry;
+    private final EntityGraphPlanCache planCache;
+
+    public GraphBuilderMappingService(EntityAttributeRegistry attributeRegistry,
+                                      @Value("${user-service.graph-plan-cache.max-size:512}") long maxSize,
+                                      MeterRegistry meterRegistry) {
+        this.attributeRegistry = attributeRegistry;
+        this.planCache = new EntityGraphPlanCache("entityGraphPlans.repository", maxSize, meterRegistry);
+    }
+
+    /**
+     * Returns a prebuilt, shared entity graph for the given attributes.
+     * Graphs are compiled once per (root class, canonical attribute set) and served from the plan cache afterwards.
+     */
     public EntityGraph getGraphWithAttributes(Class<?> rootClass, Collection<String> attributes) {
-        DynamicEntityGraph.Builder builder = DynamicEntityGraph.fetching();
+        return planCache.get(rootClass, attributes, canonical -> buildGraph(rootClass, canonical));
+    }
+
+    /**
+     * Splits the requested attributes into paths fetched with the root rows and paths
+     * grouped under the top-level collection they belong to; planned once per canonical attribute set
+     */
+    public FetchPlan getFetchPlan(Class<?> rootClass, Collection<String> attributes) {
+        return planCache.getFetchPlan(rootClass, attributes, canonical -> buildFetchPlan(rootClass, canonical));
+    }
+
+    public EntityGraphPlanCache getPlanCache() {
+        return planCache;
+    }
+
+    public EntityAttributeRegistry getAttributeRegistry() {
+        return attributeRegistry;
+    }
+
+    private FetchPlan buildFetchPlan(Class<?> rootClass, Collection<String> attributes) {
+        Set<String> rootPaths = new TreeSet<>();
+        Map<String, Set<String>> collectionPaths = new LinkedHashMap<>();
+        Set<String> ignored = new TreeSet<>();
 
         for (String attributePath : attributes) {
-            addPathIfValid(builder, rootClass, attributePath);
+            int separator = attributePath.indexOf('.');
+            String head = separator < 0 ? attributePath : attributePath.substring(0, separator);
+            if (!isMappable(rootClass, attributePath)) {
+                ignored.add(attributePath);
+                continue;
+            }
+            AttributeDescriptor descriptor = attributeRegistry.resolveMappablePath(rootClass, head).orElseThrow();
+
+            if (descriptor.isCollection()) {
+                collectionPaths.computeIfAbsent(head, key -> new TreeSet<>()).add(attributePath);
+            } else {
+                rootPaths.add(attributePath);
+            }
         }
 
-        return builder.build();
+        if (!ignored.isEmpty()) {
+            log.debug("Ignoring attribute paths {}: not mappable from {}", ignored, rootClass.getSimpleName());
+        }
+        collectionPaths.replaceAll((head, paths) -> Collections.unmodifiableSet(paths));
+        return new FetchPlan(Collections.unmodifiableSet(rootPaths), Collections.unmodifiableMap(collectionPaths));
     }
 
-    private void addPathIfValid(DynamicEntityGraph.Builder builder, Class<?> clazz, String attributePath) {
-        String[] parts = attributePath.split("\\.");
-        Class<?> currentClass = clazz;
-        StringBuilder pathBuilder = new StringBuilder();
-
-        for (String fieldName : parts) {
-            try {
-                Field field = currentClass.getDeclaredField(fieldName);
-                MappingAttribute mapping = field.getAnnotation(MappingAttribute.class);
-                if (mapping == null) {
-                    throw new IllegalArgumentException("Field '" + fieldName + "' in class " + currentClass.getSimpleName() + " is not annotated with @MappingAttribute");
-                }
+    private EntityGraph buildGraph(Class<?> rootClass, Collection<String> attributes) {
+        DynamicEntityGraph.Builder builder = DynamicEntityGraph.fetching();
 
-                if (!pathBuilder.isEmpty()) {
-                    pathBuilder.append(".");
-                }
-                pathBuilder.append(fieldName);
+        for (String attributePath : attributes) {
+            if (isMappable(rootClass, attributePath)) {
+                addPath(builder, attributePath);
+            }
+        }
 
-                builder.addPath(pathBuilder.toString());
+        return builder.build();
+    }
 
-                if (Collection.class.isAssignableFrom(field.getType())) {
-                    ParameterizedType type = (ParameterizedType) field.getGenericType();
-                    currentClass = (Class<?>) type.getActualTypeArguments()[0];
-                } else {
-                    currentClass = field.getType();
-                }
+    /**
+     * True when the path and every prefix of it, e.g. "user" for "user.contacts", are mappable from the root class
+     */
+    private boolean isMappable(Class<?> clazz, String attributePath) {
+        int separator = attributePath.indexOf('.');
+        while (true) {
+            String path = separator < 0 ? attributePath : attributePath.substring(0, separator);
+            if (attributeRegistry.resolveMappablePath(clazz, path).isEmpty()) {
+                return false;
+            }
+            if (separator < 0) {
+                return true;
+            }
+            separator = attributePath.indexOf('.', separator + 1);
+        }
+    }
 
-            } catch (NoSuchFieldException e) {
-                throw new RuntimeException("No such field: " + fieldName + " in " + currentClass.getName(), e);
+    private static void addPath(DynamicEntityGraph.Builder builder, String attributePath) {
+        int separator = attributePath.indexOf('.');
+        while (true) {
+            builder.addPath(separator < 0 ? attributePath : attributePath.substring(0, separator));
+            if (separator < 0) {
+                return;
             }
+            separator = attributePath.indexOf('.', separator + 1);
         }
     }
 }
@@ -1,7 +1,14 @@
 package com.userorder.service;
 
+import com.userorder.persistence.repository.KeysetOrder;
+import com.userorder.service.dto.BatchResult;
+import com.userorder.service.dto.CursorPage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Base service interface that defines common CRUD operations with flexible mapping options
@@ -37,6 +44,27 @@ public interface BaseService<T> {
         return findById(id, false, null);
     }
     
+    /**
+     * Compute the strong ETag of an entity's representation from its version columns only,
+     * without loading, mapping or serializing the entity
+     *
+     * @param id Entity ID
+     * @param withAudit Whether the representation includes audit information
+     * @param attributes Set of attributes included in the representation
+     * @return Quoted strong ETag, changes whenever the representation may change
+     */
+    String getETag(Long id, boolean withAudit, Set<String> attributes);
+
+    /**
+     * Find many entities by ID in one round trip with configurable options for audit information and included attributes
+     *
+     * @param ids Entity IDs; duplicates are ignored, the number of distinct IDs is limited
+     * @param withAudit Whether to include audit information (createdDate, modifiedDate, etc.)
+     * @param attributes Set of attributes to include (like "addresses", "contacts")
+     * @return DTOs in the order of the requested IDs and the IDs that were not found
+     */
+    BatchResult<T> findAllByIds(List<Long> ids, boolean withAudit, Set<String> attributes);
+
     /**
      * Find all entities with configurable options for audit information and included attributes
      * 
@@ -54,5 +82,40 @@ public interface BaseService<T> {
     default List<T> findAll() {
         return findAll(false, null);
     }
-    
-}
\ No newline at end of file
+
+    /**
+     * Find one page of entities with configurable options for audit information and included attributes.
+     * Only the IDs of the page are selected in SQL, the entities are then loaded with the requested attributes.
+     *
+     * @param withAudit Whether to include audit information (createdDate, modifiedDate, etc.)
+     * @param attributes Set of attributes to include (like "addresses", "contacts", "roles.permissions")
+     * @param pageable Page number, size and sort order
+     * @return Page of DTOs with requested configuration
+     */
+    Page<T> findPage(boolean withAudit, Set<String> attributes, Pageable pageable);
+
+    /**
+     * Find the next page of a cursor (keyset) listing. Every page costs the same regardless of its depth.
+     *
+     * @param cursor Opaque token returned as nextCursor by the previous page, null for the first page
+     * @param size Maximum number of entities in the page
+     * @param order Sort keys of the listing, ignored when a cursor is given (the cursor carries its own order)
+     * @param withAudit Whether to include audit information (createdDate, modifiedDate, etc.)
+     * @param attributes Set of attributes to include (like "addresses", "contacts")
+     * @return Page of DTOs with the cursor of the next page
+     */
+    CursorPage<T> findAfter(String cursor, int size, KeysetOrder order, boolean withAudit, Set<String> attributes);
+
+    /**
+     * Stream all entities in ID order to the consumer, one DTO at a time, without building a result list.
+     * Entities are read through a database cursor and detached chunk by chunk, so memory use does not
+     * grow with the number of rows.
+     *
+     * @param withAudit Whether to include audit information (createdDate, modifiedDate, etc.)
+     * @param attributes Set of attributes to include (like "addresses", "contacts")
+     * @param consumer Receives every mapped DTO, called on the thread of the surrounding read transaction
+     * @return Number of streamed DTOs
+     */
+    long streamAll(boolean withAudit, Set<String> attributes, Consumer<T> consumer);
+
+}
@@ -0,0 +1,24 @@
+package com.userorder.service;
+
+import com.userorder.service.dto.BulkLoadReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for loading large numbers of users with their addresses and contacts
+ * through the database's native load path, bypassing the persistence context
+ */
+public interface UserBulkLoadService {
+
+    /**
+     * Load users from newline-delimited JSON, one UserDTO with nested addresses and contacts per line.
+     * Invalid records are rejected and reported; all valid records are loaded in one transaction, so a
+     * database error loads nothing. Contacts with an email or phone number that already exists are skipped.
+     *
+     * @param ndjson Input, read once to the end
+     * @return Counts of the loaded rows and the rejected records
+     * @throws IOException if the input cannot be read
+     */
+    BulkLoadReport load(InputStream ndjson) throws IOException;
+}
@@ -0,0 +1,23 @@
+package com.userorder.service;
+
+import com.userorder.service.dto.BulkImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for importing users with their addresses and contacts in bulk
+ */
+public interface UserImportService {
+
+    /**
+     * Import users from newline-delimited JSON, one UserDTO with nested addresses and contacts per line.
+     * Records are validated as they are read and persisted in chunks, each chunk in its own transaction,
+     * so a failing record only rejects itself and memory does not grow with the size of the body.
+     *
+     * @param ndjson Request body, read once to the end
+     * @return Counts and the outcome of every record
+     * @throws IOException if the body cannot be read
+     */
+    BulkImportResult importUsers(InputStream ndjson) throws IOException;
+}
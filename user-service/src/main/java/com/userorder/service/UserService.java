@@ -3,9 +3,17 @@ package com.userorder.service;
 
 
 import com.userorder.persistence.model.User;
+import com.userorder.persistence.repository.KeysetOrder;
+import com.userorder.service.dto.CursorPage;
 import com.userorder.service.dto.UserDTO;
+import com.userorder.service.dto.UserSearchCriteria;
+import com.userorder.service.dto.UserSearchHit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service interface for User entity operations
@@ -20,10 +28,64 @@ public interface UserService extends BaseService<UserDTO> {
     /**
      * Save a new or update an existing user
      */
-    UserDTO save(UserDTO userDTO);
+    default UserDTO save(UserDTO userDTO) {
+        return save(userDTO, null);
+    }
+
+    /**
+     * Save a new user and return it built from the persistence context;
+     * collections are only loaded when requested through attributes
+     */
+    UserDTO save(UserDTO userDTO, Set<String> attributes);
     
     /**
      * Partially update a user
      */
-    UserDTO update(Long id, UserDTO userDTO);
-}
\ No newline at end of file
+    default UserDTO update(Long id, UserDTO userDTO) {
+        return update(id, userDTO, null);
+    }
+
+    /**
+     * Partially update a user; the response is built from the updated entity without touching
+     * its collections unless they are requested through attributes
+     */
+    UserDTO update(Long id, UserDTO userDTO, Set<String> attributes);
+
+    /**
+     * Find a user in summary mode: own fields plus address/contact IDs and counts,
+     * fetched with aggregate queries instead of initializing the user's collections
+     */
+    UserDTO findSummaryById(Long id, boolean withAudit);
+
+    /**
+     * Compute the strong ETag of a user in summary mode, distinct from the ETag of any other representation
+     * of the same version; child changes bump the user's version, so it covers the child IDs and counts
+     */
+    String getSummaryETag(Long id, boolean withAudit);
+
+    /**
+     * Find all users in summary mode, child IDs and counts are fetched in batches for many users at once
+     */
+    List<UserDTO> findAllSummaries(boolean withAudit);
+
+    /**
+     * Find one page of users in summary mode, child IDs and counts are fetched with one query per child type
+     */
+    Page<UserDTO> findSummaryPage(boolean withAudit, Pageable pageable);
+
+    /**
+     * Find the next keyset page of users in summary mode
+     */
+    CursorPage<UserDTO> findSummariesAfter(String cursor, int size, KeysetOrder order, boolean withAudit);
+
+    /**
+     * Find one page of the users matching all given filters; filtering, sorting and paging run in SQL
+     */
+    Page<UserDTO> search(UserSearchCriteria criteria, boolean withAudit, Set<String> attributes, Pageable pageable);
+
+    /**
+     * Find the users whose names, or whose addresses' streets or cities, resemble the query, best match first;
+     * tolerates typos where the database supports trigram matching
+     */
+    List<UserSearchHit> fuzzySearch(String query, int limit, boolean withAudit, Set<String> attributes);
+}
@@ -0,0 +1,21 @@
+package com.userorder.service;
+
+import com.userorder.service.dto.UserSuggestion;
+
+import java.util.List;
+
+/**
+ * Service interface for user autocomplete
+ */
+public interface UserSuggestService {
+
+    /**
+     * Find users whose first name, last name, full name or contact email starts with the prefix,
+     * ignoring case and accents, in order of the matched value
+     *
+     * @param prefix Typed text
+     * @param limit Maximum number of users
+     * @return Distinct users, empty while the index is being built
+     */
+    List<UserSuggestion> suggest(String prefix, int limit);
+}
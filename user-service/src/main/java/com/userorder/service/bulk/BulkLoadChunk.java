@@ -0,0 +1,32 @@
+package com.userorder.service.bulk;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Rows of one chunk of a bulk load, flattened and with their final IDs already assigned
+ *
+ * @param users     User rows
+ * @param addresses Address rows, pointing to users of this or an earlier chunk
+ * @param contacts  Contact rows, pointing to users of this or an earlier chunk
+ * @param timestamp Creation and modification time written to every row, in UTC
+ * @param auditor   Creator and modifier written to every row
+ */
+public record BulkLoadChunk(List<StagedUser> users,
+                            List<StagedAddress> addresses,
+                            List<StagedContact> contacts,
+                            LocalDateTime timestamp,
+                            String auditor) {
+
+    public record StagedUser(long id, String password, String firstName, String lastName, LocalDate birthDay) {
+    }
+
+    public record StagedAddress(long id, long userId, String type, String street, String postZipCode,
+                                String province, String city, String country) {
+    }
+
+    public record StagedContact(long id, long userId, String contactType, String phoneNumber, String email,
+                                String emailDomain) {
+    }
+}
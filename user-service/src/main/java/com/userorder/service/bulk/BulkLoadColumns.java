@@ -0,0 +1,20 @@
+package com.userorder.service.bulk;
+
+/**
+ * Column lists of the bulk loaded tables, in the order the engines write them
+ */
+final class BulkLoadColumns {
+
+    static final String USER_TABLE = "\"user\"";
+    static final String ADDRESS_TABLE = "address";
+    static final String CONTACT_TABLE = "contact";
+
+    private static final String AUDIT = "id, created_date, modified_date, created_by, modified_by, version";
+
+    static final String USER = AUDIT + ", password, first_name, last_name, birthday";
+    static final String ADDRESS = AUDIT + ", user_id, type, street, post_zip_code, province, city, country";
+    static final String CONTACT = AUDIT + ", user_id, contact_type, phone_number, email, email_domain";
+
+    private BulkLoadColumns() {
+    }
+}
@@ -0,0 +1,12 @@
+package com.userorder.service.bulk;
+
+/**
+ * Rows written by a bulk load engine
+ *
+ * @param users             Inserted users
+ * @param addresses         Inserted addresses
+ * @param contacts          Inserted contacts
+ * @param duplicateContacts Contacts skipped because their email or phone number already exists
+ */
+public record BulkLoadCounts(long users, long addresses, long contacts, long duplicateContacts) {
+}
@@ -0,0 +1,31 @@
+package com.userorder.service.bulk;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Database specific part of a bulk load. An engine instance serves one load and runs inside the
+ * loader's transaction: {@link #begin}, then {@link #write} per chunk, then {@link #finish}.
+ */
+public interface BulkLoadEngine {
+
+    /**
+     * Name reported in the load summary
+     */
+    String name();
+
+    /**
+     * Prepares the connection for a load, e.g. creates staging tables
+     */
+    void begin(Connection connection) throws SQLException;
+
+    /**
+     * Writes one chunk of rows
+     */
+    void write(Connection connection, BulkLoadChunk chunk) throws SQLException;
+
+    /**
+     * Moves everything written into the target tables and counts the result
+     */
+    BulkLoadCounts finish(Connection connection) throws SQLException;
+}
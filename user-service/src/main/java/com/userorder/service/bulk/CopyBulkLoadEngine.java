@@ -0,0 +1,137 @@
+package com.userorder.service.bulk;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static com.userorder.service.bulk.BulkLoadColumns.*;
+
+/**
+ * PostgreSQL engine: every chunk is streamed with COPY ... FROM STDIN (CSV) into temporary staging tables,
+ * which are merged into user, address and contact with one INSERT ... SELECT each at the end.
+ * <p>
+ * Contacts whose email or phone number already exists, in the table or earlier in the load, are skipped
+ * by ON CONFLICT DO NOTHING; the first occurrence in load order wins. The staging tables are dropped on commit.
+ */
+class CopyBulkLoadEngine implements BulkLoadEngine {
+
+    private static final String STAGE_USER = "stage_user";
+    private static final String STAGE_ADDRESS = "stage_address";
+    private static final String STAGE_CONTACT = "stage_contact";
+
+    private long stagedContacts;
+
+    @Override
+    public String name() {
+        return "postgresql-copy";
+    }
+
+    @Override
+    public void begin(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(createStage(STAGE_USER, USER_TABLE));
+            statement.execute(createStage(STAGE_ADDRESS, ADDRESS_TABLE));
+            statement.execute(createStage(STAGE_CONTACT, CONTACT_TABLE));
+        }
+    }
+
+    @Override
+    public void write(Connection connection, BulkLoadChunk chunk) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        copy(copyManager, STAGE_USER, USER, chunk, chunk.users(), (csv, user) -> csv.begin(user.id())
+                .field(user.password()).field(user.firstName()).field(user.lastName()).field(user.birthDay()));
+        copy(copyManager, STAGE_ADDRESS, ADDRESS, chunk, chunk.addresses(), (csv, address) -> csv.begin(address.id())
+                .field(address.userId()).field(address.type()).field(address.street()).field(address.postZipCode())
+                .field(address.province()).field(address.city()).field(address.country()));
+        copy(copyManager, STAGE_CONTACT, CONTACT, chunk, chunk.contacts(), (csv, contact) -> csv.begin(contact.id())
+                .field(contact.userId()).field(contact.contactType()).field(contact.phoneNumber()).field(contact.email())
+                .field(contact.emailDomain()));
+        stagedContacts += chunk.contacts().size();
+    }
+
+    @Override
+    public BulkLoadCounts finish(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            long users = statement.executeUpdate(merge(USER_TABLE, USER, STAGE_USER, ""));
+            long addresses = statement.executeUpdate(merge(ADDRESS_TABLE, ADDRESS, STAGE_ADDRESS, ""));
+            // Ordered by ID so the first occurrence in the load is the one kept
+            long contacts = statement.executeUpdate(
+                    merge(CONTACT_TABLE, CONTACT, STAGE_CONTACT, " ORDER BY id ON CONFLICT DO NOTHING"));
+            return new BulkLoadCounts(users, addresses, contacts, stagedContacts - contacts);
+        }
+    }
+
+    private static String createStage(String stage, String table) {
+        return "CREATE TEMPORARY TABLE " + stage + " (LIKE " + table + " INCLUDING DEFAULTS) ON COMMIT DROP";
+    }
+
+    private static String merge(String table, String columns, String stage, String suffix) {
+        return "INSERT INTO " + table + " (" + columns + ") SELECT " + columns + " FROM " + stage + suffix;
+    }
+
+    private static <T> void copy(CopyManager copyManager, String stage, String columns, BulkLoadChunk chunk,
+                                 List<T> rows, BiConsumer<CsvRow, T> fields) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        CsvRow csv = new CsvRow(chunk.timestamp(), chunk.auditor());
+        for (T row : rows) {
+            fields.accept(csv, row);
+            csv.end();
+        }
+        try {
+            copyManager.copyIn("COPY " + stage + " (" + columns + ") FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into " + stage + " failed", e);
+        }
+    }
+
+    /**
+     * CSV writer for COPY: empty unquoted fields are NULL, every other value is quoted
+     */
+    private static final class CsvRow {
+
+        private final StringBuilder buffer = new StringBuilder();
+        private final String audit;
+
+        private CsvRow(LocalDateTime timestamp, String auditor) {
+            String quotedAuditor = quote(auditor);
+            this.audit = "," + timestamp + "," + timestamp + "," + quotedAuditor + "," + quotedAuditor + ",0";
+        }
+
+        private CsvRow begin(long id) {
+            buffer.append(id).append(audit);
+            return this;
+        }
+
+        private CsvRow field(Object value) {
+            buffer.append(',');
+            if (value != null) {
+                buffer.append(quote(value.toString()));
+            }
+            return this;
+        }
+
+        private void end() {
+            buffer.append('\n');
+        }
+
+        private static String quote(String value) {
+            return value == null ? "" : '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.userorder.service.bulk;
+
+import com.userorder.service.bulk.BulkLoadChunk.StagedAddress;
+import com.userorder.service.bulk.BulkLoadChunk.StagedContact;
+import com.userorder.service.bulk.BulkLoadChunk.StagedUser;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.userorder.service.bulk.BulkLoadColumns.*;
+
+/**
+ * Portable engine for databases without COPY (H2 in tests): rows are written straight into the target
+ * tables with JDBC batch inserts. Contacts are checked against the table and the earlier rows of the load
+ * before insertion, with the same first-occurrence-wins result as the COPY engine.
+ */
+class JdbcBulkLoadEngine implements BulkLoadEngine {
+
+    private static final String EXISTING_CONTACT =
+            "select 1 from " + CONTACT_TABLE + " where email = ? or phone_number = ?";
+
+    private final Set<String> loadedEmails = new HashSet<>();
+    private final Set<String> loadedPhoneNumbers = new HashSet<>();
+
+    private long users;
+    private long addresses;
+    private long contacts;
+    private long duplicateContacts;
+
+    @Override
+    public String name() {
+        return "jdbc-batch";
+    }
+
+    @Override
+    public void begin(Connection connection) {
+        // Nothing to prepare, rows go straight into the target tables
+    }
+
+    @Override
+    public void write(Connection connection, BulkLoadChunk chunk) throws SQLException {
+        Timestamp timestamp = Timestamp.valueOf(chunk.timestamp());
+
+        try (PreparedStatement insert = connection.prepareStatement(insert(USER_TABLE, USER, 10))) {
+            for (StagedUser user : chunk.users()) {
+                int index = audit(insert, user.id(), timestamp, chunk.auditor());
+                insert.setString(index++, user.password());
+                insert.setString(index++, user.firstName());
+                insert.setString(index++, user.lastName());
+                insert.setDate(index, user.birthDay() == null ? null : Date.valueOf(user.birthDay()));
+                insert.addBatch();
+            }
+            users += sum(insert.executeBatch());
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement(insert(ADDRESS_TABLE, ADDRESS, 13))) {
+            for (StagedAddress address : chunk.addresses()) {
+                int index = audit(insert, address.id(), timestamp, chunk.auditor());
+                insert.setLong(index++, address.userId());
+                insert.setString(index++, address.type());
+                insert.setString(index++, address.street());
+                insert.setString(index++, address.postZipCode());
+                insert.setString(index++, address.province());
+                insert.setString(index++, address.city());
+                insert.setString(index, address.country());
+                insert.addBatch();
+            }
+            addresses += sum(insert.executeBatch());
+        }
+
+        List<StagedContact> accepted = acceptContacts(connection, chunk.contacts());
+        try (PreparedStatement insert = connection.prepareStatement(insert(CONTACT_TABLE, CONTACT, 11))) {
+            for (StagedContact contact : accepted) {
+                int index = audit(insert, contact.id(), timestamp, chunk.auditor());
+                insert.setLong(index++, contact.userId());
+                insert.setString(index++, contact.contactType());
+                insert.setString(index++, contact.phoneNumber());
+                insert.setString(index++, contact.email());
+                insert.setString(index, contact.emailDomain());
+                insert.addBatch();
+            }
+            contacts += sum(insert.executeBatch());
+        }
+    }
+
+    @Override
+    public BulkLoadCounts finish(Connection connection) {
+        return new BulkLoadCounts(users, addresses, contacts, duplicateContacts);
+    }
+
+    /**
+     * Drops the contacts whose email or phone number is already taken and reserves the values of the others
+     */
+    private List<StagedContact> acceptContacts(Connection connection, List<StagedContact> staged) throws SQLException {
+        List<StagedContact> accepted = new ArrayList<>(staged.size());
+        try (PreparedStatement existing = connection.prepareStatement(EXISTING_CONTACT)) {
+            for (StagedContact contact : staged) {
+                boolean duplicate = (contact.email() != null && loadedEmails.contains(contact.email()))
+                        || (contact.phoneNumber() != null && loadedPhoneNumbers.contains(contact.phoneNumber()))
+                        || exists(existing, contact);
+                if (duplicate) {
+                    duplicateContacts++;
+                    continue;
+                }
+                if (contact.email() != null) {
+                    loadedEmails.add(contact.email());
+                }
+                if (contact.phoneNumber() != null) {
+                    loadedPhoneNumbers.add(contact.phoneNumber());
+                }
+                accepted.add(contact);
+            }
+        }
+        return accepted;
+    }
+
+    private static boolean exists(PreparedStatement existing, StagedContact contact) throws SQLException {
+        if (contact.email() == null && contact.phoneNumber() == null) {
+            return false;
+        }
+        existing.setString(1, contact.email());
+        existing.setString(2, contact.phoneNumber());
+        try (ResultSet resultSet = existing.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+
+    private static int audit(PreparedStatement insert, long id, Timestamp timestamp, String auditor) throws SQLException {
+        insert.setLong(1, id);
+        insert.setTimestamp(2, timestamp);
+        insert.setTimestamp(3, timestamp);
+        insert.setString(4, auditor);
+        insert.setString(5, auditor);
+        insert.setLong(6, 0L);
+        return 7;
+    }
+
+    private static String insert(String table, String columns, int columnCount) {
+        return "insert into " + table + " (" + columns + ") values (" + "?, ".repeat(columnCount - 1) + "?)";
+    }
+
+    /**
+     * Row count of a batch; drivers may report SUCCESS_NO_INFO (-2) per statement
+     */
+    private static long sum(int[] updateCounts) {
+        long rows = 0;
+        for (int count : updateCounts) {
+            rows += count == PreparedStatement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return rows;
+    }
+}
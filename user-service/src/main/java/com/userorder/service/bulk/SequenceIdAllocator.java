@@ -0,0 +1,37 @@
+package com.userorder.service.bulk;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Hands out IDs the same way as the pooled-lo optimizer of PooledSequenceIdGenerator: every sequence call
+ * reserves the block [value, value + allocation size), so bulk loaded rows never collide with IDs the
+ * application assigns concurrently.
+ */
+class SequenceIdAllocator {
+
+    private final String nextValueSql;
+    private final int allocationSize;
+
+    private long next;
+    private long blockEnd;
+
+    SequenceIdAllocator(String sequenceName, int allocationSize) {
+        this.nextValueSql = "select nextval('" + sequenceName + "')";
+        this.allocationSize = allocationSize;
+    }
+
+    long nextId(Connection connection) throws SQLException {
+        if (next >= blockEnd) {
+            try (PreparedStatement statement = connection.prepareStatement(nextValueSql);
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                next = resultSet.getLong(1);
+                blockEnd = next + allocationSize;
+            }
+        }
+        return next++;
+    }
+}
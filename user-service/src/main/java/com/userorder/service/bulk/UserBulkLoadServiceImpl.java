@@ -0,0 +1,237 @@
+package com.userorder.service.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.userorder.persistence.model.Contact;
+import com.userorder.persistence.model.User;
+import com.userorder.service.UserBulkLoadService;
+import com.userorder.service.bulk.BulkLoadChunk.StagedAddress;
+import com.userorder.service.bulk.BulkLoadChunk.StagedContact;
+import com.userorder.service.bulk.BulkLoadChunk.StagedUser;
+import com.userorder.service.dto.AddressDTO;
+import com.userorder.service.dto.BulkImportRecord;
+import com.userorder.service.dto.BulkLoadReport;
+import com.userorder.service.dto.ContactDTO;
+import com.userorder.service.dto.UserDTO;
+import com.userorder.service.event.EntityChangedEvent;
+import com.userorder.service.event.EntityChangedEvent.ChangeType;
+import com.userorder.service.utils.UserRecordValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of UserBulkLoadService.
+ * <p>
+ * The input is parsed and validated line by line; valid records get their IDs from user_seq, address_seq and
+ * contact_seq in pooled-lo blocks (like PooledSequenceIdGenerator) and are handed to the engine in chunks.
+ * On PostgreSQL the engine streams the chunks with COPY into staging tables and merges them with set-based
+ * SQL at the end, elsewhere (H2) it falls back to JDBC batch inserts. Everything runs in one transaction on
+ * the connection of the current JPA transaction, bypassing the persistence context.
+ */
+@Slf4j
+@Service
+public class UserBulkLoadServiceImpl implements UserBulkLoadService {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private final ObjectReader userReader;
+    private final UserRecordValidator userRecordValidator;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditorAware<String> auditorProvider;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${user-service.bulk-load.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${user-service.bulk-load.max-reported-rejections:100}")
+    private int maxReportedRejections;
+
+    @Value("${user-service.jdbc.id-allocation-size:50}")
+    private int idAllocationSize;
+
+    public UserBulkLoadServiceImpl(ObjectMapper objectMapper,
+                                   UserRecordValidator userRecordValidator,
+                                   DataSource dataSource,
+                                   TransactionTemplate transactionTemplate,
+                                   AuditorAware<String> auditorProvider,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.userReader = objectMapper.readerFor(UserDTO.class);
+        this.userRecordValidator = userRecordValidator;
+        this.dataSource = dataSource;
+        this.transactionTemplate = transactionTemplate;
+        this.auditorProvider = auditorProvider;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public BulkLoadReport load(InputStream ndjson) throws IOException {
+        long start = System.nanoTime();
+        BulkLoadReport report;
+        try {
+            report = transactionTemplate.execute(status -> {
+                Connection connection = DataSourceUtils.getConnection(dataSource);
+                try {
+                    return load(connection, ndjson);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Bulk load failed: " + e.getMessage(), e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    DataSourceUtils.releaseConnection(connection, dataSource);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Bulk load with {} finished in {} ms: {} received, {} rejected, {} users, {} addresses, "
+                        + "{} contacts, {} duplicate contacts skipped", report.getEngine(), report.getElapsedMillis(),
+                report.getReceived(), report.getRejected(), report.getUsers(), report.getAddresses(),
+                report.getContacts(), report.getDuplicateContacts());
+        return report;
+    }
+
+    private BulkLoadReport load(Connection connection, InputStream ndjson) throws SQLException, IOException {
+        BulkLoadEngine engine = POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName())
+                ? new CopyBulkLoadEngine()
+                : new JdbcBulkLoadEngine();
+        BulkLoadReport report = BulkLoadReport.builder().engine(engine.name()).build();
+
+        ChunkBuilder chunk = new ChunkBuilder(connection);
+        engine.begin(connection);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        long line = 0;
+        String json;
+        while ((json = reader.readLine()) != null) {
+            line++;
+            if (json.isBlank()) {
+                continue;
+            }
+            report.setReceived(report.getReceived() + 1);
+
+            UserDTO user;
+            Map<String, String> errors;
+            try {
+                user = userReader.readValue(json);
+                errors = userRecordValidator.validate(user);
+            } catch (JsonProcessingException e) {
+                reject(report, line, Map.of("record", "Malformed JSON: " + e.getOriginalMessage()));
+                continue;
+            } catch (RuntimeException e) {
+                // A record nobody anticipated must not end the load of the records after it
+                reject(report, line, Map.of("record", "Invalid record: " + e.getMessage()));
+                continue;
+            }
+            if (!errors.isEmpty()) {
+                reject(report, line, errors);
+                continue;
+            }
+
+            chunk.add(user);
+            if (chunk.size() >= chunkSize) {
+                engine.write(connection, chunk.build());
+            }
+        }
+        if (chunk.size() > 0) {
+            engine.write(connection, chunk.build());
+        }
+
+        BulkLoadCounts counts = engine.finish(connection);
+        report.setUsers(counts.users());
+        report.setAddresses(counts.addresses());
+        report.setContacts(counts.contacts());
+        report.setDuplicateContacts(counts.duplicateContacts());
+
+        if (counts.users() > 0) {
+            // One event for the whole load without listing its users: indexes and guards rebuild in the background
+            eventPublisher.publishEvent(new EntityChangedEvent(User.class, null, ChangeType.CREATED, Set.of()));
+        }
+        return report;
+    }
+
+    private void reject(BulkLoadReport report, long line, Map<String, String> errors) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getRejections().size() < maxReportedRejections) {
+            report.getRejections().add(BulkImportRecord.builder()
+                    .line(line)
+                    .status(BulkImportRecord.Status.INVALID)
+                    .errors(errors)
+                    .build());
+        }
+    }
+
+    /**
+     * Flattens users into rows of one chunk and assigns their IDs
+     */
+    private final class ChunkBuilder {
+
+        private final Connection connection;
+        private final SequenceIdAllocator userIds = new SequenceIdAllocator("user_seq", idAllocationSize);
+        private final SequenceIdAllocator addressIds = new SequenceIdAllocator("address_seq", idAllocationSize);
+        private final SequenceIdAllocator contactIds = new SequenceIdAllocator("contact_seq", idAllocationSize);
+        private final String auditor = auditorProvider.getCurrentAuditor().orElse(null);
+
+        private List<StagedUser> users = new ArrayList<>();
+        private List<StagedAddress> addresses = new ArrayList<>();
+        private List<StagedContact> contacts = new ArrayList<>();
+
+        private ChunkBuilder(Connection connection) {
+            this.connection = connection;
+        }
+
+        private void add(UserDTO user) throws SQLException {
+            long userId = userIds.nextId(connection);
+            users.add(new StagedUser(userId, user.getPassword(), user.getFirstName(), user.getLastName(),
+                    user.getBirthDay()));
+
+            for (AddressDTO address : user.getAddresses()) {
+                addresses.add(new StagedAddress(addressIds.nextId(connection), userId, address.getType().name(),
+                        address.getStreet(), address.getPostZipCode(), address.getProvince(), address.getCity(),
+                        address.getCountry()));
+            }
+            for (ContactDTO contact : user.getContacts()) {
+                contacts.add(new StagedContact(contactIds.nextId(connection), userId,
+                        contact.getContactType().name(), contact.getPhoneNumber(), contact.getEmail(),
+                        Contact.emailDomainOf(contact.getEmail())));
+            }
+        }
+
+        private int size() {
+            return users.size();
+        }
+
+        private BulkLoadChunk build() {
+            // UTC, like the audit columns Hibernate writes with hibernate.jdbc.time_zone=UTC
+            BulkLoadChunk chunk = new BulkLoadChunk(users, addresses, contacts, LocalDateTime.now(ZoneOffset.UTC), auditor);
+            users = new ArrayList<>();
+            addresses = new ArrayList<>();
+            contacts = new ArrayList<>();
+            return chunk;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.userorder.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.userorder.persistence.model.Address;
+import com.userorder.persistence.model.User;
+import com.userorder.service.AddressService;
+import com.userorder.service.dto.AddressDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cached {@link AddressService}; entries are tagged with the address and its owning user,
+ * since the DTO may embed the user through attributes
+ */
+public class CachingAddressService extends CachingBaseService<AddressDTO, AddressService> implements AddressService {
+
+    public CachingAddressService(AddressService delegate,
+                                 DtoCacheStore cacheStore,
+                                 ObjectMapper objectMapper,
+                                 Duration ttl,
+                                 MeterRegistry meterRegistry) {
+        super(delegate, Address.class, AddressDTO.class, cacheStore, objectMapper, ttl, meterRegistry);
+    }
+
+    @Override
+    protected List<String> tagsOf(Long id, AddressDTO dto) {
+        List<String> tags = new ArrayList<>(2);
+        tags.add(DtoCacheKeys.entityTag(Address.class, id));
+        if (dto != null && dto.getUserId() != null) {
+            tags.add(DtoCacheKeys.entityTag(User.class, dto.getUserId()));
+        }
+        return tags;
+    }
+
+    @Override
+    public Optional<Address> findEntityById(Long id) {
+        return delegate.findEntityById(id);
+    }
+
+    @Override
+    public AddressDTO save(AddressDTO addressDTO) {
+        return delegate.save(addressDTO);
+    }
+
+    @Override
+    public AddressDTO update(Long id, AddressDTO addressDTO) {
+        return delegate.update(id, addressDTO);
+    }
+
+    @Override
+    public List<AddressDTO> findByUserId(Long userId, boolean withAudit) {
+        return delegate.findByUserId(userId, withAudit);
+    }
+}
@@ -0,0 +1,158 @@
+package com.userorder.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.userorder.config.datasource.ReadYourWritesHolder;
+import com.userorder.persistence.repository.KeysetOrder;
+import com.userorder.service.BaseService;
+import com.userorder.service.dto.BatchResult;
+import com.userorder.service.dto.CursorPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of a {@link BaseService}: {@link #findById(Long, boolean, Set)} is served from
+ * serialized DTOs in the {@link DtoCacheStore}, keyed by ID, canonical attribute set and withAudit. All other
+ * operations go straight to the delegate; eviction happens in {@link DtoCacheInvalidator} when the change
+ * is committed.
+ * <p>
+ * Listings are not cached: an unpaged findAll would be one entry holding every entity, evicted by every write
+ * to any of them, so it would mostly cost serialization and store memory without ever being hit.
+ * <p>
+ * The cache never fails a request: store or (de)serialization errors are logged and the delegate answers.
+ * Misses are loaded from the primary even when read-only transactions go to replicas: a replica that has not
+ * replayed a commit yet would otherwise put the state before the commit back right after its eviction, for the
+ * whole TTL. A read racing with a write on the primary may still cache the old state; the TTL bounds that window.
+ *
+ * @param <D> The DTO type
+ * @param <S> The wrapped service type
+ */
+@Slf4j
+public abstract class CachingBaseService<D, S extends BaseService<D>> implements BaseService<D> {
+
+    protected final S delegate;
+
+    private final Class<?> entityClass;
+    private final DtoCacheStore cacheStore;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final JavaType dtoType;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter errors;
+
+    protected CachingBaseService(S delegate,
+                                 Class<?> entityClass,
+                                 Class<D> dtoClass,
+                                 DtoCacheStore cacheStore,
+                                 ObjectMapper objectMapper,
+                                 Duration ttl,
+                                 MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.entityClass = entityClass;
+        this.cacheStore = cacheStore;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.dtoType = objectMapper.constructType(dtoClass);
+
+        String entity = entityClass.getSimpleName().toLowerCase();
+        this.hits = meterRegistry.counter("dto.cache.requests", "entity", entity, "result", "hit");
+        this.misses = meterRegistry.counter("dto.cache.requests", "entity", entity, "result", "miss");
+        this.errors = meterRegistry.counter("dto.cache.requests", "entity", entity, "result", "error");
+    }
+
+    /**
+     * Tags of a cached single-entity entry: the entity itself and every entity whose change alters the DTO
+     */
+    protected abstract List<String> tagsOf(Long id, D dto);
+
+    @Override
+    public D findById(Long id, boolean withAudit, Set<String> attributes) {
+        return readThrough(DtoCacheKeys.byId(entityClass, id, withAudit, attributes), dtoType,
+                dto -> tagsOf(id, dto), () -> delegate.findById(id, withAudit, attributes));
+    }
+
+    @Override
+    public List<D> findAll(boolean withAudit, Set<String> attributes) {
+        return delegate.findAll(withAudit, attributes);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        delegate.deleteById(id);
+    }
+
+    @Override
+    public String getETag(Long id, boolean withAudit, Set<String> attributes) {
+        return delegate.getETag(id, withAudit, attributes);
+    }
+
+    @Override
+    public BatchResult<D> findAllByIds(List<Long> ids, boolean withAudit, Set<String> attributes) {
+        return delegate.findAllByIds(ids, withAudit, attributes);
+    }
+
+    @Override
+    public Page<D> findPage(boolean withAudit, Set<String> attributes, Pageable pageable) {
+        return delegate.findPage(withAudit, attributes, pageable);
+    }
+
+    @Override
+    public CursorPage<D> findAfter(String cursor, int size, KeysetOrder order, boolean withAudit, Set<String> attributes) {
+        return delegate.findAfter(cursor, size, order, withAudit, attributes);
+    }
+
+    @Override
+    public long streamAll(boolean withAudit, Set<String> attributes, Consumer<D> consumer) {
+        return delegate.streamAll(withAudit, attributes, consumer);
+    }
+
+    private <R> R readThrough(String key, JavaType type, Function<R, List<String>> tags, Supplier<R> loader) {
+        Optional<R> cached = read(key, type);
+        if (cached.isPresent()) {
+            hits.increment();
+            return cached.get();
+        }
+
+        misses.increment();
+        R value = ReadYourWritesHolder.onPrimary(loader);
+        write(key, tags.apply(value), value);
+        return value;
+    }
+
+    private <R> Optional<R> read(String key, JavaType type) {
+        try {
+            Optional<String> payload = cacheStore.get(key);
+            if (payload.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(objectMapper.readValue(payload.get(), type));
+        } catch (JsonProcessingException | RuntimeException e) {
+            errors.increment();
+            log.warn("Ignoring DTO cache entry {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void write(String key, List<String> tags, Object value) {
+        try {
+            cacheStore.put(key, objectMapper.writeValueAsString(value), ttl, tags);
+        } catch (JsonProcessingException | RuntimeException e) {
+            errors.increment();
+            log.warn("Could not cache DTO entry {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.userorder.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.userorder.persistence.model.Contact;
+import com.userorder.persistence.model.User;
+import com.userorder.service.ContactService;
+import com.userorder.service.dto.ContactDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cached {@link ContactService}; entries are tagged with the contact and its owning user,
+ * since the DTO may embed the user through attributes
+ */
+public class CachingContactService extends CachingBaseService<ContactDTO, ContactService> implements ContactService {
+
+    public CachingContactService(ContactService delegate,
+                                 DtoCacheStore cacheStore,
+                                 ObjectMapper objectMapper,
+                                 Duration ttl,
+                                 MeterRegistry meterRegistry) {
+        super(delegate, Contact.class, ContactDTO.class, cacheStore, objectMapper, ttl, meterRegistry);
+    }
+
+    @Override
+    protected List<String> tagsOf(Long id, ContactDTO dto) {
+        List<String> tags = new ArrayList<>(2);
+        tags.add(DtoCacheKeys.entityTag(Contact.class, id));
+        if (dto != null && dto.getUserId() != null) {
+            tags.add(DtoCacheKeys.entityTag(User.class, dto.getUserId()));
+        }
+        return tags;
+    }
+
+    @Override
+    public Optional<Contact> findEntityById(Long id) {
+        return delegate.findEntityById(id);
+    }
+
+    @Override
+    public ContactDTO save(ContactDTO contactDTO) {
+        return delegate.save(contactDTO);
+    }
+
+    @Override
+    public ContactDTO update(Long id, ContactDTO contactDTO) {
+        return delegate.update(id, contactDTO);
+    }
+
+    @Override
+    public List<ContactDTO> findByUserId(Long userId, boolean withAudit) {
+        return delegate.findByUserId(userId, withAudit);
+    }
+}
@@ -0,0 +1,88 @@
+package com.userorder.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.userorder.persistence.model.User;
+import com.userorder.persistence.repository.KeysetOrder;
+import com.userorder.service.UserService;
+import com.userorder.service.dto.CursorPage;
+import com.userorder.service.dto.UserDTO;
+import com.userorder.service.dto.UserSearchCriteria;
+import com.userorder.service.dto.UserSearchHit;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cached {@link UserService}; entries are tagged with the user, which is also evicted
+ * whenever one of its addresses or contacts changes
+ */
+public class CachingUserService extends CachingBaseService<UserDTO, UserService> implements UserService {
+
+    public CachingUserService(UserService delegate,
+                              DtoCacheStore cacheStore,
+                              ObjectMapper objectMapper,
+                              Duration ttl,
+                              MeterRegistry meterRegistry) {
+        super(delegate, User.class, UserDTO.class, cacheStore, objectMapper, ttl, meterRegistry);
+    }
+
+    @Override
+    protected List<String> tagsOf(Long id, UserDTO dto) {
+        return List.of(DtoCacheKeys.entityTag(User.class, id));
+    }
+
+    @Override
+    public Optional<User> findEntityById(Long id) {
+        return delegate.findEntityById(id);
+    }
+
+    @Override
+    public UserDTO save(UserDTO userDTO, Set<String> attributes) {
+        return delegate.save(userDTO, attributes);
+    }
+
+    @Override
+    public UserDTO update(Long id, UserDTO userDTO, Set<String> attributes) {
+        return delegate.update(id, userDTO, attributes);
+    }
+
+    @Override
+    public UserDTO findSummaryById(Long id, boolean withAudit) {
+        return delegate.findSummaryById(id, withAudit);
+    }
+
+    @Override
+    public String getSummaryETag(Long id, boolean withAudit) {
+        return delegate.getSummaryETag(id, withAudit);
+    }
+
+    @Override
+    public List<UserDTO> findAllSummaries(boolean withAudit) {
+        return delegate.findAllSummaries(withAudit);
+    }
+
+    @Override
+    public Page<UserDTO> findSummaryPage(boolean withAudit, Pageable pageable) {
+        return delegate.findSummaryPage(withAudit, pageable);
+    }
+
+    @Override
+    public CursorPage<UserDTO> findSummariesAfter(String cursor, int size, KeysetOrder order, boolean withAudit) {
+        return delegate.findSummariesAfter(cursor, size, order, withAudit);
+    }
+
+    @Override
+    public Page<UserDTO> search(UserSearchCriteria criteria, boolean withAudit, Set<String> attributes, Pageable pageable) {
+        return delegate.search(criteria, withAudit, attributes, pageable);
+    }
+
+    @Override
+    public List<UserSearchHit> fuzzySearch(String query, int limit, boolean withAudit, Set<String> attributes) {
+        return delegate.fuzzySearch(query, limit, withAudit, attributes);
+    }
+}
@@ -0,0 +1,34 @@
+package com.userorder.service.cache;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Value format of the shared Redis store: the tags in front of the payload ("tag tag\npayload").
+ * Every replica writes and reads this one format whether or not it runs a near cache, so replicas
+ * filling their L1 from Redis know which evictions apply to an entry written by any other replica.
+ */
+record DtoCacheEntry(String payload, Set<String> tags) {
+
+    static DtoCacheEntry of(String payload, Collection<String> tags) {
+        return new DtoCacheEntry(payload, Set.copyOf(tags));
+    }
+
+    boolean taggedWith(String tag) {
+        return tags.contains(tag);
+    }
+
+    String wrap() {
+        return String.join(" ", tags) + "\n" + payload;
+    }
+
+    static DtoCacheEntry unwrap(String value) {
+        int separator = value.indexOf('\n');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Cache entry without tag header");
+        }
+        String header = value.substring(0, separator);
+        Set<String> tags = header.isEmpty() ? Set.of() : Set.of(header.split(" "));
+        return new DtoCacheEntry(value.substring(separator + 1), tags);
+    }
+}
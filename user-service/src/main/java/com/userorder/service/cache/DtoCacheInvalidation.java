@@ -0,0 +1,24 @@
+package com.userorder.service.cache;
+
+/**
+ * Message broadcast to all replicas when a tag is evicted, so they drop their near cache entries.
+ * Encoded as "origin|sentAtMillis|tag"; tags never contain '|'.
+ *
+ * @param origin ID of the replica that evicted the tag (it already dropped its own entries)
+ * @param sentAt Epoch millis at which the message was sent, used to measure invalidation lag
+ * @param tag    Evicted tag
+ */
+public record DtoCacheInvalidation(String origin, long sentAt, String tag) {
+
+    public String encode() {
+        return origin + "|" + sentAt + "|" + tag;
+    }
+
+    public static DtoCacheInvalidation decode(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cache invalidation message: " + message);
+        }
+        return new DtoCacheInvalidation(parts[0], Long.parseLong(parts[1]), parts[2]);
+    }
+}
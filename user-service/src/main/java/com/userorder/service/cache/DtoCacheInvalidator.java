@@ -0,0 +1,40 @@
+package com.userorder.service.cache;
+
+import com.userorder.persistence.model.User;
+import com.userorder.service.event.EntityChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached DTOs once a change to a user, address or contact is committed.
+ * Evicting after commit keeps a concurrent reader from caching the pre-change state again
+ * between the eviction and the commit.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DtoCacheInvalidator {
+
+    private final DtoCacheStore cacheStore;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.entityType() == User.class && event.changeType() == EntityChangedEvent.ChangeType.CREATED) {
+            // Nothing can be cached for a user that did not exist, skips a round trip per user of an import chunk
+            return;
+        }
+        try {
+            if (event.entityId() != null) {
+                cacheStore.evictTag(DtoCacheKeys.entityTag(event.entityType(), event.entityId()));
+            }
+            // User entries embed their addresses and contacts, address/contact entries may embed their user
+            for (Long userId : event.userIds()) {
+                cacheStore.evictTag(DtoCacheKeys.entityTag(User.class, userId));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not evict cached DTOs of users {} after {} of {} {}: {}", event.userIds(),
+                    event.changeType(), event.entityType().getSimpleName(), event.entityId(), e.getMessage());
+        }
+    }
+}
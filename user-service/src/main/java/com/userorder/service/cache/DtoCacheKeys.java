@@ -0,0 +1,38 @@
+package com.userorder.service.cache;
+
+import com.userorder.persistence.utils.mapping.EntityGraphPlanCache;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Key and tag layout of the DTO cache. Attribute sets are canonicalized the same way as
+ * entity graph plans, so "contacts,addresses" and "addresses, contacts" share one entry.
+ */
+public final class DtoCacheKeys {
+
+    private static final String PREFIX = "user-service:dto:";
+
+    private DtoCacheKeys() {
+    }
+
+    public static String byId(Class<?> entityClass, Long id, boolean withAudit, Set<String> attributes) {
+        return PREFIX + name(entityClass) + ":id:" + id + ":" + variant(withAudit, attributes);
+    }
+
+    /**
+     * Tag of every entry built from the given entity; entries of addresses and contacts
+     * are tagged with their owning user as well
+     */
+    public static String entityTag(Class<?> entityClass, Long id) {
+        return PREFIX + "tag:" + name(entityClass) + ":" + id;
+    }
+
+    private static String name(Class<?> entityClass) {
+        return entityClass.getSimpleName().toLowerCase();
+    }
+
+    private static String variant(boolean withAudit, Collection<String> attributes) {
+        return (withAudit ? "audit" : "plain") + ":" + String.join(",", EntityGraphPlanCache.canonicalize(attributes));
+    }
+}
@@ -0,0 +1,25 @@
+package com.userorder.service.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Key/value store for serialized DTO payloads. Every entry is registered under one or more tags
+ * (e.g. "the user with ID 42"), so all entries that depend on something can be evicted at once
+ * without scanning the key space.
+ */
+public interface DtoCacheStore {
+
+    Optional<String> get(String key);
+
+    /**
+     * Stores the payload for the given time and registers the key under every tag
+     */
+    void put(String key, String payload, Duration ttl, Collection<String> tags);
+
+    /**
+     * Removes every entry registered under the tag, and the tag itself
+     */
+    void evictTag(String tag);
+}
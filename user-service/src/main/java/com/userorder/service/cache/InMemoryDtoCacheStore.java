@@ -0,0 +1,60 @@
+package com.userorder.service.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for {@link RedisDtoCacheStore} with the same semantics,
+ * for tests and local runs without Redis (user-service.dto-cache.store=memory)
+ */
+public class InMemoryDtoCacheStore implements DtoCacheStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> tags = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public InMemoryDtoCacheStore() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryDtoCacheStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAt() <= clock.millis()) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.payload());
+    }
+
+    @Override
+    public void put(String key, String payload, Duration ttl, Collection<String> tagNames) {
+        entries.put(key, new Entry(payload, clock.millis() + ttl.toMillis()));
+        for (String tag : tagNames) {
+            tags.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    @Override
+    public void evictTag(String tag) {
+        Set<String> keys = tags.remove(tag);
+        if (keys != null) {
+            keys.forEach(entries::remove);
+        }
+    }
+
+    private record Entry(String payload, long expiresAt) {
+    }
+}
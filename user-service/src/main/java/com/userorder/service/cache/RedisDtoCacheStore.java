@@ -0,0 +1,56 @@
+package com.userorder.service.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Redis backed store: payloads are string values with a TTL, stored with their tags in front
+ * (see {@link DtoCacheEntry}); tags are Redis sets holding the keys registered under them
+ */
+public class RedisDtoCacheStore implements DtoCacheStore {
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisDtoCacheStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        return getEntry(key).map(DtoCacheEntry::payload);
+    }
+
+    /**
+     * The entry with the tags it was registered under
+     */
+    Optional<DtoCacheEntry> getEntry(String key) {
+        return Optional.ofNullable(redisTemplate.opsForValue().get(key)).map(DtoCacheEntry::unwrap);
+    }
+
+    @Override
+    public void put(String key, String payload, Duration ttl, Collection<String> tags) {
+        redisTemplate.opsForValue().set(key, DtoCacheEntry.of(payload, tags).wrap(), ttl);
+        for (String tag : tags) {
+            redisTemplate.opsForSet().add(tag, key);
+            // The tag must outlive the newest key registered under it
+            redisTemplate.expire(tag, ttl);
+        }
+    }
+
+    @Override
+    public void evictTag(String tag) {
+        Set<String> keys = redisTemplate.opsForSet().members(tag);
+        List<String> toDelete = new ArrayList<>();
+        if (keys != null) {
+            toDelete.addAll(keys);
+        }
+        toDelete.add(tag);
+        redisTemplate.delete(toDelete);
+    }
+}
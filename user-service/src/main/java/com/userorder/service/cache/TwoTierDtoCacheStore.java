@@ -0,0 +1,119 @@
+package com.userorder.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Near cache: a bounded in-process L1 in front of the shared L2 store.
+ * <p>
+ * L1 is weighed by payload size and keeps the tags of every entry, as read from the L2 entry header. Evicting a tag drops it from L2 and
+ * from the local L1, then broadcasts a {@link DtoCacheInvalidation} over Redis pub/sub so every other
+ * replica drops its L1 entries as well ({@link #onInvalidation(String)}). The short L1 TTL bounds staleness
+ * should a message get lost.
+ */
+@Slf4j
+public class TwoTierDtoCacheStore implements DtoCacheStore {
+
+    private final RedisDtoCacheStore l2;
+    private final Cache<String, DtoCacheEntry> l1;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String instanceId;
+    private final Clock clock;
+
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Timer invalidationLag;
+
+    public TwoTierDtoCacheStore(RedisDtoCacheStore l2,
+                                StringRedisTemplate redisTemplate,
+                                String channel,
+                                String instanceId,
+                                long l1MaxWeight,
+                                Duration l1Ttl,
+                                MeterRegistry meterRegistry) {
+        this.l2 = l2;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.instanceId = instanceId;
+        this.clock = Clock.systemUTC();
+        this.l1 = Caffeine.newBuilder()
+                .maximumWeight(l1MaxWeight)
+                .weigher((String key, DtoCacheEntry entry) -> key.length() + entry.payload().length())
+                .expireAfterWrite(l1Ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, l1, "dto-cache-l1");
+        this.l2Hits = meterRegistry.counter("dto.cache.l2.requests", "result", "hit");
+        this.l2Misses = meterRegistry.counter("dto.cache.l2.requests", "result", "miss");
+        this.invalidationLag = Timer.builder("dto.cache.invalidation.lag")
+                .description("Time between a tag eviction on one replica and its near cache eviction on another")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        DtoCacheEntry near = l1.getIfPresent(key);
+        if (near != null) {
+            return Optional.of(near.payload());
+        }
+
+        Optional<DtoCacheEntry> shared = l2.getEntry(key);
+        if (shared.isEmpty()) {
+            l2Misses.increment();
+            return Optional.empty();
+        }
+        l2Hits.increment();
+        l1.put(key, shared.get());
+        return Optional.of(shared.get().payload());
+    }
+
+    @Override
+    public void put(String key, String payload, Duration ttl, Collection<String> tags) {
+        l2.put(key, payload, ttl, tags);
+        l1.put(key, DtoCacheEntry.of(payload, tags));
+    }
+
+    @Override
+    public void evictTag(String tag) {
+        l2.evictTag(tag);
+        evictLocal(tag);
+        redisTemplate.convertAndSend(channel, new DtoCacheInvalidation(instanceId, clock.millis(), tag).encode());
+    }
+
+    /**
+     * Handles an invalidation broadcast by any replica, including this one (ignored)
+     */
+    public void onInvalidation(String message) {
+        DtoCacheInvalidation invalidation;
+        try {
+            invalidation = DtoCacheInvalidation.decode(message);
+        } catch (IllegalArgumentException e) {
+            log.warn(e.getMessage());
+            return;
+        }
+        if (instanceId.equals(invalidation.origin())) {
+            return;
+        }
+        evictLocal(invalidation.tag());
+        invalidationLag.record(Duration.ofMillis(Math.max(0, clock.millis() - invalidation.sentAt())));
+    }
+
+    private void evictLocal(String tag) {
+        // L1 is small and bounded, a scan per eviction is cheaper than keeping a second index consistent
+        l1.asMap().entrySet().removeIf(entry -> entry.getValue().taggedWith(tag));
+    }
+}
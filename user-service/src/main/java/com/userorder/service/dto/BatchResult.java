@@ -0,0 +1,31 @@
+package com.userorder.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a multi-ID lookup
+ *
+ * @param <T> The DTO type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a batch lookup by IDs")
+public class BatchResult<T> {
+
+    @Schema(description = "Found items, in the order of the requested IDs (duplicates are returned once)")
+    @Builder.Default
+    private List<T> items = new ArrayList<>();
+
+    @Schema(description = "Requested IDs that do not exist, in request order")
+    @Builder.Default
+    private List<Long> missingIds = new ArrayList<>();
+}
@@ -0,0 +1,38 @@
+package com.userorder.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Outcome of one record of a bulk import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of one imported record")
+public class BulkImportRecord {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        FAILED
+    }
+
+    @Schema(description = "Line of the record in the request body, starting at 1")
+    private long line;
+
+    @Schema(description = "CREATED, INVALID (rejected before reaching the database) or FAILED (rejected by the database)")
+    private Status status;
+
+    @Schema(description = "ID of the created user")
+    private Long id;
+
+    @Schema(description = "Field errors of an invalid record, or the database error of a failed one under \"record\"")
+    private Map<String, String> errors;
+}
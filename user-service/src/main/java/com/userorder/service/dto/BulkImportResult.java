@@ -0,0 +1,44 @@
+package com.userorder.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a bulk import with the outcome of every record
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Summary of a bulk import")
+public class BulkImportResult {
+
+    @Schema(description = "Number of records read from the request body")
+    private long received;
+
+    @Schema(description = "Number of users created")
+    private long created;
+
+    @Schema(description = "Number of records rejected by validation or by the database")
+    private long rejected;
+
+    @Schema(description = "Outcome of every record, in request order")
+    @Builder.Default
+    private List<BulkImportRecord> records = new ArrayList<>();
+
+    public void add(BulkImportRecord record) {
+        records.add(record);
+        received++;
+        if (record.getStatus() == BulkImportRecord.Status.CREATED) {
+            created++;
+        } else {
+            rejected++;
+        }
+    }
+}
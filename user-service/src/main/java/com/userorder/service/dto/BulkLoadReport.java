@@ -0,0 +1,49 @@
+package com.userorder.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a bulk load through the database's native load path
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Summary of a bulk load")
+public class BulkLoadReport {
+
+    @Schema(description = "Load engine used: postgresql-copy or jdbc-batch")
+    private String engine;
+
+    @Schema(description = "Number of records read from the input")
+    private long received;
+
+    @Schema(description = "Number of records rejected by validation, none of their rows were loaded")
+    private long rejected;
+
+    @Schema(description = "Number of users inserted")
+    private long users;
+
+    @Schema(description = "Number of addresses inserted")
+    private long addresses;
+
+    @Schema(description = "Number of contacts inserted")
+    private long contacts;
+
+    @Schema(description = "Number of contacts skipped because their email or phone number already existed")
+    private long duplicateContacts;
+
+    @Schema(description = "Duration of the load in milliseconds")
+    private long elapsedMillis;
+
+    @Schema(description = "Rejected records in input order, capped at user-service.bulk-load.max-reported-rejections")
+    @Builder.Default
+    private List<BulkImportRecord> rejections = new ArrayList<>();
+}
@@ -31,7 +31,7 @@ public class ContactDTO extends BaseDTO {
     private String phoneNumber;
     
     @Email(message = "Email must be valid")
-    @Size(max = 100, message = "Email cannot exceed 100 characters")
+    @Size(max = 50, message = "Email cannot exceed 50 characters")
     @Schema(description = "Email address")
     private String email;
     
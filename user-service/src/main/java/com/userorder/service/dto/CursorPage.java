@@ -0,0 +1,34 @@
+package com.userorder.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a cursor (keyset) listing
+ *
+ * @param <T> The DTO type
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Page of a cursor-based listing")
+public class CursorPage<T> {
+
+    @Schema(description = "Items of this page")
+    private List<T> content;
+
+    @Schema(description = "Number of items in this page")
+    private int size;
+
+    @Schema(description = "Whether another page follows")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque token to pass as 'cursor' for the next page, absent on the last page")
+    private String nextCursor;
+}
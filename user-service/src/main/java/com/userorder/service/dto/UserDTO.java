@@ -1,6 +1,8 @@
 package com.userorder.service.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
 import com.userorder.service.dto.base.BaseDTO;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
@@ -59,10 +61,12 @@ public class UserDTO extends BaseDTO {
     @Builder.Default
     private Set<Long> roleIds = new HashSet<>();
     
-    // Full collections with nested DTOs (used for COMPLETE level)
+    // Full collections with nested DTOs (used for COMPLETE level), null in a request body means none
     @Builder.Default
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
     private Set<AddressDTO> addresses = new HashSet<>();
     @Builder.Default
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
     private Set<ContactDTO> contacts = new HashSet<>();
 
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.userorder.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filters of the user search; all given filters must match, absent ones are ignored
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "User search filters")
+public class UserSearchCriteria {
+
+    @Schema(description = "Case-insensitive prefix of the first or the last name", example = "smi")
+    private String name;
+
+    @Schema(description = "Earliest birth date, inclusive", example = "1980-01-01")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate bornFrom;
+
+    @Schema(description = "Latest birth date, inclusive", example = "1989-12-31")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate bornTo;
+
+    @Schema(description = "City of any of the user's addresses, exact match", example = "Chicago")
+    private String city;
+
+    @Schema(description = "Country of any of the user's addresses, exact match", example = "USA")
+    private String country;
+
+    @Schema(description = "Domain of any of the user's contact emails, case-insensitive", example = "example.com")
+    private String emailDomain;
+}
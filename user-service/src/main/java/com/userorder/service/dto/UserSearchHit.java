@@ -0,0 +1,24 @@
+package com.userorder.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * User found by fuzzy search together with its relevance
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "User found by fuzzy search")
+public class UserSearchHit {
+
+    @Schema(description = "Relevance between 0 and 1, trigram similarity of the best matching name, street or city")
+    private double score;
+
+    @Schema(description = "Matching user")
+    private UserDTO user;
+}
@@ -0,0 +1,27 @@
+package com.userorder.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Autocomplete entry for a user
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Autocomplete entry for a user")
+public class UserSuggestion {
+
+    @Schema(description = "ID of the user")
+    private Long id;
+
+    @Schema(description = "First and last name of the user", example = "John Smith")
+    private String label;
+
+    @Schema(description = "Normalized name or email that matched the prefix", example = "john smith")
+    private String matched;
+}
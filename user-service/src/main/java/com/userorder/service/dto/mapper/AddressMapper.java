@@ -2,6 +2,7 @@ package com.userorder.service.dto.mapper;
 
 
 import com.userorder.persistence.model.Address;
+import com.userorder.persistence.repository.projection.AddressRow;
 import com.userorder.service.dto.AddressDTO;
 import org.mapstruct.*;
 
@@ -51,6 +52,25 @@ public interface AddressMapper extends EntityMapper<Address, AddressDTO> {
         }
     }
 
+    /**
+     * Maps a scalar projection row, the user is referenced by its foreign key only
+     */
+    @Named("fromRow")
+    AddressDTO fromRow(AddressRow row, @Context MappingOptions options);
+
+    /**
+     * Clears audit fields of a projected address unless requested
+     */
+    @AfterMapping
+    default void processRowFields(@MappingTarget AddressDTO dto, AddressRow row, @Context MappingOptions options) {
+        if (!options.includeAudit()) {
+            dto.setCreatedDate(null);
+            dto.setModifiedDate(null);
+            dto.setCreatedBy(null);
+            dto.setModifiedBy(null);
+        }
+    }
+
     /**
      * Simplified DTO with minimal fields for list views
      */
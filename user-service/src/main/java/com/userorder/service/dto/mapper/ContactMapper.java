@@ -2,6 +2,7 @@ package com.userorder.service.dto.mapper;
 
 
 import com.userorder.persistence.model.Contact;
+import com.userorder.persistence.repository.projection.ContactRow;
 import com.userorder.service.dto.ContactDTO;
 import org.mapstruct.*;
 
@@ -51,6 +52,25 @@ public interface ContactMapper extends EntityMapper<Contact, ContactDTO> {
         }
     }
 
+    /**
+     * Maps a scalar projection row, the user is referenced by its foreign key only
+     */
+    @Named("fromRow")
+    ContactDTO fromRow(ContactRow row, @Context MappingOptions options);
+
+    /**
+     * Clears audit fields of a projected contact unless requested
+     */
+    @AfterMapping
+    default void processRowFields(@MappingTarget ContactDTO dto, ContactRow row, @Context MappingOptions options) {
+        if (!options.includeAudit()) {
+            dto.setCreatedDate(null);
+            dto.setModifiedDate(null);
+            dto.setCreatedBy(null);
+            dto.setModifiedBy(null);
+        }
+    }
+
     /**
      * Simplified DTO with minimal fields for list views
      */
@@ -7,7 +7,6 @@ import com.userorder.persistence.model.User;
 import com.userorder.persistence.model.base.PersistenceModel;
 import org.mapstruct.Named;
 
-import java.lang.reflect.Field;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -75,42 +74,4 @@ public class MapperUtils {
     public static boolean isNotEmpty(Collection<?> collection) {
         return collection != null && !collection.isEmpty();
     }
-
-
-    /**
-     * Checks if a field in a class is of collection type
-     * This is a more robust approach than string-based heuristics
-     */
-    @Named("isFieldCollection")
-    public static boolean isFieldCollection(Class<?> clazz, String fieldName) {
-        try {
-            Field field = getFieldRecursively(clazz, fieldName);
-            if (field == null) {
-                return false;
-            }
-            
-            return Collection.class.isAssignableFrom(field.getType()) ||
-                   Map.class.isAssignableFrom(field.getType()) ||
-                   field.getType().isArray();
-        } catch (Exception e) {
-            // If we can't determine, fall back to naming convention
-            return false;
-        }
-    }
-    
-    /**
-     * Gets a field from a class or its superclasses
-     */
-    private static Field getFieldRecursively(Class<?> clazz, String fieldName) {
-        if (clazz == null || clazz == Object.class) {
-            return null;
-        }
-        
-        try {
-            return clazz.getDeclaredField(fieldName);
-        } catch (NoSuchFieldException e) {
-            // If not found, try the superclass
-            return getFieldRecursively(clazz.getSuperclass(), fieldName);
-        }
-    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.userorder.service.dto.mapper;
 
+import com.userorder.persistence.utils.mapping.AttributeKind;
+import com.userorder.persistence.utils.mapping.EntityAttributeRegistry;
 import lombok.Builder;
 import lombok.Data;
 
@@ -17,6 +19,9 @@ public class MappingOptions {
     // Optional reference to the entity class type for more accurate collection detection
     private Class<?> entityClass;
 
+    // Startup-built attribute metamodel used to look up collection attributes of entityClass
+    private EntityAttributeRegistry attributeRegistry;
+
     /**
      * Check if a field is included in the mapping
      * When attributes is null/empty, only include basic fields, not collections
@@ -62,18 +67,19 @@ public class MappingOptions {
     }
     
     /**
-     * Check if a field is a collection, using reflection when possible
-     * Falls back to naming patterns if reflection isn't available
+     * Check if a field is a collection, using the attribute registry when possible
+     * Falls back to naming patterns if the field is not an entity attribute
      */
     private boolean isCollectionField(String field) {
-        // First, try using reflection if entity class is available
-        if (entityClass != null) {
-            if (MapperUtils.isFieldCollection(entityClass, field)) {
-                return true;
+        // First, ask the attribute metamodel if entity class is available
+        if (entityClass != null && attributeRegistry != null) {
+            AttributeKind kind = attributeRegistry.getKind(entityClass, field).orElse(null);
+            if (kind != null) {
+                return kind == AttributeKind.COLLECTION;
             }
         }
         
-        // If reflection fails or entity class is not available, 
+        // If the field is unknown or entity class is not available,
         // fall back to naming patterns
         
         // Check common collection type suffixes
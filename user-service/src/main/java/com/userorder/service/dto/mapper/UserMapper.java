@@ -2,10 +2,12 @@ package com.userorder.service.dto.mapper;
 
 
 import com.userorder.persistence.model.User;
+import com.userorder.persistence.repository.projection.UserRow;
 import com.userorder.service.dto.UserDTO;
 import org.mapstruct.*;
 
 import java.util.Collections;
+import java.util.Set;
 
 /**
  * MapStruct-based mapper for User entity
@@ -86,6 +88,45 @@ public interface UserMapper extends EntityMapper<User, UserDTO> {
 
     }
 
+    /**
+     * Maps a scalar projection row; collections, IDs and counts are not part of a flat read
+     */
+    @Named("fromRow")
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "addresses", ignore = true)
+    @Mapping(target = "contacts", ignore = true)
+    @Mapping(target = "addressIds", ignore = true)
+    @Mapping(target = "contactIds", ignore = true)
+    @Mapping(target = "roleIds", ignore = true)
+    @Mapping(target = "addressCount", constant = "0")
+    @Mapping(target = "contactCount", constant = "0")
+    @Mapping(target = "roleCount", ignore = true)
+    UserDTO fromRow(UserRow row, @Context MappingOptions options);
+
+    /**
+     * Clears audit fields of a projected user unless requested
+     */
+    @AfterMapping
+    default void processRowFields(@MappingTarget UserDTO dto, UserRow row, @Context MappingOptions options) {
+        if (!options.includeAudit()) {
+            dto.setCreatedDate(null);
+            dto.setModifiedDate(null);
+            dto.setCreatedBy(null);
+            dto.setModifiedBy(null);
+        }
+    }
+
+    /**
+     * Fills the summary fields (child IDs and counts) from IDs fetched by the service,
+     * so that the user's collections never have to be initialized
+     */
+    default void applySummary(UserDTO dto, Set<Long> addressIds, Set<Long> contactIds) {
+        dto.setAddressIds(addressIds);
+        dto.setAddressCount(addressIds.size());
+        dto.setContactIds(contactIds);
+        dto.setContactCount(contactIds.size());
+    }
+
     @Override
     @Named("toEntity")
     @Mapping(target = "addresses", ignore = true)
@@ -0,0 +1,56 @@
+package com.userorder.service.event;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the full rebuild of derived state (indexes, guards) on its own thread, so that the after-commit
+ * phase of the request that triggered it does not wait for a read of whole tables.
+ * <p>
+ * Requests are coalesced: while a rebuild is queued, further requests are covered by it; a request that
+ * arrives while a rebuild runs queues exactly one more, since the running one may have read too early.
+ */
+@Slf4j
+public class BackgroundRebuild implements AutoCloseable {
+
+    private final String name;
+    private final Runnable rebuild;
+    private final ExecutorService executor;
+    private final AtomicBoolean queued = new AtomicBoolean();
+
+    public BackgroundRebuild(String name, Runnable rebuild) {
+        this.name = name;
+        this.rebuild = rebuild;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a rebuild unless one is queued already
+     */
+    public void request() {
+        if (queued.compareAndSet(false, true)) {
+            executor.execute(this::run);
+        }
+    }
+
+    private void run() {
+        queued.set(false);
+        try {
+            rebuild.run();
+        } catch (RuntimeException e) {
+            log.warn("Rebuild of {} failed, it stays as it was: {}", name, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,31 @@
+package com.userorder.service.event;
+
+import java.util.Set;
+
+/**
+ * Published by the services whenever an entity is created, updated or deleted.
+ * Listeners that keep derived state (DTO caches, search indexes) react to it,
+ * usually after the surrounding transaction committed.
+ *
+ * @param entityType Changed entity class
+ * @param entityId   ID of the changed entity, null for bulk changes that touch many entities at once
+ * @param changeType What happened to the entity
+ * @param userIds    Users whose representation is affected: the user itself, or the owner(s) of an address/contact
+ *                   (both the old and the new owner when it was reassigned); for a bulk change all of its users,
+ *                   or empty when they are too many to list
+ */
+public record EntityChangedEvent(Class<?> entityType, Long entityId, ChangeType changeType, Set<Long> userIds) {
+
+    /**
+     * A bulk change that does not list its users: derived state has to be rebuilt instead of updated per user
+     */
+    public boolean affectsUnlistedUsers() {
+        return entityId == null && userIds.isEmpty();
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -4,22 +4,40 @@ import com.cosium.spring.data.jpa.entity.graph.domain2.DynamicEntityGraph;
 import com.cosium.spring.data.jpa.entity.graph.domain2.EntityGraph;
 import com.userorder.persistence.model.base.PersistenceModel;
 import com.userorder.persistence.repository.BaseCustomJpaRepository;
+import com.userorder.persistence.repository.KeysetCursor;
+import com.userorder.persistence.repository.KeysetOrder;
+import com.userorder.persistence.repository.KeysetSlice;
+import com.userorder.persistence.repository.projection.EntityVersion;
+import com.userorder.persistence.utils.mapping.EntityAttributeRegistry;
+import com.userorder.persistence.utils.mapping.EntityGraphPlanCache;
 import com.userorder.service.BaseService;
+import com.userorder.service.dto.BatchResult;
+import com.userorder.service.dto.CursorPage;
 import com.userorder.service.dto.mapper.EntityMapper;
 import com.userorder.service.dto.mapper.MappingOptions;
+import com.userorder.service.event.EntityChangedEvent;
 import com.userorder.service.utils.mapping.GraphBuilderMapperService;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.persistence.ManyToMany;
-import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToMany;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Abstract base service implementation that provides common CRUD operations with flexible mapping
@@ -41,12 +59,52 @@ public abstract class AbstractBaseService<
     protected final M mapper;
     protected final GraphBuilderMapperService graphBuilderService;
     protected final Class<E> entityClass;
+    protected final EntityAttributeRegistry attributeRegistry;
+
+    /**
+     * JDBC fetch size of the cursor used by {@link #streamAll}
+     */
+    @Value("${user-service.stream.fetch-size:1000}")
+    protected int streamFetchSize;
+
+    /**
+     * Number of entities hydrated, mapped and detached at once by {@link #streamAll}
+     */
+    @Value("${user-service.stream.chunk-size:200}")
+    protected int streamChunkSize;
+
+    /**
+     * Serve reads without attributes from scalar projections instead of managed entities.
+     * Switch off to compare against the entity path.
+     */
+    @Value("${user-service.projection-reads.enabled:true}")
+    protected boolean projectionReadsEnabled;
+
+    /**
+     * With the second-level cache on, single-entity reads go through the persistence context
+     * so they can be served from the cache instead of a projection query
+     */
+    @Value("${user-service.second-level-cache.enabled:false}")
+    protected boolean secondLevelCacheEnabled;
+
+    /**
+     * Maximum number of distinct IDs accepted by {@link #findAllByIds}
+     */
+    @Value("${user-service.batch.max-ids:1000}")
+    protected int batchMaxIds;
+
+    /**
+     * Publishes {@link EntityChangedEvent}s for listeners that keep derived state in sync
+     */
+    @Autowired
+    protected ApplicationEventPublisher eventPublisher;
 
     @SuppressWarnings("unchecked")
     protected AbstractBaseService(R repository, M mapper, GraphBuilderMapperService graphBuilderService) {
         this.repository = repository;
         this.mapper = mapper;
         this.graphBuilderService = graphBuilderService;
+        this.attributeRegistry = graphBuilderService.getAttributeRegistry();
 
         // Extract the entity class type using reflection
         this.entityClass = (Class<E>) ((ParameterizedType) getClass()
@@ -61,6 +119,12 @@ public abstract class AbstractBaseService<
     @Override
     @Transactional(readOnly = true)
     public D findById(Long id, boolean withAudit, Set<String> attributes) {
+        if (isFlatRead(attributes) && !secondLevelCacheEnabled) {
+            // Scalar columns only, straight into the DTO without a managed entity
+            return findFlatById(id, mappingOptions(withAudit, attributes))
+                    .orElseThrow(() -> new EntityNotFoundException("Entity not found with id: " + id));
+        }
+
         // Create an appropriate entity graph based on attributes
         EntityGraph graph;
         E entity;
@@ -73,11 +137,7 @@ public abstract class AbstractBaseService<
                     .orElseThrow(() -> new EntityNotFoundException("Entity not found with id: " + id));
         }
 
-        MappingOptions options = MappingOptions.builder()
-                .attributes(attributes)
-                .withAudit(withAudit)
-                .entityClass(entityClass)
-                .build();
+        MappingOptions options = mappingOptions(withAudit, attributes);
 
         return mapper.toDtoWithOptions(entity, options);
     }
@@ -98,14 +158,10 @@ public abstract class AbstractBaseService<
     protected EntityGraph createSummaryLevelGraph() {
         DynamicEntityGraph.Builder builder = DynamicEntityGraph.fetching();
         
-        // Analyze the entity class and add paths for all @OneToMany and @ManyToMany relations
+        // Add paths for all association attributes known to the attribute registry
         // This ensures we can get IDs and counts without additional queries
-        for (Field field : entityClass.getDeclaredFields()) {
-            if (field.isAnnotationPresent(OneToMany.class) || 
-                field.isAnnotationPresent(ManyToMany.class) ||
-                field.isAnnotationPresent(ManyToOne.class)) {
-                builder.addPath(field.getName());
-            }
+        for (String association : attributeRegistry.getAssociationNames(entityClass)) {
+            builder.addPath(association);
         }
         
         return builder.build();
@@ -119,9 +175,50 @@ public abstract class AbstractBaseService<
         return graphBuilderService.getGraphWithAttributes(entityClass, attributeSet);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BatchResult<D> findAllByIds(List<Long> ids, boolean withAudit, Set<String> attributes) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        if (distinctIds.size() > batchMaxIds) {
+            throw new IllegalArgumentException("At most " + batchMaxIds + " distinct IDs can be requested at once, got " + distinctIds.size());
+        }
+        if (distinctIds.isEmpty()) {
+            return BatchResult.<D>builder().build();
+        }
+
+        // One graph-aware query per chunk of IDs, collections split into their own batched queries
+        Map<Long, E> byId = new HashMap<>(distinctIds.size() * 2);
+        for (E entity : repository.findAllByIdWithAttributes(distinctIds, attributes)) {
+            byId.put(entity.getId(), entity);
+        }
+
+        MappingOptions options = mappingOptions(withAudit, attributes);
+
+        List<D> items = new ArrayList<>(byId.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            E entity = byId.get(id);
+            if (entity != null) {
+                items.add(mapper.toDtoWithOptions(entity, options));
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return BatchResult.<D>builder()
+                .items(items)
+                .missingIds(missingIds)
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<D> findAll(boolean withAudit, Set<String> attributes) {
+        if (isFlatRead(attributes)) {
+            return findAllFlat(mappingOptions(withAudit, attributes));
+        }
+
         List<E> entities;
         
         if (attributes == null || attributes.isEmpty()) {
@@ -130,22 +227,131 @@ public abstract class AbstractBaseService<
             entities = new ArrayList<>();
             entitiesIterable.forEach(entities::add);
         } else {
-            // Generate targeted graph based on requested attributes
-            EntityGraph graph = createEntityGraph(attributes);
-            
-            // Fetch entities with graph
-            Iterable<E> entitiesIterable = repository.findAll(graph);
-            entities = new ArrayList<>();
-            entitiesIterable.forEach(entities::add);
+            // Fetch entities with a graph for the requested attributes;
+            // several collections are loaded with separate batched queries instead of one cartesian join
+            entities = repository.findAllWithAttributes(null, attributes);
         }
 
         // Map to DTOs with appropriate options
-        MappingOptions options = MappingOptions.builder()
+        MappingOptions options = mappingOptions(withAudit, attributes);
+
+        return mapper.toDtoListWithOptions(entities, options);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<D> findPage(boolean withAudit, Set<String> attributes, Pageable pageable) {
+        // IDs of the page are selected first, then hydrated with the requested attributes
+        Page<E> page = repository.findPageWithAttributes(null, pageable, attributes);
+
+        MappingOptions options = mappingOptions(withAudit, attributes);
+
+        return page.map(entity -> mapper.toDtoWithOptions(entity, options));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<D> findAfter(String cursor, int size, KeysetOrder order, boolean withAudit, Set<String> attributes) {
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        KeysetOrder effectiveOrder = after != null ? after.order() : order;
+
+        KeysetSlice<E> slice = repository.findKeysetWithAttributes(null, effectiveOrder, after, size, attributes);
+
+        MappingOptions options = mappingOptions(withAudit, attributes);
+
+        return CursorPage.<D>builder()
+                .content(mapper.toDtoListWithOptions(slice.content(), options))
+                .size(slice.content().size())
+                .hasNext(slice.hasNext())
+                .nextCursor(slice.hasNext() ? slice.nextCursor().encode() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamAll(boolean withAudit, Set<String> attributes, Consumer<D> consumer) {
+        MappingOptions options = mappingOptions(withAudit, attributes);
+
+        return repository.streamWithAttributes(null, attributes, streamFetchSize, streamChunkSize,
+                chunk -> chunk.forEach(entity -> consumer.accept(mapper.toDtoWithOptions(entity, options))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getETag(Long id, boolean withAudit, Set<String> attributes) {
+        return computeETag(id, withAudit, attributes, "attributes");
+    }
+
+    /**
+     * ETag of one representation of the entity: the version columns plus everything that selects the
+     * representation, so that different representations of the same version never share an ETag
+     *
+     * @param representation Name of the representation, e.g. "attributes" or "summary"
+     */
+    protected String computeETag(Long id, boolean withAudit, Set<String> attributes, String representation) {
+        EntityVersion version = findVersion(id)
+                .orElseThrow(() -> new EntityNotFoundException("Entity not found with id: " + id));
+        Set<String> canonicalAttributes = EntityGraphPlanCache.canonicalize(attributes);
+
+        StringBuilder source = new StringBuilder()
+                .append(entityClass.getSimpleName()).append(':').append(id)
+                .append(':').append(version.version())
+                .append(':').append(version.modifiedDate())
+                .append(':').append(withAudit)
+                .append(':').append(representation)
+                .append(':').append(String.join(",", canonicalAttributes));
+        // Attributes of addresses and contacts embed the owning user, whose version covers its whole aggregate
+        if (!canonicalAttributes.isEmpty() && version.ownerVersion() != null) {
+            source.append(':').append(version.ownerVersion());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * A read is flat when no attributes are requested, so the DTO needs nothing but the entity's own columns
+     */
+    protected boolean isFlatRead(Set<String> attributes) {
+        return projectionReadsEnabled && (attributes == null || attributes.isEmpty());
+    }
+
+    /**
+     * Loads one DTO from a scalar projection of the entity's own columns, bypassing the persistence context
+     */
+    protected abstract Optional<D> findFlatById(Long id, MappingOptions options);
+
+    /**
+     * Loads all DTOs from a scalar projection of the entity's own columns, bypassing the persistence context
+     */
+    protected abstract List<D> findAllFlat(MappingOptions options);
+
+    /**
+     * Reads the version columns of one entity without loading it
+     */
+    protected abstract Optional<EntityVersion> findVersion(Long id);
+
+    /**
+     * Announces a change of an entity of this service; null user IDs are dropped
+     */
+    protected void publishChange(Long entityId, EntityChangedEvent.ChangeType changeType, Long... userIds) {
+        Set<Long> affectedUsers = new HashSet<>();
+        for (Long userId : userIds) {
+            if (userId != null) {
+                affectedUsers.add(userId);
+            }
+        }
+        eventPublisher.publishEvent(new EntityChangedEvent(entityClass, entityId, changeType, Set.copyOf(affectedUsers)));
+    }
+
+    /**
+     * Mapping options for this service's entity, wired to the attribute registry
+     * for dynamic collection detection
+     */
+    protected MappingOptions mappingOptions(boolean withAudit, Set<String> attributes) {
+        return MappingOptions.builder()
                 .attributes(attributes)
                 .withAudit(withAudit)
-                .entityClass(entityClass) // Pass entity class for dynamic collection detection
+                .entityClass(entityClass)
+                .attributeRegistry(attributeRegistry)
                 .build();
-
-        return mapper.toDtoListWithOptions(entities, options);
     }
 }
\ No newline at end of file
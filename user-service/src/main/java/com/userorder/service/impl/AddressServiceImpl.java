@@ -5,10 +5,12 @@ import com.userorder.persistence.model.Address;
 import com.userorder.persistence.model.User;
 import com.userorder.persistence.repository.AddressRepository;
 import com.userorder.persistence.repository.UserRepository;
+import com.userorder.persistence.repository.projection.EntityVersion;
 import com.userorder.service.AddressService;
 import com.userorder.service.dto.AddressDTO;
 import com.userorder.service.dto.mapper.AddressMapper;
 import com.userorder.service.dto.mapper.MappingOptions;
+import com.userorder.service.event.EntityChangedEvent.ChangeType;
 import com.userorder.service.utils.mapping.GraphBuilderMapperService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of AddressService
@@ -47,9 +50,12 @@ public class AddressServiceImpl
         // Find the address to delete
         Address address = repository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Address not found with id: " + id));
+        Long userId = address.getUser() != null ? address.getUser().getId() : null;
+        touchOwner(address.getUser());
         address.removeUser();
         // Now safely delete the address
         repository.delete(address);
+        publishChange(id, ChangeType.DELETED, userId);
     }
 
     @Override
@@ -58,6 +64,23 @@ public class AddressServiceImpl
         return repository.findById(id);
     }
 
+    @Override
+    protected Optional<AddressDTO> findFlatById(Long id, MappingOptions options) {
+        return repository.findRowById(id).map(row -> mapper.fromRow(row, options));
+    }
+
+    @Override
+    protected List<AddressDTO> findAllFlat(MappingOptions options) {
+        return repository.findAllRows().stream()
+                .map(row -> mapper.fromRow(row, options))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Optional<EntityVersion> findVersion(Long id) {
+        return repository.findVersionById(id);
+    }
+
     @Override
     @Transactional
     public AddressDTO save(AddressDTO addressDTO) {
@@ -69,13 +92,15 @@ public class AddressServiceImpl
             User user = userRepository.findById(addressDTO.getUserId())
                     .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + addressDTO.getUserId()));
             user.addAddress(address);
+            touchOwner(user);
         }
 
         // Save entity
         address = repository.save(address);
+        publishChange(address.getId(), ChangeType.CREATED, addressDTO.getUserId());
 
         // Return mapped entity as DTO
-        return mapper.toDto(address);
+        return mapper.toDtoWithOptions(address, mappingOptions(true, null));
     }
 
     @Override
@@ -84,6 +109,8 @@ public class AddressServiceImpl
         // Find existing entity
         Address address = repository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Address not found with id: " + id));
+        Long previousUserId = address.getUser() != null ? address.getUser().getId() : null;
+        touchOwner(address.getUser());
 
         // Check if userId is being changed
         Long newUserId = addressDTO.getUserId();
@@ -91,15 +118,27 @@ public class AddressServiceImpl
             // Handle user reassignment
             handleUserReassignment(address, newUserId);
         }
+        touchOwner(address.getUser());
 
         // Update entity with DTO, ignoring null values
         mapper.partialUpdate(address, addressDTO);
 
-        // Save updated entity
-        address = repository.save(address);
+        // Managed entity, dirty checking issues the UPDATE; no merge needed
+        repository.flush();
+        publishChange(id, ChangeType.UPDATED, previousUserId,
+                address.getUser() != null ? address.getUser().getId() : null);
 
         // Return mapped entity as DTO
-        return mapper.toDto(address);
+        return mapper.toDtoWithOptions(address, mappingOptions(true, null));
+    }
+
+    /**
+     * Bumps the version of the owning user, so that user ETags change with its addresses
+     */
+    private void touchOwner(User owner) {
+        if (owner != null) {
+            userRepository.forceVersionIncrement(owner);
+        }
     }
 
     /**
@@ -128,9 +167,7 @@ public class AddressServiceImpl
         List<Address> addresses = repository.findByUserId(userId);
 
         // Map to DTOs with appropriate options
-        MappingOptions options = MappingOptions.builder()
-                .withAudit(withAudit)
-                .build();
+        MappingOptions options = mappingOptions(withAudit, null);
 
         return mapper.toDtoListWithOptions(addresses, options);
     }
@@ -6,10 +6,13 @@ import com.userorder.persistence.model.Contact;
 import com.userorder.persistence.model.User;
 import com.userorder.persistence.repository.ContactRepository;
 import com.userorder.persistence.repository.UserRepository;
+import com.userorder.persistence.repository.projection.EntityVersion;
 import com.userorder.service.ContactService;
 import com.userorder.service.dto.ContactDTO;
 import com.userorder.service.dto.mapper.ContactMapper;
 import com.userorder.service.dto.mapper.MappingOptions;
+import com.userorder.service.event.EntityChangedEvent.ChangeType;
+import com.userorder.service.uniqueness.ContactUniquenessGuard;
 import com.userorder.service.utils.mapping.GraphBuilderMapperService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of ContactService
@@ -30,13 +34,16 @@ public class ContactServiceImpl
     implements ContactService {
 
     private final UserRepository userRepository;
+    private final ContactUniquenessGuard uniquenessGuard;
 
     public ContactServiceImpl(ContactRepository repository,
                              ContactMapper contactMapper,
                              GraphBuilderMapperService graphBuilderService,
-                             UserRepository userRepository) {
+                             UserRepository userRepository,
+                             ContactUniquenessGuard uniquenessGuard) {
         super(repository, contactMapper, graphBuilderService);
         this.userRepository = userRepository;
+        this.uniquenessGuard = uniquenessGuard;
     }
 
     @Override
@@ -45,6 +52,8 @@ public class ContactServiceImpl
         // Find the contact to delete
         Contact contact = repository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Contact not found with id: " + id));
+        Long userId = contact.getUser() != null ? contact.getUser().getId() : null;
+        touchOwner(contact.getUser());
 
         // Remove the contact from its user (if associated with one)
         // This maintains the bidirectional relationship and prevents cascade deletion
@@ -54,6 +63,8 @@ public class ContactServiceImpl
 
         // Now safely delete the contact
         repository.delete(contact);
+        uniquenessGuard.registerChange(id, contact.getEmail(), contact.getPhoneNumber(), null, null);
+        publishChange(id, ChangeType.DELETED, userId);
     }
 
     @Override
@@ -62,6 +73,23 @@ public class ContactServiceImpl
         return repository.findById(id);
     }
 
+    @Override
+    protected Optional<ContactDTO> findFlatById(Long id, MappingOptions options) {
+        return repository.findRowById(id).map(row -> mapper.fromRow(row, options));
+    }
+
+    @Override
+    protected List<ContactDTO> findAllFlat(MappingOptions options) {
+        return repository.findAllRows().stream()
+                .map(row -> mapper.fromRow(row, options))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Optional<EntityVersion> findVersion(Long id) {
+        return repository.findVersionById(id);
+    }
+
     /**
      * Creates a default entity graph for contact entities
      * Used when no specific attributes are requested
@@ -76,6 +104,9 @@ public class ContactServiceImpl
     @Override
     @Transactional
     public ContactDTO save(ContactDTO contactDTO) {
+        // Duplicates are usually answered from memory, before any statement is sent
+        uniquenessGuard.checkAvailable(null, contactDTO.getEmail(), contactDTO.getPhoneNumber());
+
         // Convert DTO to entity
         Contact contact = mapper.toEntity(contactDTO);
         
@@ -86,21 +117,30 @@ public class ContactServiceImpl
 
             // Set up bidirectional relationship
             user.addContact(contact);
+            touchOwner(user);
         }
 
         // Save entity
         contact = repository.save(contact);
+        uniquenessGuard.registerChange(contact.getId(), null, null, contact.getEmail(), contact.getPhoneNumber());
+        publishChange(contact.getId(), ChangeType.CREATED, contactDTO.getUserId());
         
         // Return mapped entity as DTO
-        return mapper.toDto(contact);
+        return mapper.toDtoWithOptions(contact, mappingOptions(true, null));
     }
 
     @Override
     @Transactional
     public ContactDTO update(Long id, ContactDTO contactDTO) {
+        uniquenessGuard.checkAvailable(id, contactDTO.getEmail(), contactDTO.getPhoneNumber());
+
         // Find existing entity
         Contact contact = repository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Contact not found with id: " + id));
+        String previousEmail = contact.getEmail();
+        String previousPhoneNumber = contact.getPhoneNumber();
+        Long previousUserId = contact.getUser() != null ? contact.getUser().getId() : null;
+        touchOwner(contact.getUser());
         
         // Check if userId is being changed
         Long newuserId = contactDTO.getUserId();
@@ -108,17 +148,30 @@ public class ContactServiceImpl
             // Handle user reassignment
             handleUserReassignment(contact, newuserId);
         }
+        touchOwner(contact.getUser());
 
         // Update entity with DTO, ignoring null values
         mapper.partialUpdate(contact, contactDTO);
         
-        // Save updated entity
-        contact = repository.save(contact);
+        // Managed entity, dirty checking issues the UPDATE; no merge needed
+        repository.flush();
+        uniquenessGuard.registerChange(id, previousEmail, previousPhoneNumber, contact.getEmail(), contact.getPhoneNumber());
+        publishChange(id, ChangeType.UPDATED, previousUserId,
+                contact.getUser() != null ? contact.getUser().getId() : null);
         
         // Return mapped entity as DTO
-        return mapper.toDto(contact);
+        return mapper.toDtoWithOptions(contact, mappingOptions(true, null));
     }
     
+    /**
+     * Bumps the version of the owning user, so that user ETags change with its contacts
+     */
+    private void touchOwner(User owner) {
+        if (owner != null) {
+            userRepository.forceVersionIncrement(owner);
+        }
+    }
+
     /**
      * Handles reassignment of a contact from one user to another
      *
@@ -146,10 +199,7 @@ public class ContactServiceImpl
         List<Contact> contacts = repository.findByUserId(userId);
         
         // Map to DTOs with appropriate options
-        MappingOptions options = MappingOptions.builder()
-                .withAudit(withAudit)
-                .entityClass(Contact.class)
-                .build();
+        MappingOptions options = mappingOptions(withAudit, null);
         
         return mapper.toDtoListWithOptions(contacts, options);
     }
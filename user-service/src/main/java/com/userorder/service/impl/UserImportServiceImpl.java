@@ -0,0 +1,227 @@
+package com.userorder.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.userorder.persistence.model.Address;
+import com.userorder.persistence.model.Contact;
+import com.userorder.persistence.model.User;
+import com.userorder.service.UserImportService;
+import com.userorder.service.dto.AddressDTO;
+import com.userorder.service.dto.BulkImportRecord;
+import com.userorder.service.dto.BulkImportResult;
+import com.userorder.service.dto.ContactDTO;
+import com.userorder.service.dto.UserDTO;
+import com.userorder.service.dto.mapper.AddressMapper;
+import com.userorder.service.dto.mapper.ContactMapper;
+import com.userorder.service.dto.mapper.UserMapper;
+import com.userorder.service.event.EntityChangedEvent;
+import com.userorder.service.event.EntityChangedEvent.ChangeType;
+import com.userorder.service.utils.UserRecordValidator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of UserImportService.
+ * <p>
+ * The body is read line by line. Valid records are collected into chunks; every chunk is persisted in one
+ * transaction with one flush (batched inserts, see PooledSequenceIdGenerator) and the persistence context
+ * is cleared afterwards. When a chunk fails in the database, it is rolled back and replayed record by record
+ * to tell the failing records from the good ones.
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private final ObjectReader userReader;
+    private final UserRecordValidator userRecordValidator;
+    private final UserMapper userMapper;
+    private final AddressMapper addressMapper;
+    private final ContactMapper contactMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${user-service.bulk-import.chunk-size:500}")
+    private int chunkSize;
+
+    public UserImportServiceImpl(ObjectMapper objectMapper,
+                                 UserRecordValidator userRecordValidator,
+                                 UserMapper userMapper,
+                                 AddressMapper addressMapper,
+                                 ContactMapper contactMapper,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.userReader = objectMapper.readerFor(UserDTO.class);
+        this.userRecordValidator = userRecordValidator;
+        this.userMapper = userMapper;
+        this.addressMapper = addressMapper;
+        this.contactMapper = contactMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public BulkImportResult importUsers(InputStream ndjson) throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        List<PendingUser> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        long line = 0;
+        String json;
+        while ((json = reader.readLine()) != null) {
+            line++;
+            if (json.isBlank()) {
+                continue;
+            }
+
+            UserDTO user;
+            Map<String, String> errors;
+            try {
+                user = userReader.readValue(json);
+                errors = userRecordValidator.validate(user);
+            } catch (JsonProcessingException e) {
+                result.add(rejected(line, BulkImportRecord.Status.INVALID, "Malformed JSON: " + e.getOriginalMessage()));
+                continue;
+            } catch (RuntimeException e) {
+                // A record nobody anticipated must not end the import of the records after it
+                result.add(rejected(line, BulkImportRecord.Status.INVALID, "Invalid record: " + e.getMessage()));
+                continue;
+            }
+            if (!errors.isEmpty()) {
+                result.add(BulkImportRecord.builder().line(line).status(BulkImportRecord.Status.INVALID).errors(errors).build());
+                continue;
+            }
+
+            chunk.add(new PendingUser(line, user));
+            if (chunk.size() >= chunkSize) {
+                persistChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persistChunk(chunk, result);
+        }
+
+        log.info("Bulk import finished: {} received, {} created, {} rejected",
+                result.getReceived(), result.getCreated(), result.getRejected());
+        return result;
+    }
+
+    private void persistChunk(List<PendingUser> chunk, BulkImportResult result) {
+        List<Long> ids;
+        try {
+            ids = transactionTemplate.execute(status -> {
+                List<Long> created = new ArrayList<>(chunk.size());
+                for (PendingUser pending : chunk) {
+                    created.add(persist(pending.user()));
+                }
+                entityManager.flush();
+                entityManager.clear();
+                announce(created);
+                return created;
+            });
+        } catch (RuntimeException e) {
+            log.debug("Bulk import chunk starting at line {} failed, retrying record by record: {}",
+                    chunk.get(0).line(), e.getMessage());
+            persistOneByOne(chunk, result);
+            return;
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            result.add(BulkImportRecord.builder()
+                    .line(chunk.get(i).line())
+                    .status(BulkImportRecord.Status.CREATED)
+                    .id(ids.get(i))
+                    .build());
+        }
+    }
+
+    private void persistOneByOne(List<PendingUser> chunk, BulkImportResult result) {
+        for (PendingUser pending : chunk) {
+            try {
+                Long id = transactionTemplate.execute(status -> {
+                    Long created = persist(pending.user());
+                    entityManager.flush();
+                    entityManager.clear();
+                    announce(List.of(created));
+                    return created;
+                });
+                result.add(BulkImportRecord.builder()
+                        .line(pending.line())
+                        .status(BulkImportRecord.Status.CREATED)
+                        .id(id)
+                        .build());
+            } catch (RuntimeException e) {
+                result.add(rejected(pending.line(), BulkImportRecord.Status.FAILED,
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Persists a user with its children through the owning side; new entities are built from the DTO
+     * on every attempt, since a rolled back attempt leaves IDs and versions on its entities
+     */
+    private Long persist(UserDTO dto) {
+        dto.setId(null);
+        User user = userMapper.toEntity(dto);
+        entityManager.persist(user);
+
+        for (AddressDTO addressDTO : dto.getAddresses()) {
+            addressDTO.setId(null);
+            Address address = addressMapper.toEntity(addressDTO);
+            address.setUser(user);
+            entityManager.persist(address);
+        }
+        for (ContactDTO contactDTO : dto.getContacts()) {
+            contactDTO.setId(null);
+            Contact contact = contactMapper.toEntity(contactDTO);
+            contact.setUser(user);
+            entityManager.persist(contact);
+        }
+        return user.getId();
+    }
+
+    /**
+     * Announces the users created in the current transaction with one event, so that the listeners pick up
+     * a whole chunk with one query each. They run after commit, so a rolled back chunk announces nothing.
+     */
+    private void announce(List<Long> userIds) {
+        if (userIds.size() == 1) {
+            Long userId = userIds.get(0);
+            eventPublisher.publishEvent(new EntityChangedEvent(User.class, userId, ChangeType.CREATED, Set.of(userId)));
+        } else {
+            eventPublisher.publishEvent(new EntityChangedEvent(User.class, null, ChangeType.CREATED, Set.copyOf(userIds)));
+        }
+    }
+
+    private static BulkImportRecord rejected(long line, BulkImportRecord.Status status, String message) {
+        return BulkImportRecord.builder()
+                .line(line)
+                .status(status)
+                .errors(Map.of("record", message == null ? "Unknown error" : message))
+                .build();
+    }
+
+    private record PendingUser(long line, UserDTO user) {
+    }
+}
@@ -1,18 +1,44 @@
 package com.userorder.service.impl;
 
 
+import com.userorder.config.search.TrigramSearchSupport;
 import com.userorder.persistence.model.User;
+import com.userorder.persistence.repository.AddressRepository;
+import com.userorder.persistence.repository.ContactRepository;
+import com.userorder.persistence.repository.KeysetOrder;
 import com.userorder.persistence.repository.UserRepository;
+import com.userorder.persistence.repository.projection.ChildRef;
+import com.userorder.persistence.repository.projection.EntityVersion;
+import com.userorder.persistence.repository.projection.ScoredId;
+import com.userorder.persistence.repository.spec.UserSpecifications;
 import com.userorder.service.UserService;
+import com.userorder.service.dto.CursorPage;
 import com.userorder.service.dto.UserDTO;
+import com.userorder.service.dto.UserSearchCriteria;
+import com.userorder.service.dto.UserSearchHit;
+import com.userorder.service.dto.mapper.MappingOptions;
 import com.userorder.service.dto.mapper.UserMapper;
+import com.userorder.service.event.EntityChangedEvent.ChangeType;
 import com.userorder.service.utils.mapping.GraphBuilderMapperService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of UserService
@@ -24,10 +50,40 @@ public class UserServiceImpl
     extends AbstractBaseService<User, UserDTO, UserRepository, UserMapper>
     implements UserService {
 
+    /**
+     * Maximum number of user IDs bound into one summary query
+     */
+    private static final int SUMMARY_BATCH_SIZE = 500;
+
+    /**
+     * Shortest fuzzy query, trigram similarity is meaningless below three characters
+     */
+    private static final int MIN_FUZZY_QUERY_LENGTH = 3;
+
+    /**
+     * Repositories of the child entities, queried for summary IDs and counts
+     */
+    private final AddressRepository addressRepository;
+    private final ContactRepository contactRepository;
+    private final TrigramSearchSupport trigramSearchSupport;
+
     public UserServiceImpl(UserRepository repository,
                            UserMapper userMapper,
-                           GraphBuilderMapperService graphBuilderService) {
+                           GraphBuilderMapperService graphBuilderService,
+                           AddressRepository addressRepository,
+                           ContactRepository contactRepository,
+                           TrigramSearchSupport trigramSearchSupport) {
         super(repository, userMapper, graphBuilderService);
+        this.addressRepository = addressRepository;
+        this.contactRepository = contactRepository;
+        this.trigramSearchSupport = trigramSearchSupport;
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        repository.deleteById(id);
+        publishChange(id, ChangeType.DELETED, id);
     }
 
     @Override
@@ -36,22 +92,41 @@ public class UserServiceImpl
         return repository.findById(id);
     }
 
+    @Override
+    protected Optional<UserDTO> findFlatById(Long id, MappingOptions options) {
+        return repository.findRowById(id).map(row -> mapper.fromRow(row, options));
+    }
+
+    @Override
+    protected List<UserDTO> findAllFlat(MappingOptions options) {
+        return repository.findAllRows().stream()
+                .map(row -> mapper.fromRow(row, options))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Optional<EntityVersion> findVersion(Long id) {
+        return repository.findVersionById(id);
+    }
+
     @Override
     @Transactional
-    public UserDTO save(UserDTO userDTO) {
+    public UserDTO save(UserDTO userDTO, Set<String> attributes) {
         // Convert DTO to entity
         User user = mapper.toEntity(userDTO);
         
         // Save entity
         user = repository.save(user);
+        publishChange(user.getId(), ChangeType.CREATED, user.getId());
         
-        // Return mapped entity as DTO
-        return mapper.toDto(user);
+        // Return mapped entity as DTO, collections only on request; a new user has no addresses or contacts yet,
+        // so the empty child IDs and zero counts are the real values
+        return mapper.toDtoWithOptions(user, mappingOptions(true, attributes));
     }
 
     @Override
     @Transactional
-    public UserDTO update(Long id, UserDTO userDTO) {
+    public UserDTO update(Long id, UserDTO userDTO, Set<String> attributes) {
         // Find existing entity
         User user = repository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
@@ -59,10 +134,172 @@ public class UserServiceImpl
         // Update entity with DTO, ignoring null values
         mapper.partialUpdate(user, userDTO);
         
-        // Save updated entity
-        user = repository.save(user);
+        // The entity is managed, dirty checking issues the UPDATE on flush.
+        // Calling save() here would merge it and cascade the merge into the collections.
+        repository.flush();
+        publishChange(id, ChangeType.UPDATED, id);
         
-        // Return mapped entity as DTO
-        return mapper.toDto(user);
+        // Return mapped entity as DTO, collections only on request
+        MappingOptions options = mappingOptions(true, attributes);
+        UserDTO result = mapper.toDtoWithOptions(user, options);
+        if (!options.includesPath("addresses") || !options.includesPath("contacts")) {
+            // Child IDs and counts of collections that were not loaded come from the batched summary query
+            applySummaries(List.of(result));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserDTO findSummaryById(Long id, boolean withAudit) {
+        UserDTO user = findById(id, withAudit, null);
+        applySummaries(List.of(user));
+        return user;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getSummaryETag(Long id, boolean withAudit) {
+        return computeETag(id, withAudit, null, "summary");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDTO> findAllSummaries(boolean withAudit) {
+        return applySummaries(findAll(withAudit, null));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserDTO> findSummaryPage(boolean withAudit, Pageable pageable) {
+        Page<UserDTO> page = findPage(withAudit, null, pageable);
+        applySummaries(page.getContent());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserDTO> search(UserSearchCriteria criteria, boolean withAudit, Set<String> attributes, Pageable pageable) {
+        // IDs of the page are selected with the filters, then hydrated with the requested attributes
+        Page<User> page = repository.findPageWithAttributes(toSpecification(criteria), pageable, attributes);
+
+        MappingOptions options = mappingOptions(withAudit, attributes);
+
+        return page.map(user -> mapper.toDtoWithOptions(user, options));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSearchHit> fuzzySearch(String query, int limit, boolean withAudit, Set<String> attributes) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.length() < MIN_FUZZY_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Fuzzy search needs at least " + MIN_FUZZY_QUERY_LENGTH + " characters");
+        }
+
+        // Rank IDs in SQL, then hydrate only the hits
+        List<ScoredId> ranked;
+        if (trigramSearchSupport.isAvailable()) {
+            ranked = repository.findFuzzyByTrigram(trimmed, limit);
+        } else {
+            String escaped = trimmed.toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            ranked = repository.findFuzzyByLike("%" + escaped + "%", escaped + "%", limit);
+        }
+        if (ranked.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, User> users = repository.findAllByIdWithAttributes(
+                        ranked.stream().map(ScoredId::getId).toList(), attributes).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        MappingOptions options = mappingOptions(withAudit, attributes);
+
+        List<UserSearchHit> hits = new ArrayList<>(ranked.size());
+        for (ScoredId scored : ranked) {
+            User user = users.get(scored.getId());
+            if (user != null) {
+                hits.add(UserSearchHit.builder()
+                        .score(scored.getScore())
+                        .user(mapper.toDtoWithOptions(user, options))
+                        .build());
+            }
+        }
+        return hits;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserDTO> findSummariesAfter(String cursor, int size, KeysetOrder order, boolean withAudit) {
+        CursorPage<UserDTO> page = findAfter(cursor, size, order, withAudit, null);
+        applySummaries(page.getContent());
+        return page;
+    }
+
+    /**
+     * Fills address/contact IDs and counts of the given users with one query per child type
+     * (per batch of users) instead of initializing each user's collections
+     */
+    private List<UserDTO> applySummaries(List<UserDTO> users) {
+        if (users.isEmpty()) {
+            return users;
+        }
+
+        List<Long> userIds = users.stream().map(UserDTO::getId).collect(Collectors.toList());
+        Map<Long, Set<Long>> addressIds = collectChildIds(userIds, addressRepository::findRefsByUserIdIn);
+        Map<Long, Set<Long>> contactIds = collectChildIds(userIds, contactRepository::findRefsByUserIdIn);
+
+        for (UserDTO user : users) {
+            mapper.applySummary(user,
+                    addressIds.getOrDefault(user.getId(), Collections.emptySet()),
+                    contactIds.getOrDefault(user.getId(), Collections.emptySet()));
+        }
+        return users;
+    }
+
+    private static Map<Long, Set<Long>> collectChildIds(List<Long> userIds,
+                                                        Function<List<Long>, List<ChildRef>> query) {
+        Map<Long, Set<Long>> childIds = new HashMap<>(userIds.size() * 2);
+        for (int from = 0; from < userIds.size(); from += SUMMARY_BATCH_SIZE) {
+            List<Long> batch = new ArrayList<>(userIds.subList(from, Math.min(from + SUMMARY_BATCH_SIZE, userIds.size())));
+            for (ChildRef ref : query.apply(batch)) {
+                childIds.computeIfAbsent(ref.parentId(), k -> new LinkedHashSet<>()).add(ref.id());
+            }
+        }
+        return childIds;
+    }
+
+    /**
+     * Combines the given filters with AND, blank filters are ignored
+     */
+    private static Specification<User> toSpecification(UserSearchCriteria criteria) {
+        if (criteria.getBornFrom() != null && criteria.getBornTo() != null
+                && criteria.getBornFrom().isAfter(criteria.getBornTo())) {
+            throw new IllegalArgumentException("bornFrom must not be after bornTo");
+        }
+
+        Specification<User> spec = Specification.where(null);
+        if (hasText(criteria.getName())) {
+            spec = spec.and(UserSpecifications.nameStartsWith(criteria.getName()));
+        }
+        if (criteria.getBornFrom() != null) {
+            spec = spec.and(UserSpecifications.bornOnOrAfter(criteria.getBornFrom()));
+        }
+        if (criteria.getBornTo() != null) {
+            spec = spec.and(UserSpecifications.bornOnOrBefore(criteria.getBornTo()));
+        }
+        if (hasText(criteria.getCity())) {
+            spec = spec.and(UserSpecifications.hasAddressInCity(criteria.getCity()));
+        }
+        if (hasText(criteria.getCountry())) {
+            spec = spec.and(UserSpecifications.hasAddressInCountry(criteria.getCountry()));
+        }
+        if (hasText(criteria.getEmailDomain())) {
+            spec = spec.and(UserSpecifications.hasEmailDomain(criteria.getEmailDomain()));
+        }
+        return spec;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,512 @@
+package com.userorder.service.suggest;
+
+import com.userorder.config.datasource.ReadYourWritesHolder;
+import com.userorder.persistence.model.Address;
+import com.userorder.persistence.repository.ContactRepository;
+import com.userorder.persistence.repository.UserRepository;
+import com.userorder.persistence.repository.projection.ContactEmail;
+import com.userorder.persistence.repository.projection.UserName;
+import com.userorder.service.UserSuggestService;
+import com.userorder.service.dto.UserSuggestion;
+import com.userorder.service.event.BackgroundRebuild;
+import com.userorder.service.event.EntityChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index for user autocomplete over normalized first names, last names, full names and contact
+ * emails (lower case, accents stripped).
+ * <p>
+ * The bulk of the index is an immutable snapshot of sorted parallel arrays (term, user ID); a prefix lookup is a
+ * binary search followed by a forward scan. Changes committed since the snapshot was built live in a small sorted
+ * delta that overrides the snapshot per user. Once the delta holds user-service.suggest.compaction-threshold users,
+ * it is merged into a new snapshot in the background, one linear pass over both sorted runs, and swapped in under
+ * the lock. Equal terms share one String, which keeps the many repeated first and last names cheap.
+ * <p>
+ * Every change in the delta carries the generation it was applied in. A build or compaction only drops the changes
+ * it has read; the two never run at the same time, so neither can swap in data older than the delta it discards.
+ * <p>
+ * Built when the application is ready and kept current from EntityChangedEvent after commit: the affected users of
+ * an event are re-read together with one name and one email query, a bulk load that does not list its users
+ * rebuilds the index in the background.
+ */
+@Slf4j
+@Component
+public class UserSuggestIndex implements UserSuggestService {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final UserRepository userRepository;
+    private final ContactRepository contactRepository;
+    private final int pageSize;
+    private final int compactionThreshold;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Snapshot snapshot = Snapshot.EMPTY;
+    private final Map<Long, Change> changedUsers = new HashMap<>();
+    private final TreeSet<Entry> changedEntries = new TreeSet<>();
+    private long generation;
+
+    private volatile boolean ready;
+
+    private final BackgroundRebuild backgroundRebuild = new BackgroundRebuild("user-suggest", this::rebuild);
+    private final BackgroundRebuild backgroundCompaction = new BackgroundRebuild("user-suggest-compaction", this::compact);
+
+    public UserSuggestIndex(UserRepository userRepository,
+                            ContactRepository contactRepository,
+                            @Value("${user-service.suggest.build-page-size:10000}") int pageSize,
+                            @Value("${user-service.suggest.compaction-threshold:10000}") int compactionThreshold) {
+        this.userRepository = userRepository;
+        this.contactRepository = contactRepository;
+        this.pageSize = pageSize;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @Override
+    public List<UserSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (!ready || normalized == null) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, UserSuggestion> results = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            Snapshot base = snapshot;
+            int i = base.lowerBound(normalized);
+            Iterator<Entry> delta = changedEntries.tailSet(new Entry(normalized, Long.MIN_VALUE), true).iterator();
+            Entry next = nextMatching(delta, normalized);
+
+            // Merge the snapshot range and the delta range in term order until enough distinct users are found
+            while (results.size() < limit) {
+                boolean baseMatches = i < base.terms.length && base.terms[i].startsWith(normalized);
+                if (!baseMatches && next == null) {
+                    break;
+                }
+                if (baseMatches && (next == null || compare(base.terms[i], base.termUserIds[i], next) <= 0)) {
+                    long userId = base.termUserIds[i];
+                    if (!changedUsers.containsKey(userId)) {
+                        results.putIfAbsent(userId, new UserSuggestion(userId, base.label(userId), base.terms[i]));
+                    }
+                    i++;
+                } else {
+                    UserDoc doc = changedUsers.get(next.userId()).doc();
+                    results.putIfAbsent(next.userId(), new UserSuggestion(next.userId(), doc.label(), next.term()));
+                    next = nextMatching(delta, normalized);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * Builds a new snapshot from the primary, page by page. Changes applied before the build started are part of
+     * what it reads and leave the delta with the swap; changes applied meanwhile stay in the delta, which is at
+     * least as recent as what the build read.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        // Right after a commit (bulk load) a replica may not have the new users yet
+        ReadYourWritesHolder.runOnPrimary(this::build);
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        long startGeneration;
+        lock.readLock().lock();
+        try {
+            startGeneration = generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, String> termPool = new HashMap<>();
+        List<Entry> entries = new ArrayList<>();
+        Map<Long, String> labels = new HashMap<>();
+
+        long afterId = 0;
+        List<UserName> users;
+        do {
+            users = userRepository.findNamesAfter(afterId, Limit.of(pageSize));
+            for (UserName user : users) {
+                UserDoc doc = UserDoc.of(user, List.of());
+                labels.put(user.id(), doc.label());
+                for (String term : doc.terms()) {
+                    entries.add(new Entry(termPool.computeIfAbsent(term, t -> t), user.id()));
+                }
+                afterId = user.id();
+            }
+        } while (users.size() == pageSize);
+
+        afterId = 0;
+        List<ContactEmail> emails;
+        do {
+            emails = contactRepository.findEmailsAfter(afterId, Limit.of(pageSize));
+            for (ContactEmail email : emails) {
+                String term = normalize(email.email());
+                if (term != null && email.userId() != null && labels.containsKey(email.userId())) {
+                    entries.add(new Entry(term, email.userId()));
+                }
+                afterId = email.id();
+            }
+        } while (emails.size() == pageSize);
+
+        entries.sort(null);
+        Snapshot built = Snapshot.of(entries, labels);
+
+        lock.writeLock().lock();
+        try {
+            snapshot = built;
+            changedUsers.entrySet().removeIf(change -> {
+                boolean read = change.getValue().generation() <= startGeneration;
+                if (read) {
+                    removeTerms(change.getKey(), change.getValue());
+                }
+                return read;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("User suggest index built in {} ms: {} users, {} terms",
+                (System.nanoTime() - start) / 1_000_000, labels.size(), entries.size());
+    }
+
+    /**
+     * Re-indexes the users affected by a committed change; addresses do not contribute terms
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.entityType() == Address.class) {
+            return;
+        }
+        try {
+            if (event.affectsUnlistedUsers()) {
+                if (ready) {
+                    backgroundRebuild.request();
+                }
+                return;
+            }
+            // Also while the first build runs: the delta overrides whatever the build reads
+            reindex(event.userIds());
+        } catch (RuntimeException e) {
+            log.warn("Could not update the suggest index for users {}: {}", event.userIds(), e.getMessage());
+        }
+    }
+
+    /**
+     * Re-reads the users and their emails from the primary, which has the commit that triggered this, and puts
+     * them into the delta under one write lock, stamped with a new generation; users that no longer exist are
+     * removed. A full delta is compacted in the background.
+     */
+    private void reindex(Set<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<ContactEmail> emails = ReadYourWritesHolder.onPrimary(() -> contactRepository.findEmailsByUserIdIn(userIds));
+        List<UserName> users = ReadYourWritesHolder.onPrimary(() -> userRepository.findNamesByIdIn(userIds));
+
+        Map<Long, List<String>> emailsByUser = new HashMap<>();
+        for (ContactEmail email : emails) {
+            emailsByUser.computeIfAbsent(email.userId(), id -> new ArrayList<>()).add(email.email());
+        }
+        Map<Long, UserDoc> docs = new HashMap<>();
+        for (UserName user : users) {
+            docs.put(user.id(), UserDoc.of(user, emailsByUser.getOrDefault(user.id(), List.of())));
+        }
+
+        boolean full;
+        lock.writeLock().lock();
+        try {
+            for (Long userId : userIds) {
+                UserDoc doc = docs.get(userId);
+                Change previous = changedUsers.put(userId, new Change(doc, ++generation));
+                if (previous != null) {
+                    removeTerms(userId, previous);
+                }
+                if (doc != null) {
+                    doc.terms().forEach(term -> changedEntries.add(new Entry(term, userId)));
+                }
+            }
+            full = changedUsers.size() >= compactionThreshold;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (full) {
+            backgroundCompaction.request();
+        }
+    }
+
+    /**
+     * Merges the delta into a new snapshot outside the lock and swaps it in; changes applied during the merge
+     * stay in the delta. Synchronized with rebuild(), a build never swaps in over a compaction or the other way round.
+     */
+    private synchronized void compact() {
+        long start = System.nanoTime();
+        Snapshot base;
+        Map<Long, Change> changes;
+        List<Entry> delta;
+        lock.readLock().lock();
+        try {
+            base = snapshot;
+            changes = new HashMap<>(changedUsers);
+            delta = new ArrayList<>(changedEntries);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (changes.size() < compactionThreshold) {
+            // A build took the changes over while the compaction was queued
+            return;
+        }
+
+        Snapshot merged = base.merge(changes, delta);
+
+        lock.writeLock().lock();
+        try {
+            snapshot = merged;
+            changes.forEach((userId, change) -> {
+                if (changedUsers.remove(userId, change)) {
+                    removeTerms(userId, change);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("User suggest index compacted {} changed users into {} terms in {} ms", changes.size(),
+                merged.terms.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Removes the delta terms of a change; called with the write lock held
+     */
+    private void removeTerms(long userId, Change change) {
+        if (change.doc() != null) {
+            change.doc().terms().forEach(term -> changedEntries.remove(new Entry(term, userId)));
+        }
+    }
+
+    /**
+     * Number of users in the delta, i.e. not compacted yet
+     */
+    int changedUserCount() {
+        lock.readLock().lock();
+        try {
+            return changedUsers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        backgroundRebuild.close();
+        backgroundCompaction.close();
+    }
+
+    private static Entry nextMatching(Iterator<Entry> delta, String prefix) {
+        if (delta.hasNext()) {
+            Entry entry = delta.next();
+            if (entry.term().startsWith(prefix)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static int compare(String term, long userId, Entry entry) {
+        int byTerm = term.compareTo(entry.term());
+        return byTerm != 0 ? byTerm : Long.compare(userId, entry.userId());
+    }
+
+    /**
+     * Lower-cases, strips accents and collapses whitespace; null when nothing is left
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        String normalized = stripped.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private record Entry(String term, long userId) implements Comparable<Entry> {
+
+        @Override
+        public int compareTo(Entry other) {
+            return compare(term, userId, other);
+        }
+    }
+
+    /**
+     * Display label and terms of one user
+     */
+    private record UserDoc(String label, List<String> terms) {
+
+        static UserDoc of(UserName user, List<String> emails) {
+            String label = ((user.firstName() == null ? "" : user.firstName()) + " "
+                    + (user.lastName() == null ? "" : user.lastName())).trim();
+
+            List<String> terms = new ArrayList<>(3 + emails.size());
+            addTerm(terms, user.firstName());
+            addTerm(terms, user.lastName());
+            addTerm(terms, label);
+            emails.forEach(email -> addTerm(terms, email));
+            return new UserDoc(label, terms);
+        }
+
+        private static void addTerm(List<String> terms, String value) {
+            String term = normalize(value);
+            if (term != null && !terms.contains(term)) {
+                terms.add(term);
+            }
+        }
+    }
+
+    /**
+     * Delta state of one user, doc null when the user was deleted
+     *
+     * @param generation Increasing stamp of the reindex that applied it
+     */
+    private record Change(UserDoc doc, long generation) {
+    }
+
+    /**
+     * Immutable sorted arrays: terms with their user IDs, and the labels by user ID
+     */
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new long[0], new long[0], new String[0]);
+
+        private final String[] terms;
+        private final long[] termUserIds;
+        private final long[] userIds;
+        private final String[] labels;
+
+        private Snapshot(String[] terms, long[] termUserIds, long[] userIds, String[] labels) {
+            this.terms = terms;
+            this.termUserIds = termUserIds;
+            this.userIds = userIds;
+            this.labels = labels;
+        }
+
+        /**
+         * @param entries Sorted entries
+         * @param labels  Labels by user ID
+         */
+        private static Snapshot of(List<Entry> entries, Map<Long, String> labels) {
+            String[] terms = new String[entries.size()];
+            long[] termUserIds = new long[entries.size()];
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = entries.get(i).term();
+                termUserIds[i] = entries.get(i).userId();
+            }
+
+            long[] userIds = labels.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            String[] userLabels = new String[userIds.length];
+            for (int i = 0; i < userIds.length; i++) {
+                userLabels[i] = labels.get(userIds[i]);
+            }
+            return new Snapshot(terms, termUserIds, userIds, userLabels);
+        }
+
+        /**
+         * New snapshot with the changed users replaced, by one linear merge of the sorted arrays and the delta
+         *
+         * @param changes Changes by user ID
+         * @param delta   Sorted delta entries of the changes
+         */
+        private Snapshot merge(Map<Long, Change> changes, List<Entry> delta) {
+            String[] mergedTerms = new String[terms.length + delta.size()];
+            long[] mergedTermUserIds = new long[mergedTerms.length];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < terms.length || j < delta.size()) {
+                if (i < terms.length && changes.containsKey(termUserIds[i])) {
+                    i++;
+                } else if (j == delta.size() || (i < terms.length && compare(terms[i], termUserIds[i], delta.get(j)) <= 0)) {
+                    mergedTerms[count] = terms[i];
+                    mergedTermUserIds[count++] = termUserIds[i++];
+                } else {
+                    Entry entry = delta.get(j++);
+                    mergedTerms[count] = entry.term();
+                    mergedTermUserIds[count++] = entry.userId();
+                }
+            }
+
+            long[] changedIds = changes.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            long[] mergedUserIds = new long[userIds.length + changedIds.length];
+            String[] mergedLabels = new String[mergedUserIds.length];
+            int users = 0;
+            i = 0;
+            j = 0;
+            while (i < userIds.length || j < changedIds.length) {
+                if (j == changedIds.length || (i < userIds.length && userIds[i] < changedIds[j])) {
+                    mergedUserIds[users] = userIds[i];
+                    mergedLabels[users++] = labels[i++];
+                } else {
+                    if (i < userIds.length && userIds[i] == changedIds[j]) {
+                        i++;
+                    }
+                    UserDoc doc = changes.get(changedIds[j]).doc();
+                    if (doc != null) {
+                        mergedUserIds[users] = changedIds[j];
+                        mergedLabels[users++] = doc.label();
+                    }
+                    j++;
+                }
+            }
+            return new Snapshot(Arrays.copyOf(mergedTerms, count), Arrays.copyOf(mergedTermUserIds, count),
+                    Arrays.copyOf(mergedUserIds, users), Arrays.copyOf(mergedLabels, users));
+        }
+
+        /**
+         * Index of the first term not less than the prefix
+         */
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = terms.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (terms[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private String label(long userId) {
+            int index = Arrays.binarySearch(userIds, userId);
+            return index >= 0 ? labels[index] : null;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.userorder.service.uniqueness;
+
+import com.userorder.config.datasource.ReadYourWritesHolder;
+import com.userorder.persistence.model.User;
+import com.userorder.persistence.repository.ContactRepository;
+import com.userorder.persistence.repository.projection.ContactKey;
+import com.userorder.service.event.BackgroundRebuild;
+import com.userorder.service.event.EntityChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory index of the normalized emails and phone numbers of all contacts, preloaded when the application
+ * is ready. Each value space has a Bloom filter in front of an exact map (value to contact ID): a value the
+ * filter has never seen, the common case, is known to be free without looking further, and a value missing
+ * from the map is free as well. Only a hit in the map costs a primary key lookup, which confirms the duplicate
+ * or drops the entry when the contact was deleted or changed elsewhere (cascades, other replicas).
+ * <p>
+ * Emails are compared case-insensitively and phone numbers by their digits only. The index is updated after
+ * commit; writes it does not see are still caught by the unique constraints of the contact table.
+ */
+@Slf4j
+@Component
+public class ContactUniquenessGuard {
+
+    private static final String EMAIL = "email";
+    private static final String PHONE_NUMBER = "phoneNumber";
+
+    private final ContactRepository contactRepository;
+    private final MeterRegistry meterRegistry;
+    private final long expectedValues;
+    private final double falsePositiveProbability;
+    private final int preloadPageSize;
+
+    private volatile ValueIndex emails;
+    private volatile ValueIndex phoneNumbers;
+
+    // Indexes being loaded by preload(), they receive the changes committed meanwhile as well
+    private volatile ValueIndex loadingEmails;
+    private volatile ValueIndex loadingPhoneNumbers;
+
+    private final BackgroundRebuild backgroundPreload = new BackgroundRebuild("contact-guard", this::preload);
+
+    public ContactUniquenessGuard(ContactRepository contactRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${user-service.contact-guard.expected-values:2000000}") long expectedValues,
+                                  @Value("${user-service.contact-guard.false-positive-probability:0.01}") double falsePositiveProbability,
+                                  @Value("${user-service.contact-guard.preload-page-size:10000}") int preloadPageSize) {
+        this.contactRepository = contactRepository;
+        this.meterRegistry = meterRegistry;
+        this.expectedValues = expectedValues;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.preloadPageSize = preloadPageSize;
+    }
+
+    /**
+     * Loads the unique values of all contacts from the primary, page by page. Until it is done for the first time,
+     * checks pass and the database constraints decide alone; a reload keeps checking against the previous index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void preload() {
+        // Right after a commit (bulk load) a replica may not have the new contacts yet
+        ReadYourWritesHolder.runOnPrimary(this::load);
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        ValueIndex newEmails = new ValueIndex(EMAIL, ContactUniquenessGuard::normalizeEmail);
+        ValueIndex newPhoneNumbers = new ValueIndex(PHONE_NUMBER, ContactUniquenessGuard::normalizePhoneNumber);
+        loadingEmails = newEmails;
+        loadingPhoneNumbers = newPhoneNumbers;
+
+        long count = 0;
+        long afterId = 0;
+        List<ContactKey> page;
+        do {
+            page = contactRepository.findKeysAfter(afterId, Limit.of(preloadPageSize));
+            for (ContactKey key : page) {
+                newEmails.put(key.email(), key.id());
+                newPhoneNumbers.put(key.phoneNumber(), key.id());
+                afterId = key.id();
+            }
+            count += page.size();
+        } while (page.size() == preloadPageSize);
+
+        emails = newEmails;
+        phoneNumbers = newPhoneNumbers;
+        loadingEmails = null;
+        loadingPhoneNumbers = null;
+        log.info("Contact uniqueness guard loaded {} contacts in {} ms, Bloom filters {} KB", count,
+                (System.nanoTime() - start) / 1_000_000,
+                (newEmails.filter.sizeInBytes() + newPhoneNumbers.filter.sizeInBytes()) / 1024);
+    }
+
+    /**
+     * Rejects the email and phone number when another contact has them
+     *
+     * @param contactId   ID of the contact that will hold the values, null for a new contact
+     * @param email       Email to check, may be null
+     * @param phoneNumber Phone number to check, may be null
+     * @throws DuplicateContactException if another contact has the email or phone number
+     */
+    public void checkAvailable(Long contactId, String email, String phoneNumber) {
+        ValueIndex currentEmails = emails;
+        ValueIndex currentPhoneNumbers = phoneNumbers;
+        if (currentEmails == null || currentPhoneNumbers == null) {
+            return;
+        }
+        currentEmails.checkAvailable(contactId, email, ContactKey::email);
+        currentPhoneNumbers.checkAvailable(contactId, phoneNumber, ContactKey::phoneNumber);
+    }
+
+    /**
+     * Moves a contact from its old values to its new ones once the current transaction commits
+     *
+     * @param contactId      ID of the contact
+     * @param oldEmail       Previous email, null for a new contact
+     * @param oldPhoneNumber Previous phone number, null for a new contact
+     * @param newEmail       Current email, null for a deleted contact
+     * @param newPhoneNumber Current phone number, null for a deleted contact
+     */
+    public void registerChange(Long contactId, String oldEmail, String oldPhoneNumber,
+                               String newEmail, String newPhoneNumber) {
+        Runnable change = () -> {
+            // The loading indexes first: once preload() swaps them in, the change must already be there
+            replace(loadingEmails, loadingPhoneNumbers, contactId, oldEmail, oldPhoneNumber, newEmail, newPhoneNumber);
+            replace(emails, phoneNumbers, contactId, oldEmail, oldPhoneNumber, newEmail, newPhoneNumber);
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private static void replace(ValueIndex emailIndex, ValueIndex phoneNumberIndex, Long contactId,
+                                String oldEmail, String oldPhoneNumber, String newEmail, String newPhoneNumber) {
+        if (emailIndex != null && phoneNumberIndex != null) {
+            emailIndex.replace(contactId, oldEmail, newEmail);
+            phoneNumberIndex.replace(contactId, oldPhoneNumber, newPhoneNumber);
+        }
+    }
+
+    /**
+     * Picks up the contacts of users created outside ContactService (user creation, bulk imports) with one
+     * query per event; a bulk load that does not list its users reloads the whole index in the background
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.entityType() != User.class || event.changeType() != EntityChangedEvent.ChangeType.CREATED
+                || emails == null) {
+            return;
+        }
+        try {
+            if (event.affectsUnlistedUsers()) {
+                backgroundPreload.request();
+                return;
+            }
+            // The event follows a commit the replicas may not have replayed yet
+            List<ContactKey> keys = ReadYourWritesHolder.onPrimary(() -> contactRepository.findKeysByUserIdIn(event.userIds()));
+            for (ContactKey key : keys) {
+                registerChange(key.id(), null, null, key.email(), key.phoneNumber());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not index contacts of created users {}: {}", event.userIds(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        backgroundPreload.close();
+    }
+
+    static String normalizeEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String normalizePhoneNumber(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.isEmpty() ? null : digits.toString();
+    }
+
+    /**
+     * Bloom filter and exact map of one value space
+     */
+    private final class ValueIndex {
+
+        private final String field;
+        private final Function<String, String> normalizer;
+        private final BloomFilter filter = new BloomFilter(expectedValues, falsePositiveProbability);
+        private final Map<String, Long> owners = new ConcurrentHashMap<>();
+        private final Counter filterNegatives;
+        private final Counter exactNegatives;
+        private final Counter duplicates;
+        private final Counter staleEntries;
+
+        private ValueIndex(String field, Function<String, String> normalizer) {
+            this.field = field;
+            this.normalizer = normalizer;
+            this.filterNegatives = counter("bloom-negative");
+            this.exactNegatives = counter("exact-negative");
+            this.duplicates = counter("duplicate");
+            this.staleEntries = counter("stale");
+        }
+
+        private Counter counter(String result) {
+            return Counter.builder("contact.uniqueness.checks")
+                    .description("Contact uniqueness checks by how they were answered")
+                    .tag("field", field)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        private void put(String value, Long contactId) {
+            String normalized = normalizer.apply(value);
+            if (normalized != null) {
+                filter.put(normalized);
+                owners.put(normalized, contactId);
+            }
+        }
+
+        private void replace(Long contactId, String oldValue, String newValue) {
+            String oldNormalized = normalizer.apply(oldValue);
+            if (oldNormalized != null && !oldNormalized.equals(normalizer.apply(newValue))) {
+                owners.remove(oldNormalized, contactId);
+            }
+            put(newValue, contactId);
+        }
+
+        private void checkAvailable(Long contactId, String value, Function<ContactKey, String> column) {
+            String normalized = normalizer.apply(value);
+            if (normalized == null) {
+                return;
+            }
+            if (!filter.mightContain(normalized)) {
+                filterNegatives.increment();
+                return;
+            }
+            Long owner = owners.get(normalized);
+            if (owner == null || owner.equals(contactId)) {
+                exactNegatives.increment();
+                return;
+            }
+
+            // Confirm against the database, the owner may have been deleted or changed without this replica noticing
+            Optional<ContactKey> ownerKey = contactRepository.findKeyById(owner);
+            if (ownerKey.isPresent() && Objects.equals(normalized, normalizer.apply(column.apply(ownerKey.get())))) {
+                duplicates.increment();
+                throw new DuplicateContactException(field, value);
+            }
+            staleEntries.increment();
+            owners.remove(normalized, owner);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.userorder.service.uniqueness;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a contact would take an email or phone number that another contact already has
+ */
+@Getter
+public class DuplicateContactException extends RuntimeException {
+
+    /**
+     * Contact property holding the duplicate value: email or phoneNumber
+     */
+    private final String field;
+
+    public DuplicateContactException(String field, String value) {
+        super("A contact with " + field + " '" + value + "' already exists");
+        this.field = field;
+    }
+}
@@ -0,0 +1,68 @@
+package com.userorder.service.utils;
+
+import com.userorder.service.dto.AddressDTO;
+import com.userorder.service.dto.ContactDTO;
+import com.userorder.service.dto.UserDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates users of bulk requests together with their nested addresses and contacts
+ */
+@Component
+@RequiredArgsConstructor
+public class UserRecordValidator {
+
+    private final Validator validator;
+
+    /**
+     * Validates the user and its nested addresses and contacts; a null record or a null element of a collection
+     * is an error, a null collection counts as empty
+     *
+     * @return messages keyed by property path, e.g. "contacts[1].email"; empty when the user is valid
+     */
+    public Map<String, String> validate(UserDTO user) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (user == null) {
+            errors.put("record", "User is required");
+            return errors;
+        }
+        collect(errors, "", validator.validate(user));
+
+        int index = 0;
+        for (AddressDTO address : nullToEmpty(user.getAddresses())) {
+            validateElement(errors, "addresses[" + index++ + "]", address, "Address must not be null");
+        }
+        index = 0;
+        for (ContactDTO contact : nullToEmpty(user.getContacts())) {
+            validateElement(errors, "contacts[" + index++ + "]", contact, "Contact must not be null");
+        }
+        return errors;
+    }
+
+    private <T> void validateElement(Map<String, String> errors, String path, T element, String nullMessage) {
+        if (element == null) {
+            errors.putIfAbsent(path, nullMessage);
+        } else {
+            collect(errors, path + ".", validator.validate(element));
+        }
+    }
+
+    private static <T> Collection<T> nullToEmpty(Collection<T> elements) {
+        return elements == null ? List.of() : elements;
+    }
+
+    private static <T> void collect(Map<String, String> errors, String prefix, Set<ConstraintViolation<T>> violations) {
+        for (ConstraintViolation<T> violation : violations) {
+            errors.putIfAbsent(prefix + violation.getPropertyPath(), violation.getMessage());
+        }
+    }
+}
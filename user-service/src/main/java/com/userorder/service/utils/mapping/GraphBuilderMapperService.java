@@ -2,27 +2,57 @@ package com.userorder.service.utils.mapping;
 
 import com.cosium.spring.data.jpa.entity.graph.domain2.DynamicEntityGraph;
 import com.cosium.spring.data.jpa.entity.graph.domain2.EntityGraph;
-import com.userorder.persistence.utils.mapping.MappingAttribute;
+import com.userorder.persistence.utils.mapping.EntityAttributeRegistry;
+import com.userorder.persistence.utils.mapping.EntityGraphPlanCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 public class GraphBuilderMapperService {
+
+    private static final EntityGraph EMPTY_GRAPH = DynamicEntityGraph.fetching().build();
+
+    private final EntityAttributeRegistry attributeRegistry;
+    private final EntityGraphPlanCache planCache;
+
+    public GraphBuilderMapperService(EntityAttributeRegistry attributeRegistry,
+                                     @Value("${user-service.graph-plan-cache.max-size:512}") long maxSize,
+                                     MeterRegistry meterRegistry) {
+        this.attributeRegistry = attributeRegistry;
+        this.planCache = new EntityGraphPlanCache("entityGraphPlans.service", maxSize, meterRegistry);
+    }
+
     /**
      * Create an entity graph for the specified attributes
+     * Graphs are built once per (root class, canonical attribute set) and reused from the plan cache
      */
     public EntityGraph getGraphWithAttributes(Class<?> rootClass, Collection<String> attributes) {
         // If no attributes specified, return a minimal graph
         if (attributes == null || attributes.isEmpty()) {
-            return DynamicEntityGraph.fetching().build();
+            return EMPTY_GRAPH;
         }
-        
+
+        return planCache.get(rootClass, attributes, canonical -> buildGraph(rootClass, canonical));
+    }
+
+    public EntityGraphPlanCache getPlanCache() {
+        return planCache;
+    }
+
+    public EntityAttributeRegistry getAttributeRegistry() {
+        return attributeRegistry;
+    }
+
+    private EntityGraph buildGraph(Class<?> rootClass, Collection<String> attributes) {
+        if (attributes.isEmpty()) {
+            return EMPTY_GRAPH;
+        }
+
         // Create a builder for our entity graph
         DynamicEntityGraph.Builder builder = DynamicEntityGraph.fetching();
         
@@ -42,83 +72,12 @@ public class GraphBuilderMapperService {
 
         return builder.build();
     }
-    
-    /**
-     * Get all fields from a class and its superclasses
-     */
-    private Set<Field> getAllEntityFields(Class<?> clazz) {
-        Set<Field> fields = new HashSet<>();
-        
-        // Get fields from this class
-        for (Field field : clazz.getDeclaredFields()) {
-            fields.add(field);
-        }
-        
-        // Get fields from superclass if it's not Object
-        Class<?> superClass = clazz.getSuperclass();
-        if (superClass != null && superClass != Object.class) {
-            fields.addAll(getAllEntityFields(superClass));
-        }
-        
-        return fields;
-    }
-    
+
     /**
      * Create a complete entity graph with all mappable attributes
      */
     public EntityGraph getCompleteEntityGraph(Class<?> rootClass) {
-        DynamicEntityGraph.Builder builder = DynamicEntityGraph.fetching();
-        Set<String> allPaths = getAllMappableAttributes(rootClass);
-        
-        for (String attributePath : allPaths) {
-            builder.addPath(attributePath);
-        }
-        
-        return builder.build();
-    }
-    
-    /**
-     * Get all mappable attributes for a class and its children
-     */
-    private Set<String> getAllMappableAttributes(Class<?> clazz) {
-        Set<String> paths = new HashSet<>();
-        collectMappableAttributes(clazz, "", paths, new HashSet<>());
-        return paths;
-    }
-    
-    /**
-     * Recursively collect all mappable attributes
-     */
-    private void collectMappableAttributes(Class<?> clazz, String basePath, Set<String> paths, Set<Class<?>> visited) {
-        // Avoid circular references
-        if (visited.contains(clazz)) {
-            return;
-        }
-        
-        visited.add(clazz);
-        
-        for (Field field : clazz.getDeclaredFields()) {
-            MappingAttribute mapping = field.getAnnotation(MappingAttribute.class);
-            if (mapping == null) continue;
-            
-            String path = basePath.isEmpty() ? field.getName() : basePath + "." + field.getName();
-            paths.add(path);
-            
-            // If it's a collection, check the generic type
-            if (Collection.class.isAssignableFrom(field.getType())) {
-                try {
-                    ParameterizedType type = (ParameterizedType) field.getGenericType();
-                    Class<?> genericClass = (Class<?>) type.getActualTypeArguments()[0];
-                    collectMappableAttributes(genericClass, path, paths, new HashSet<>(visited));
-                } catch (Exception e) {
-                    // Skip if we can't determine the generic type
-                }
-            } 
-            // If it's a regular class, recurse
-            else if (!field.getType().isPrimitive() && !field.getType().getPackage().getName().startsWith("java.")) {
-                collectMappableAttributes(field.getType(), path, paths, new HashSet<>(visited));
-            }
-        }
+        return getGraphWithAttributes(rootClass, attributeRegistry.getMappablePaths(rootClass));
     }
 
     private Set<String> reduceGraphPaths(Collection<String> inputPaths) {
@@ -132,27 +91,9 @@ public class GraphBuilderMapperService {
     }
 
     private void addPathIfValid(DynamicEntityGraph.Builder builder, Class<?> clazz, String attributePath) {
-        String[] parts = attributePath.split("\\.");
-        Class<?> currentClass = clazz;
-
-        for (String fieldName : parts) {
-            try {
-                Field field = currentClass.getDeclaredField(fieldName);
-                MappingAttribute mapping = field.getAnnotation(MappingAttribute.class);
-                if (mapping == null) return;
-
-                if (Collection.class.isAssignableFrom(field.getType())) {
-                    ParameterizedType type = (ParameterizedType) field.getGenericType();
-                    currentClass = (Class<?>) type.getActualTypeArguments()[0];
-                } else {
-                    currentClass = field.getType();
-                }
-
-            } catch (NoSuchFieldException e) {
-                return;
-            }
+        // Unknown or non-mappable paths are skipped silently
+        if (attributeRegistry.resolveMappablePath(clazz, attributePath).isPresent()) {
+            builder.addPath(attributePath);
         }
-
-        builder.addPath(attributePath);
     }
 }
@@ -0,0 +1,159 @@
+package com.userorder.benchmark;
+
+import com.userorder.persistence.model.Address;
+import com.userorder.persistence.model.AddressType;
+import com.userorder.persistence.model.Contact;
+import com.userorder.persistence.model.ContactType;
+import com.userorder.persistence.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures insert throughput of users with their addresses and contacts, unbatched (JDBC batch size 1,
+ * one round trip per row) against the configured batch size.
+ * Every round runs in its own transaction that is rolled back, so the database is left untouched.
+ * <p>
+ * Both sides take their IDs from the pooled sequences on the same connection settings, so this isolates
+ * JDBC batching; it is not a before/after comparison with IDENTITY IDs, which cannot be batched at all.
+ * <p>
+ * Tagged "benchmark", run with {@code mvn -Pbenchmark test} (point spring.datasource at PostgreSQL for
+ * representative numbers); sizes with -Duser-service.benchmark.bulk-insert.users / rounds.
+ * Results are logged, nothing is asserted on timing.
+ */
+@Slf4j
+@Tag("benchmark")
+@ActiveProfiles("test")
+@SpringBootTest
+class BulkInsertBenchmark {
+
+    private static final int ADDRESSES_PER_USER = 2;
+    private static final int CONTACTS_PER_USER = 2;
+    private static final int ROWS_PER_USER = 1 + ADDRESSES_PER_USER + CONTACTS_PER_USER;
+
+    /**
+     * Users persisted between two flushes, keeps the persistence context small like a real bulk load
+     */
+    private static final int FLUSH_INTERVAL = 500;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${user-service.benchmark.bulk-insert.users:2000}")
+    private int users;
+
+    @Value("${user-service.benchmark.bulk-insert.rounds:3}")
+    private int rounds;
+
+    @Value("${user-service.jdbc.batch-size:50}")
+    private int batchSize;
+
+    @Value("${user-service.jdbc.id-allocation-size:50}")
+    private int idAllocationSize;
+
+    @Value("${spring.datasource.hikari.data-source-properties.reWriteBatchedInserts:false}")
+    private boolean reWriteBatchedInserts;
+
+    private long sequence;
+
+    @Test
+    void batchedAgainstUnbatchedInserts() {
+        log.info("Bulk insert benchmark: {} users ({} rows) per round, {} rounds", users, users * ROWS_PER_USER, rounds);
+        log.info("Bulk insert benchmark: the unbatched baseline still takes its IDs from the pooled sequences "
+                        + "(allocation size {}) with reWriteBatchedInserts={}, so it measures JDBC batching only, "
+                        + "not the before/after comparison with IDENTITY IDs",
+                idAllocationSize, reWriteBatchedInserts);
+
+        // Warm up connection pool, JIT and sequence caches
+        insertRound(1);
+        insertRound(batchSize);
+
+        double unbatched = 0;
+        double batched = 0;
+        for (int round = 0; round < rounds; round++) {
+            unbatched = Math.max(unbatched, insertRound(1));
+            batched = Math.max(batched, insertRound(batchSize));
+        }
+
+        assertThat(unbatched).isPositive();
+        log.info("Bulk insert benchmark: unbatched {} rows/s, batch size {} {} rows/s ({}x)",
+                Math.round(unbatched), batchSize, Math.round(batched), String.format("%.1f", batched / unbatched));
+    }
+
+    /**
+     * Inserts one round of users and returns the rows per second, rolls the round back
+     */
+    private double insertRound(int jdbcBatchSize) {
+        Double rowsPerSecond = transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < users; i++) {
+                persistUser(i);
+                if ((i + 1) % FLUSH_INTERVAL == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            long elapsed = System.nanoTime() - start;
+
+            entityManager.clear();
+            status.setRollbackOnly();
+            return users * ROWS_PER_USER / (elapsed / 1_000_000_000.0);
+        });
+        return rowsPerSecond == null ? 0 : rowsPerSecond;
+    }
+
+    /**
+     * Persists a user and its children through the owning side; new addresses are equal to each other
+     * until they have an ID, so they are not collected in the user's set
+     */
+    private void persistUser(int index) {
+        User user = User.builder()
+                .password("benchmark")
+                .firstName("Bench" + index)
+                .lastName("User" + index)
+                .birthDay(LocalDate.of(1970 + index % 40, index % 12 + 1, index % 28 + 1))
+                .build();
+        entityManager.persist(user);
+
+        for (int i = 0; i < ADDRESSES_PER_USER; i++) {
+            Address address = Address.builder()
+                    .type(i == 0 ? AddressType.LOCAL : AddressType.INTERNATIONAL)
+                    .street(index + " Benchmark St")
+                    .postZipCode("10001")
+                    .city("New York")
+                    .province("NY")
+                    .country("USA")
+                    .build();
+            address.setUser(user);
+            entityManager.persist(address);
+        }
+        for (int i = 0; i < CONTACTS_PER_USER; i++) {
+            long n = ++sequence;
+            Contact contact = Contact.builder()
+                    .contactType(i == 0 ? ContactType.PERSONAL : ContactType.WORK)
+                    .phoneNumber("bench-" + n)
+                    .email("bench" + n + "@example.com")
+                    .build();
+            contact.setUser(user);
+            entityManager.persist(contact);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.userorder.benchmark;
+
+import com.userorder.service.dto.AddressDTO;
+import com.userorder.service.dto.ContactDTO;
+import com.userorder.service.dto.UserDTO;
+import com.userorder.service.dto.base.BaseDTO;
+import com.userorder.service.impl.AddressServiceImpl;
+import com.userorder.service.impl.ContactServiceImpl;
+import com.userorder.service.impl.UserServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares reads without attributes served from scalar projections (UserRow, AddressRow, ContactRow) with the
+ * entity path they replaced, by switching user-service.projection-reads.enabled on the services between rounds.
+ * Both paths read the same data seeded by DataLoader and must return the same entities.
+ * <p>
+ * Tagged "benchmark", run with {@code mvn -Pbenchmark test}; results are logged, nothing is asserted on timing.
+ */
+@Slf4j
+@Tag("benchmark")
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"seed.users=5000", "seed.partitions=1"})
+class ProjectionReadBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final int SINGLE_READS = 5000;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private AddressServiceImpl addressService;
+
+    @Autowired
+    private ContactServiceImpl contactService;
+
+    @Test
+    void projectionReadsAgainstEntityReads() {
+        List<Long> userIds = ids(userService.findAll(false, null));
+        assertThat(userIds).isNotEmpty();
+
+        setProjectionReads(false);
+        List<UserDTO> entityUsers = userService.findAll(false, null);
+        setProjectionReads(true);
+        List<UserDTO> projectedUsers = userService.findAll(false, null);
+        assertThat(ids(projectedUsers)).containsExactlyInAnyOrderElementsOf(ids(entityUsers));
+
+        // Warm up JIT, connection pool and statement caches on both paths
+        compare("warm-up", userIds);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            compare("round " + round, userIds);
+        }
+    }
+
+    private void compare(String label, List<Long> userIds) {
+        double entityFindAll = timeFindAll(false);
+        double projectionFindAll = timeFindAll(true);
+        double entityFindById = timeFindById(false, userIds);
+        double projectionFindById = timeFindById(true, userIds);
+
+        log.info("Projection read benchmark {}: findAll (users, addresses, contacts) entity {} ms, projection {} ms ({}x); "
+                        + "{} findById entity {} ms, projection {} ms ({}x)",
+                label,
+                format(entityFindAll), format(projectionFindAll), format(entityFindAll / projectionFindAll),
+                SINGLE_READS, format(entityFindById), format(projectionFindById), format(entityFindById / projectionFindById));
+    }
+
+    /**
+     * Milliseconds to list all users, addresses and contacts
+     */
+    private double timeFindAll(boolean projectionReads) {
+        setProjectionReads(projectionReads);
+        return time(() -> {
+            List<UserDTO> users = userService.findAll(false, null);
+            List<AddressDTO> addresses = addressService.findAll(false, null);
+            List<ContactDTO> contacts = contactService.findAll(false, null);
+            return users.size() + addresses.size() + contacts.size();
+        });
+    }
+
+    /**
+     * Milliseconds to read {@link #SINGLE_READS} users by ID, in the same pseudo-random order on both paths
+     */
+    private double timeFindById(boolean projectionReads, List<Long> userIds) {
+        setProjectionReads(projectionReads);
+        SplittableRandom random = new SplittableRandom(42);
+        return time(() -> {
+            int found = 0;
+            for (int i = 0; i < SINGLE_READS; i++) {
+                if (userService.findById(userIds.get(random.nextInt(userIds.size())), false, null) != null) {
+                    found++;
+                }
+            }
+            return found;
+        });
+    }
+
+    private void setProjectionReads(boolean enabled) {
+        for (Object service : List.of(userService, addressService, contactService)) {
+            ReflectionTestUtils.setField(AopTestUtils.getUltimateTargetObject(service), "projectionReadsEnabled", enabled);
+        }
+    }
+
+    private static double time(Supplier<Integer> work) {
+        long start = System.nanoTime();
+        assertThat(work.get()).isPositive();
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+
+    private static List<Long> ids(List<? extends BaseDTO> dtos) {
+        return dtos.stream().map(BaseDTO::getId).toList();
+    }
+
+    private static String format(double value) {
+        return String.format("%.1f", value);
+    }
+}
@@ -0,0 +1,110 @@
+package com.userorder.config.datasource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read-your-writes across requests with replica routing switched on. Both replicas are pools on the primary's
+ * H2 database, so every read succeeds wherever it is routed; the routing counters tell where it went.
+ */
+@WithMockUser
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadYourWritesTest.URL,
+        "user-service.replicas.enabled=true",
+        "user-service.replicas.urls=" + ReadYourWritesTest.URL + "," + ReadYourWritesTest.URL,
+        "user-service.replicas.lag-query=select 0",
+        "user-service.replicas.lag-check-interval=50ms",
+        "user-service.replicas.read-your-writes-window=5s"})
+class ReadYourWritesTest {
+
+    static final String URL = "jdbc:h2:mem:read-your-writes;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void writeAnswersWithCookieThatPinsFollowingReadsToThePrimary() throws Exception {
+        long before = System.currentTimeMillis();
+        MvcResult created = mockMvc.perform(post("/api/users").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"birthDay\":\"1815-12-10\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        Cookie cookie = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+        assertThat(cookie).as("read-your-writes cookie").isNotNull();
+        assertThat(Long.parseLong(cookie.getValue())).isBetween(before + 5_000, System.currentTimeMillis() + 5_000);
+
+        JsonNode user = objectMapper.readTree(created.getResponse().getContentAsString());
+        String uri = "/api/users/" + user.get("id").asLong();
+
+        double pinned = routed("primary", "read-your-writes");
+        MvcResult read = mockMvc.perform(get(uri).cookie(cookie)).andExpect(status().isOk()).andReturn();
+        assertThat(routed("primary", "read-your-writes")).isGreaterThan(pinned);
+        assertThat(read.getResponse().getCookie(ReadYourWritesFilter.COOKIE)).as("cookie of a read").isNull();
+    }
+
+    @Test
+    void readsWithoutCookieGoToTheReplicas() throws Exception {
+        awaitReplicasInRotation();
+
+        double pinned = routed("primary", "read-your-writes");
+        double replicas = routed("replica-1", "read-only") + routed("replica-2", "read-only");
+        mockMvc.perform(get("/api/users/page")).andExpect(status().isOk());
+
+        assertThat(routed("primary", "read-your-writes")).isEqualTo(pinned);
+        assertThat(routed("replica-1", "read-only") + routed("replica-2", "read-only")).isGreaterThan(replicas);
+    }
+
+    @Test
+    void forgedCookieIsCappedAndNotRenewed() throws Exception {
+        awaitReplicasInRotation();
+
+        // Far in the future, capped at now + 5s: pins this request, but answers with no cookie of its own
+        Cookie forged = new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(Long.MAX_VALUE));
+        double pinned = routed("primary", "read-your-writes");
+        MvcResult read = mockMvc.perform(get("/api/users/page").cookie(forged)).andExpect(status().isOk()).andReturn();
+
+        assertThat(routed("primary", "read-your-writes")).isGreaterThan(pinned);
+        assertThat(read.getResponse().getCookie(ReadYourWritesFilter.COOKIE)).isNull();
+    }
+
+    private void awaitReplicasInRotation() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get("datasource.replica.lag").tag("replica", "replica-1").gauge().value() != 0
+                || meterRegistry.get("datasource.replica.lag").tag("replica", "replica-2").gauge().value() != 0) {
+            assertThat(System.currentTimeMillis()).as("replicas in rotation").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get("datasource.routing.connections").tags("target", target, "reason", reason).counter().count();
+    }
+}
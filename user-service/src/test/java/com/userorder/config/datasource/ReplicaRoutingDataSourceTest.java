@@ -0,0 +1,223 @@
+package com.userorder.config.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing of {@link ReplicaRoutingDataSource} over three H2 databases standing in for the primary and two
+ * replicas. Every replica reports the lag stored in its replica_lag table, so tests move replicas in and out
+ * of the rotation by updating it; the name of the database tells where a connection came from.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(1);
+    private static final Duration CHECK_INTERVAL = Duration.ofMillis(50);
+    private static final String LAG_QUERY = "select lag_millis from replica_lag";
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HikariDataSource primary;
+    private HikariDataSource replica1;
+    private HikariDataSource replica2;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = pool("primary", "jdbc:h2:mem:primary-" + run + ";DB_CLOSE_DELAY=-1");
+        replica1 = pool("replica-1", "jdbc:h2:mem:replica-1-" + run + ";DB_CLOSE_DELAY=-1");
+        replica2 = pool("replica-2", "jdbc:h2:mem:replica-2-" + run + ";DB_CLOSE_DELAY=-1");
+        for (HikariDataSource replica : List.of(replica1, replica2)) {
+            execute(replica, "create table replica_lag (lag_millis bigint)");
+            execute(replica, "insert into replica_lag values (0)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (routing != null) {
+            routing.close();
+        }
+        pools.forEach(HikariDataSource::close);
+        ReadYourWritesHolder.end();
+    }
+
+    @Test
+    void readsAreSpreadOverReplicasInRotation() throws SQLException {
+        routing = routing(replica1, replica2);
+        awaitRouting(Set.of("replica-1", "replica-2"));
+
+        Set<String> targets = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            targets.add(target());
+        }
+        assertThat(targets).containsExactlyInAnyOrder("replica-1", "replica-2");
+    }
+
+    @Test
+    void replicaBehindMaxLagLeavesAndRejoinsTheRotation() throws SQLException {
+        routing = routing(replica1, replica2);
+        awaitRouting(Set.of("replica-1", "replica-2"));
+
+        setLag(replica1, MAX_LAG.toMillis() + 1);
+        awaitRouting(Set.of("replica-2"));
+
+        setLag(replica2, MAX_LAG.toMillis() * 10);
+        awaitRouting(Set.of("primary"));
+        assertThat(counter("primary", "no-replica")).isPositive();
+        assertThat(meterRegistry.get("datasource.replica.lag").tag("replica", "replica-2").gauge().value())
+                .isEqualTo(MAX_LAG.toMillis() * 10);
+
+        setLag(replica1, 0);
+        awaitRouting(Set.of("replica-1"));
+    }
+
+    @Test
+    void unreachableReplicaIsSkipped() throws SQLException {
+        HikariDataSource down = pool("replica-down", "jdbc:h2:tcp://localhost:1/unreachable");
+        routing = routing(down, replica2);
+        awaitRouting(Set.of("replica-2"));
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(target()).isEqualTo("replica-2");
+        }
+        assertThat(meterRegistry.get("datasource.replica.lag").tag("replica", "replica-down").gauge().value()).isEqualTo(-1);
+    }
+
+    @Test
+    void replicaWithFailingLagCheckIsSkipped() throws SQLException {
+        routing = routing(replica1, replica2);
+        awaitRouting(Set.of("replica-1", "replica-2"));
+
+        execute(replica1, "drop table replica_lag");
+        awaitRouting(Set.of("replica-2"));
+    }
+
+    @Test
+    void pinnedRequestsAndPrimaryScopesReadFromThePrimary() throws SQLException {
+        routing = routing(replica1, replica2);
+        awaitRouting(Set.of("replica-1", "replica-2"));
+
+        ReadYourWritesHolder.begin(System.currentTimeMillis() + 60_000);
+        assertThat(target()).isEqualTo("primary");
+        assertThat(counter("primary", "read-your-writes")).isEqualTo(1);
+
+        ReadYourWritesHolder.begin(0);
+        assertThat(target()).startsWith("replica-");
+        assertThat(ReadYourWritesHolder.onPrimary(this::targetUnchecked)).isEqualTo("primary");
+        assertThat(counter("primary", "primary-scope")).isEqualTo(1);
+        assertThat(ReadYourWritesHolder.isPinned()).isFalse();
+    }
+
+    @Test
+    void markWrittenPinsOnlyTrackedThreadsForTheWindow() {
+        assertThat(ReadYourWritesHolder.markWritten(5_000)).isZero();
+        assertThat(ReadYourWritesHolder.isPinned()).isFalse();
+
+        ReadYourWritesHolder.begin(0);
+        long before = System.currentTimeMillis();
+        long primaryUntil = ReadYourWritesHolder.markWritten(5_000);
+        assertThat(primaryUntil).isBetween(before + 5_000, System.currentTimeMillis() + 5_000);
+        assertThat(ReadYourWritesHolder.isPinned()).isTrue();
+    }
+
+    private ReplicaRoutingDataSource routing(HikariDataSource... replicas) {
+        return new ReplicaRoutingDataSource(primary, List.of(replicas), LAG_QUERY, MAX_LAG, CHECK_INTERVAL, meterRegistry);
+    }
+
+    private HikariDataSource pool(String name, String url) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername("sa");
+        config.setMaximumPoolSize(2);
+        config.setConnectionTimeout(250);
+        config.setInitializationFailTimeout(-1);
+        HikariDataSource pool = new HikariDataSource(config);
+        pools.add(pool);
+        return pool;
+    }
+
+    /**
+     * Pool name behind the next routed connection, from the name of its database
+     */
+    private String target() throws SQLException {
+        try (Connection connection = routing.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select database()")) {
+            resultSet.next();
+            String database = resultSet.getString(1).toLowerCase();
+            return database.substring(0, database.length() - run.length() - 1);
+        }
+    }
+
+    private String targetUnchecked() {
+        try {
+            return target();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Waits until a series of connections is routed to exactly the expected targets
+     */
+    private void awaitRouting(Set<String> expected) {
+        await(() -> {
+            Set<String> targets = new HashSet<>();
+            for (int i = 0; i < 2 * expected.size(); i++) {
+                targets.add(targetUnchecked());
+            }
+            return targets.equals(expected);
+        }, "routing to " + expected);
+    }
+
+    private static void await(BooleanSupplier condition, String description) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Timed out waiting for " + description);
+            }
+            try {
+                Thread.sleep(CHECK_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError("Interrupted waiting for " + description, e);
+            }
+        }
+    }
+
+    private double counter(String target, String reason) {
+        return meterRegistry.get("datasource.routing.connections").tags("target", target, "reason", reason).counter().count();
+    }
+
+    private static void setLag(HikariDataSource replica, long lagMillis) throws SQLException {
+        execute(replica, "update replica_lag set lag_millis = " + lagMillis);
+    }
+
+    private static void execute(HikariDataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
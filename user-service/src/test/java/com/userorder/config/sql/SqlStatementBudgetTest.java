@@ -0,0 +1,60 @@
+package com.userorder.config.sql;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the user list endpoints, read from the X-SQL-* headers of {@link SqlStatisticsFilter}.
+ * The number of statements must not grow with the number of users: strict mode fails the request on the
+ * first N+1 suspect, so a lazy collection walked per user shows up as an error, not as a slow test.
+ */
+@WithMockUser
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "seed.users=40",
+        "seed.partitions=1",
+        "user-service.sql-stats.strict=true",
+        "user-service.sql-stats.n-plus-one-threshold=3"})
+class SqlStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void listWithCollectionsLoadsChildrenInBatches() throws Exception {
+        // Users, then addresses and contacts of all users, one query each
+        assertBudget("/api/users?attributes=addresses,contacts", 4);
+    }
+
+    @Test
+    void pageWithCollectionsLoadsChildrenInBatches() throws Exception {
+        // Count, ID page, users of the page and their addresses and contacts
+        assertBudget("/api/users/page?attributes=addresses,contacts&size=20", 6);
+    }
+
+    @Test
+    void summariesReadChildReferencesInBatches() throws Exception {
+        // Users, then address and contact references of all users
+        assertBudget("/api/users?summary=true", 4);
+    }
+
+    private void assertBudget(String uri, int maxStatements) throws Exception {
+        MvcResult result = mockMvc.perform(get(uri)).andExpect(status().isOk()).andReturn();
+
+        String statements = result.getResponse().getHeader(SqlStatisticsFilter.STATEMENTS_HEADER);
+        assertThat(statements).as("statements of %s", uri).isNotNull();
+        assertThat(Integer.parseInt(statements)).as("statements of %s", uri).isBetween(1, maxStatements);
+        assertThat(result.getResponse().getHeader(SqlStatisticsFilter.N_PLUS_ONE_HEADER)).as("N+1 suspects of %s", uri).isNull();
+    }
+}
@@ -0,0 +1,63 @@
+package com.userorder.config.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlStatisticsTest {
+
+    private static final int THRESHOLD = 3;
+
+    @Test
+    void repeatedSingleRowQueryIsNPlusOne() {
+        SqlStatistics statistics = new SqlStatistics(THRESHOLD);
+        String sql = "select a1_0.id,a1_0.city from address a1_0 where a1_0.user_id=?";
+
+        for (int i = 0; i < THRESHOLD; i++) {
+            assertThat(statistics.recordStatement(sql)).isFalse();
+        }
+        assertThat(statistics.recordStatement(sql)).isTrue();
+        assertThat(statistics.recordStatement(sql)).isFalse();
+
+        assertThat(statistics.getNPlusOneSuspects()).containsEntry(sql, THRESHOLD + 2);
+        assertThatThrownBy(() -> statistics.assertWithin(100)).isInstanceOf(SqlBudgetExceededException.class);
+    }
+
+    @Test
+    void idListChunksAreNotNPlusOne() {
+        SqlStatistics statistics = new SqlStatistics(THRESHOLD);
+        String chunk = "select c1_0.id,c1_0.user_id from contact c1_0 where c1_0.user_id in (?,?,?,?)";
+        String compact = "SELECT u1_0.id FROM \"user\" u1_0 WHERE u1_0.id IN(?, ?)";
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(statistics.recordStatement(chunk)).isFalse();
+            assertThat(statistics.recordStatement(compact)).isFalse();
+        }
+
+        assertThat(statistics.getStatements()).isEqualTo(20);
+        assertThat(statistics.hasNPlusOne()).isFalse();
+    }
+
+    @Test
+    void batchedWritesAreNotNPlusOne() {
+        SqlStatistics statistics = new SqlStatistics(THRESHOLD);
+
+        for (int i = 0; i < 10; i++) {
+            statistics.recordStatement("insert into address (city,user_id,id) values (?,?,?)");
+            statistics.recordStatement("update \"user\" set first_name=?,version=? where id=? and version=?");
+            statistics.recordStatement("delete from contact where id=?");
+        }
+
+        assertThat(statistics.hasNPlusOne()).isFalse();
+        statistics.assertWithin(30);
+        assertThatThrownBy(() -> statistics.assertWithin(29)).isInstanceOf(SqlBudgetExceededException.class);
+    }
+
+    @Test
+    void singleParameterInListIsStillACandidate() {
+        assertThat(SqlStatistics.isNPlusOneCandidate("select a1_0.id from address a1_0 where a1_0.user_id in (?)")).isTrue();
+        assertThat(SqlStatistics.isNPlusOneCandidate("  with t as (select 1) select * from t where id=?")).isTrue();
+        assertThat(SqlStatistics.isNPlusOneCandidate("insert into contact (email,id) values (?,?)")).isFalse();
+    }
+}
@@ -0,0 +1,179 @@
+package com.userorder.persistence;
+
+import com.userorder.persistence.repository.AddressRepository;
+import com.userorder.persistence.repository.ContactRepository;
+import com.userorder.persistence.repository.KeysetCursor;
+import com.userorder.persistence.repository.KeysetOrder;
+import com.userorder.persistence.repository.UserRepository;
+import com.userorder.persistence.repository.spec.UserSpecifications;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the lookups of the repositories are served by the indexes of the Liquibase changelog on PostgreSQL.
+ * Every repository call runs against a real database while its statements are recorded with their parameters
+ * ({@link StatementRecordingDataSource}); each statement is then explained with sequential scans disabled, so the
+ * plan names an index as long as one can answer the query, whatever the table size. The call passes when one of
+ * its statements (e.g. the ID page of a search, not its count) uses the expected index.
+ * <p>
+ * Needs Docker for the PostgreSQL container, skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("test")
+@Import(QueryPlanTest.RecordingConfig.class)
+@SpringBootTest(properties = {"seed.users=200", "seed.partitions=1"})
+class QueryPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", POSTGRES::getDriverClassName);
+    }
+
+    private static final LocalDateTime CURSOR_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void childrenByUserUseTheUserIdIndexes() {
+        assertUsesIndex(() -> addressRepository.findByUserId(1L), "idx_address_user_id_id");
+        assertUsesIndex(() -> contactRepository.findByUserId(1L), "idx_contact_user_id_id");
+        assertUsesIndex(() -> addressRepository.findRefsByUserIdIn(List.of(1L, 2L, 3L)), "idx_address_user_id_id");
+        assertUsesIndex(() -> contactRepository.findRefsByUserIdIn(List.of(1L, 2L, 3L)), "idx_contact_user_id_id");
+    }
+
+    @Test
+    void keysetPagesByModifiedDateUseTheModifiedDateIndexes() {
+        KeysetCursor after = new KeysetCursor(KeysetOrder.MODIFIED_DATE, CURSOR_TIME, 1L);
+        assertUsesIndex(() -> userRepository.findKeysetWithAttributes(null, KeysetOrder.MODIFIED_DATE, after, 20, null),
+                "idx_user_modified_date_id");
+        assertUsesIndex(() -> addressRepository.findKeysetWithAttributes(null, KeysetOrder.MODIFIED_DATE, after, 20, null),
+                "idx_address_modified_date_id");
+        assertUsesIndex(() -> contactRepository.findKeysetWithAttributes(null, KeysetOrder.MODIFIED_DATE, after, 20, null),
+                "idx_contact_modified_date_id");
+    }
+
+    @Test
+    void userSearchFiltersUseTheirIndexes() {
+        PageRequest page = PageRequest.of(0, 20, Sort.by("id"));
+        assertUsesIndex(() -> userRepository.findPageWithAttributes(UserSpecifications.nameStartsWith("Jo"), page, null),
+                "idx_user_first_name_lower", "idx_user_last_name_lower");
+        assertUsesIndex(() -> userRepository.findPageWithAttributes(
+                        UserSpecifications.bornOnOrAfter(LocalDate.of(1980, 1, 1))
+                                .and(UserSpecifications.bornOnOrBefore(LocalDate.of(1989, 12, 31))), page, null),
+                "idx_user_birthday");
+        assertUsesIndex(() -> userRepository.findPageWithAttributes(UserSpecifications.hasAddressInCity("Chicago"), page, null),
+                "idx_address_city_user_id");
+        assertUsesIndex(() -> userRepository.findPageWithAttributes(UserSpecifications.hasAddressInCountry("USA"), page, null),
+                "idx_address_country_user_id");
+        assertUsesIndex(() -> userRepository.findPageWithAttributes(UserSpecifications.hasEmailDomain("example.com"), page, null),
+                "idx_contact_email_domain_user_id");
+    }
+
+    /**
+     * Runs the repository call in a read-only transaction and asserts that the plan of one of its statements
+     * names every expected index
+     */
+    private void assertUsesIndex(Supplier<?> call, String... expectedIndexes) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<StatementRecordingDataSource.RecordedStatement> statements =
+                StatementRecordingDataSource.record(() -> readOnly.execute(status -> call.get()));
+        assertThat(statements).as("statements of the call").isNotEmpty();
+
+        List<String> plans = new ArrayList<>();
+        for (StatementRecordingDataSource.RecordedStatement statement : statements) {
+            plans.add(explain(statement));
+        }
+        assertThat(plans)
+                .as("plans of %s", statements.stream().map(StatementRecordingDataSource.RecordedStatement::sql).toList())
+                .anySatisfy(plan -> assertThat(plan).contains(expectedIndexes));
+    }
+
+    /**
+     * Plan of the recorded statement with its recorded parameters, sequential scans disabled for this
+     * transaction only
+     */
+    private String explain(StatementRecordingDataSource.RecordedStatement recorded) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement settings = connection.createStatement()) {
+                settings.execute("set local enable_seqscan = off");
+            }
+            List<String> lines = new ArrayList<>();
+            try (PreparedStatement statement = recorded.prepare(connection, "explain (costs off) ");
+                 ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    lines.add(resultSet.getString(1));
+                }
+            }
+            connection.rollback();
+            return String.join("\n", lines);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot explain " + recorded.sql(), e);
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        static BeanPostProcessor statementRecordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource target && !(bean instanceof StatementRecordingDataSource)
+                            ? new StatementRecordingDataSource(target)
+                            : bean;
+                }
+            };
+        }
+    }
+}
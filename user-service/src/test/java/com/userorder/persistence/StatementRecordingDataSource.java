@@ -0,0 +1,117 @@
+package com.userorder.persistence;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * DataSource proxy that records the prepared statements executed on the current thread, with their parameters,
+ * while {@link #record(Supplier)} runs. A recorded statement can be re-prepared with any prefix (e.g. EXPLAIN)
+ * and the same parameters bound, so the database plans exactly what Hibernate sent.
+ */
+class StatementRecordingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<List<RecordedStatement>> RECORDING = new ThreadLocal<>();
+
+    StatementRecordingDataSource(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * Runs the work and returns the statements it executed
+     */
+    static List<RecordedStatement> record(Supplier<?> work) {
+        List<RecordedStatement> statements = new ArrayList<>();
+        RECORDING.set(statements);
+        try {
+            work.get();
+        } finally {
+            RECORDING.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recording(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return recording(super.getConnection(username, password));
+    }
+
+    private static Connection recording(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(StatementRecordingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (method.getName().equals("prepareStatement") && RECORDING.get() != null) {
+                        return recording((PreparedStatement) result, (String) args[0]);
+                    }
+                    return result;
+                });
+    }
+
+    private static PreparedStatement recording(PreparedStatement statement, String sql) {
+        RecordedStatement recorded = new RecordedStatement(sql, new ArrayList<>());
+        return (PreparedStatement) Proxy.newProxyInstance(StatementRecordingDataSource.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        recorded.parameters().add(new BoundParameter(method, args));
+                    } else if (name.startsWith("execute")) {
+                        List<RecordedStatement> statements = RECORDING.get();
+                        if (statements != null) {
+                            statements.add(new RecordedStatement(sql, List.copyOf(recorded.parameters())));
+                        }
+                    } else if (name.equals("clearParameters")) {
+                        recorded.parameters().clear();
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * One setter call on a prepared statement, e.g. setLong(1, 42)
+     */
+    record BoundParameter(Method setter, Object[] args) {
+    }
+
+    /**
+     * SQL of an executed statement and the parameters bound at execution
+     */
+    record RecordedStatement(String sql, List<BoundParameter> parameters) {
+
+        /**
+         * Prepares the prefixed statement on the connection and binds the recorded parameters
+         */
+        PreparedStatement prepare(Connection connection, String prefix) throws SQLException {
+            PreparedStatement statement = connection.prepareStatement(prefix + sql);
+            for (BoundParameter parameter : parameters) {
+                try {
+                    parameter.setter().invoke(statement, parameter.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Cannot bind " + parameter.setter().getName() + " on " + sql, e);
+                }
+            }
+            return statement;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.userorder.service.bulk;
+
+import com.userorder.service.UserBulkLoadService;
+import com.userorder.service.dto.BulkImportRecord;
+import com.userorder.service.dto.BulkLoadReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk load through the JDBC batch engine on H2. Chunks of two users make duplicates cross chunk boundaries;
+ * every test uses its own emails and phone numbers, the tests share one database.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = "user-service.bulk-load.chunk-size=2")
+class UserBulkLoadServiceImplTest {
+
+    @Autowired
+    private UserBulkLoadService userBulkLoadService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void firstOccurrenceOfAnEmailOrPhoneNumberWins() throws Exception {
+        BulkLoadReport existing = load(user("Existing", contact("existing@dup.test", "+1 555 0100")));
+        assertThat(existing.getContacts()).isEqualTo(1);
+
+        BulkLoadReport report = load(
+                user("First", contact("first@dup.test", "+1 555 0101"), address()),
+                user("SameEmail", contact("first@dup.test", "+1 555 0102")),
+                user("SamePhone", contact("other@dup.test", "+1 555 0101")),
+                user("ExistingEmail", contact("existing@dup.test", "+1 555 0103")),
+                user("ExistingPhone", contact("another@dup.test", "+1 555 0100")),
+                user("Unique", contact("unique@dup.test", "+1 555 0104")));
+
+        assertThat(report.getEngine()).isEqualTo("jdbc-batch");
+        assertThat(report.getReceived()).isEqualTo(6);
+        assertThat(report.getRejected()).isZero();
+        assertThat(report.getUsers()).isEqualTo(6);
+        assertThat(report.getAddresses()).isEqualTo(1);
+        assertThat(report.getContacts()).isEqualTo(2);
+        assertThat(report.getDuplicateContacts()).isEqualTo(4);
+
+        assertThat(ownerOfEmail("first@dup.test")).isEqualTo("First");
+        assertThat(ownerOfEmail("existing@dup.test")).isEqualTo("Existing");
+        assertThat(ownerOfEmail("unique@dup.test")).isEqualTo("Unique");
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from contact where email in ('other@dup.test', 'another@dup.test')", Long.class)).isZero();
+    }
+
+    @Test
+    void loadedRowsStartAtVersionZeroWithUtcAuditColumns() throws Exception {
+        LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC);
+        load(user("Audited", contact("audited@audit.test", "+1 555 0200"), address()));
+        LocalDateTime after = LocalDateTime.now(ZoneOffset.UTC);
+
+        for (String table : List.of("\"user\" where first_name = 'Audited'",
+                "address where user_id = (select id from \"user\" where first_name = 'Audited')",
+                "contact where email = 'audited@audit.test'")) {
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "select version, created_date, modified_date, created_by from " + table);
+            assertThat(((Number) row.get("version")).longValue()).as("version of %s", table).isZero();
+            LocalDateTime modified = ((Timestamp) row.get("modified_date")).toLocalDateTime();
+            // Written as UTC wall-clock time, like Hibernate writes the audit columns (hibernate.jdbc.time_zone)
+            assertThat(modified).as("modified_date of %s", table)
+                    .isBetween(before.minus(Duration.ofSeconds(1)), after.plus(Duration.ofSeconds(1)));
+            assertThat(row.get("created_date")).isEqualTo(row.get("modified_date"));
+            assertThat(row.get("created_by")).isEqualTo("system");
+        }
+    }
+
+    @Test
+    void recordsThatDoNotFitTheColumnsAreRejectedAndTheRestIsLoaded() throws Exception {
+        String longEmail = "a".repeat(45) + "@fit.test";
+        BulkLoadReport report = load(
+                user("Fits", contact("fits@fit.test", "+1 555 0300")),
+                user("TooLong", contact(longEmail, "+1 555 0301")),
+                "null",
+                user("AlsoFits", contact("alsofits@fit.test", "+1 555 0302")));
+
+        assertThat(report.getReceived()).isEqualTo(4);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getUsers()).isEqualTo(2);
+        assertThat(report.getContacts()).isEqualTo(2);
+        assertThat(report.getRejections()).extracting(BulkImportRecord::getLine).containsExactly(2L, 3L);
+        assertThat(report.getRejections().get(0).getErrors()).containsKey("contacts[0].email");
+    }
+
+    private BulkLoadReport load(String... lines) throws Exception {
+        byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return userBulkLoadService.load(new ByteArrayInputStream(body));
+    }
+
+    private String ownerOfEmail(String email) {
+        return jdbcTemplate.queryForObject(
+                "select u.first_name from contact c join \"user\" u on u.id = c.user_id where c.email = ?", String.class, email);
+    }
+
+    private static String user(String firstName, String contact) {
+        return user(firstName, contact, null);
+    }
+
+    private static String user(String firstName, String contact, String address) {
+        return "{\"firstName\":\"" + firstName + "\",\"lastName\":\"Loaded\",\"birthDay\":\"1990-01-01\","
+                + "\"contacts\":[" + contact + "]" + (address == null ? "" : ",\"addresses\":[" + address + "]") + "}";
+    }
+
+    private static String contact(String email, String phoneNumber) {
+        return "{\"contactType\":\"PERSONAL\",\"email\":\"" + email + "\",\"phoneNumber\":\"" + phoneNumber + "\"}";
+    }
+
+    private static String address() {
+        return "{\"type\":\"LOCAL\",\"street\":\"1 Main St\",\"postZipCode\":\"12345\",\"city\":\"Springfield\",\"country\":\"USA\"}";
+    }
+}
@@ -0,0 +1,135 @@
+package com.userorder.service.cache;
+
+import com.userorder.persistence.model.AddressType;
+import com.userorder.persistence.model.ContactType;
+import com.userorder.persistence.model.User;
+import com.userorder.service.AddressService;
+import com.userorder.service.ContactService;
+import com.userorder.service.UserService;
+import com.userorder.service.dto.AddressDTO;
+import com.userorder.service.dto.ContactDTO;
+import com.userorder.service.dto.UserDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Eviction of cached user DTOs by {@link DtoCacheInvalidator}, with the in-process store in place of Redis
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "user-service.dto-cache.enabled=true",
+        "user-service.dto-cache.store=memory"
+})
+class DtoCacheEvictionTest {
+
+    private static final Set<String> ATTRIBUTES = Set.of("addresses", "contacts");
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private DtoCacheStore cacheStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+    private AddressDTO address;
+    private ContactDTO contact;
+    private String userKey;
+
+    @BeforeEach
+    void createUser() {
+        userId = userService.save(UserDTO.builder()
+                .password("secret-pass")
+                .firstName("Cached")
+                .lastName("User")
+                .birthDay(LocalDate.of(1990, 1, 1))
+                .build(), Set.of()).getId();
+        address = addressService.save(AddressDTO.builder()
+                .type(AddressType.LOCAL)
+                .street("1 Main St")
+                .postZipCode("02101")
+                .city("Boston")
+                .country("USA")
+                .userId(userId)
+                .build());
+        contact = contactService.save(ContactDTO.builder()
+                .contactType(ContactType.PERSONAL)
+                .email("cached-" + userId + "@example.com")
+                .userId(userId)
+                .build());
+        userKey = DtoCacheKeys.byId(User.class, userId, false, ATTRIBUTES);
+    }
+
+    @Test
+    void changingAnAddressEvictsItsUser() {
+        cacheUser();
+
+        addressService.update(address.getId(), address.toBuilder().street("2 Main St").build());
+
+        assertThat(cacheStore.get(userKey)).isEmpty();
+        assertThat(userService.findById(userId, false, ATTRIBUTES).getAddresses())
+                .extracting(AddressDTO::getStreet).containsExactly("2 Main St");
+    }
+
+    @Test
+    void changingAContactEvictsItsUser() {
+        cacheUser();
+
+        String email = "changed-" + userId + "@example.com";
+        contactService.update(contact.getId(), contact.toBuilder().email(email).build());
+
+        assertThat(cacheStore.get(userKey)).isEmpty();
+        assertThat(userService.findById(userId, false, ATTRIBUTES).getContacts())
+                .extracting(ContactDTO::getEmail).containsExactly(email);
+    }
+
+    @Test
+    void deletingAContactEvictsItsUser() {
+        cacheUser();
+
+        contactService.deleteById(contact.getId());
+
+        assertThat(cacheStore.get(userKey)).isEmpty();
+        assertThat(userService.findById(userId, false, ATTRIBUTES).getContacts()).isEmpty();
+    }
+
+    @Test
+    void rolledBackWritesEvictNothing() {
+        String cached = cacheUser();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            addressService.update(address.getId(), address.toBuilder().street("3 Main St").build());
+            contactService.update(contact.getId(),
+                    contact.toBuilder().email("rolled-back-" + userId + "@example.com").build());
+            status.setRollbackOnly();
+        });
+
+        assertThat(cacheStore.get(userKey)).contains(cached);
+    }
+
+    /**
+     * Reads the user through the cache and returns the cached payload
+     */
+    private String cacheUser() {
+        userService.findById(userId, false, ATTRIBUTES);
+        assertThat(cacheStore.get(userKey)).isPresent();
+        return cacheStore.get(userKey).orElseThrow();
+    }
+}
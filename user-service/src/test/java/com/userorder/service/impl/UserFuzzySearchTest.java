@@ -0,0 +1,96 @@
+package com.userorder.service.impl;
+
+import com.userorder.service.UserImportService;
+import com.userorder.service.UserService;
+import com.userorder.service.dto.BulkImportResult;
+import com.userorder.service.dto.UserSearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Substring fallback of the fuzzy search (UserRepository.findFuzzyByLike), which H2 runs instead of pg_trgm.
+ * Every test searches for its own made-up fragment, so the users imported by the other tests never match.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class UserFuzzySearchTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    private static boolean imported;
+
+    @BeforeEach
+    void importUsers() throws Exception {
+        if (imported) {
+            return;
+        }
+        BulkImportResult result = userImportService.importUsers(new ByteArrayInputStream(String.join("\n",
+                user("Qzorin", "Adams", "1 Main St", "Boston"),
+                user("Beth", "Baqzor", "2 Main St", "Boston"),
+                user("Carl", "Clark", "3 Main St", "Qzorville"),
+                user("Dana", "Dunn", "4 Aqzor Road", "Boston"),
+                user("Eve", "Evans", "5 Main St", "Boston"),
+                user("Per%cent", "Sign", "6 Main St", "Boston"),
+                user("Perxcent", "Letter", "7 Main St", "Boston"),
+                user("Under_score", "Sign", "8 Main St", "Boston"),
+                user("Underxscore", "Letter", "9 Main St", "Boston")).getBytes(StandardCharsets.UTF_8)));
+        assertThat(result.getRejected()).isZero();
+        imported = true;
+    }
+
+    @Test
+    void namePrefixesRankFirstAndAddressInfixesLast() {
+        List<UserSearchHit> hits = userService.fuzzySearch("QZOR", 10, false, Set.of());
+
+        assertThat(hits).extracting(hit -> hit.getUser().getFirstName()).containsExactly("Qzorin", "Carl", "Beth", "Dana");
+        assertThat(hits.get(0).getScore()).isCloseTo(1.0, within(1e-9));
+        assertThat(hits.get(1).getScore()).isCloseTo(0.8, within(1e-9));
+        assertThat(hits.get(2).getScore()).isCloseTo(0.6, within(1e-9));
+        assertThat(hits.get(3).getScore()).isCloseTo(0.4, within(1e-9));
+    }
+
+    @Test
+    void limitKeepsTheBestHits() {
+        assertThat(userService.fuzzySearch("qzor", 2, false, Set.of()))
+                .extracting(hit -> hit.getUser().getFirstName()).containsExactly("Qzorin", "Carl");
+    }
+
+    @Test
+    void likeWildcardsInTheQueryMatchLiterally() {
+        assertThat(userService.fuzzySearch("r%c", 10, false, Set.of()))
+                .extracting(hit -> hit.getUser().getFirstName()).containsExactly("Per%cent");
+        assertThat(userService.fuzzySearch("r_s", 10, false, Set.of()))
+                .extracting(hit -> hit.getUser().getFirstName()).containsExactly("Under_score");
+    }
+
+    @Test
+    void queriesShorterThanThreeCharactersAreRefused() {
+        assertThatThrownBy(() -> userService.fuzzySearch("qz", 10, false, Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> userService.fuzzySearch("  qz  ", 10, false, Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(userService.fuzzySearch(" qzo ", 10, false, Set.of())).hasSize(4);
+    }
+
+    private static String user(String firstName, String lastName, String street, String city) {
+        return "{\"firstName\":\"" + firstName + "\",\"lastName\":\"" + lastName + "\",\"birthDay\":\"1990-01-01\","
+                + "\"addresses\":[{\"type\":\"LOCAL\",\"street\":\"" + street + "\",\"postZipCode\":\"02101\","
+                + "\"city\":\"" + city + "\",\"country\":\"USA\"}]}";
+    }
+}
@@ -0,0 +1,66 @@
+package com.userorder.service.impl;
+
+import com.userorder.service.UserImportService;
+import com.userorder.service.dto.BulkImportRecord;
+import com.userorder.service.dto.BulkImportRecord.Status;
+import com.userorder.service.dto.BulkImportResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Records of an NDJSON import that Jackson accepts but the model does not expect are rejected one by one;
+ * the records around them are still imported
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = "user-service.bulk-import.chunk-size=2")
+class UserImportServiceImplTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Test
+    void unexpectedRecordsAreRejectedWithoutEndingTheImport() throws Exception {
+        BulkImportResult result = importUsers(
+                user("Ada", "\"addresses\":null,\"contacts\":null"),
+                user("Alan", "\"addresses\":[null]"),
+                "null",
+                user("Grace", "\"contacts\":[null,{\"contactType\":\"WORK\",\"email\":\"grace@example.com\"}]"),
+                "{\"firstName\":",
+                user("Edsger", "\"contacts\":[{\"contactType\":\"WORK\",\"email\":\"edsger@example.com\"}]"));
+
+        assertThat(result.getReceived()).isEqualTo(6);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRecords()).extracting(BulkImportRecord::getLine, BulkImportRecord::getStatus)
+                .containsExactlyInAnyOrder(
+                        tuple(1L, Status.CREATED),
+                        tuple(2L, Status.INVALID),
+                        tuple(3L, Status.INVALID),
+                        tuple(4L, Status.INVALID),
+                        tuple(5L, Status.INVALID),
+                        tuple(6L, Status.CREATED));
+        assertThat(record(result, 2).getErrors()).containsEntry("addresses[0]", "Address must not be null");
+        assertThat(record(result, 3).getErrors()).containsEntry("record", "User is required");
+        assertThat(record(result, 4).getErrors()).containsValue("Contact must not be null");
+    }
+
+    private BulkImportResult importUsers(String... lines) throws Exception {
+        byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return userImportService.importUsers(new ByteArrayInputStream(body));
+    }
+
+    private static BulkImportRecord record(BulkImportResult result, long line) {
+        return result.getRecords().stream().filter(record -> record.getLine() == line).findFirst().orElseThrow();
+    }
+
+    private static String user(String firstName, String collections) {
+        return "{\"firstName\":\"" + firstName + "\",\"lastName\":\"Test\",\"birthDay\":\"1990-01-01\"," + collections + "}";
+    }
+}
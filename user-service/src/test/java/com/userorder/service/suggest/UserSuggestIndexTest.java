@@ -0,0 +1,147 @@
+package com.userorder.service.suggest;
+
+import com.userorder.persistence.model.User;
+import com.userorder.persistence.repository.ContactRepository;
+import com.userorder.persistence.repository.UserRepository;
+import com.userorder.persistence.repository.projection.UserName;
+import com.userorder.service.dto.UserSuggestion;
+import com.userorder.service.event.EntityChangedEvent;
+import com.userorder.service.event.EntityChangedEvent.ChangeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Delta, compaction and rebuild of {@link UserSuggestIndex} over mocked repositories, with a compaction
+ * threshold of two users so that every other change compacts in the background
+ */
+class UserSuggestIndexTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ContactRepository contactRepository = mock(ContactRepository.class);
+    private final List<UserName> users = new ArrayList<>();
+
+    private UserSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findNamesAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> List.copyOf(users));
+        when(userRepository.findNamesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Set<?> ids = Set.copyOf(invocation.getArgument(0));
+            return users.stream().filter(user -> ids.contains(user.id())).toList();
+        });
+        when(contactRepository.findEmailsAfter(anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(contactRepository.findEmailsByUserIdIn(anyCollection())).thenReturn(List.of());
+        index = new UserSuggestIndex(userRepository, contactRepository, 100, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    void compactionKeepsRenamesAndDeletions() throws InterruptedException {
+        users.addAll(List.of(name(1, "Alice", "Archer"), name(2, "Bob", "Baker"), name(3, "Carol", "Cooper")));
+        index.rebuild();
+
+        rename(1, "Alina", "Archer");
+        users.removeIf(user -> user.id() == 2);
+        changed(2);
+        awaitCompaction();
+
+        assertThat(ids("ali")).containsExactly(1L);
+        assertThat(labels("alina")).containsExactly("Alina Archer");
+        assertThat(ids("alice")).isEmpty();
+        assertThat(ids("bob")).isEmpty();
+        assertThat(ids("carol")).containsExactly(3L);
+    }
+
+    @Test
+    void rebuildDoesNotResurrectChangesMadeWhileItReads() throws InterruptedException {
+        users.addAll(List.of(name(1, "Alice", "Archer"), name(2, "Bob", "Baker")));
+        index.rebuild();
+
+        // The build reads the old names, then both users change before it swaps in: they fill the delta
+        // and queue a compaction, which must neither run meanwhile nor be undone by the swap
+        List<UserName> stale = List.copyOf(users);
+        when(userRepository.findNamesAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            rename(1, "Alina", "Archer");
+            rename(2, "Bert", "Baker");
+            return stale;
+        });
+        index.rebuild();
+        awaitCompaction();
+
+        assertThat(ids("alice")).isEmpty();
+        assertThat(ids("bob")).isEmpty();
+        assertThat(ids("alina")).containsExactly(1L);
+        assertThat(ids("bert")).containsExactly(2L);
+    }
+
+    @Test
+    void rebuildDropsChangesItHasRead() {
+        users.addAll(List.of(name(1, "Alice", "Archer"), name(2, "Bob", "Baker"), name(3, "Carol", "Cooper")));
+        index.rebuild();
+        rename(1, "Alina", "Archer");
+        assertThat(index.changedUserCount()).isEqualTo(1);
+
+        index.rebuild();
+
+        assertThat(index.changedUserCount()).isZero();
+        assertThat(ids("alina")).containsExactly(1L);
+        assertThat(ids("alice")).isEmpty();
+    }
+
+    @Test
+    void prefixMatchesNamesInTermOrder() {
+        users.addAll(List.of(name(1, "Émile", "Zola"), name(2, "Emma", "Stone"), name(3, "Zoe", "Emerson")));
+        index.rebuild();
+
+        assertThat(index.suggest("emi", 10)).extracting(UserSuggestion::getMatched).containsExactly("emile");
+        assertThat(ids("em")).containsExactly(3L, 1L, 2L);
+        assertThat(index.suggest("em", 2)).hasSize(2);
+    }
+
+    private void rename(long userId, String firstName, String lastName) {
+        users.removeIf(user -> user.id() == userId);
+        users.add(name(userId, firstName, lastName));
+        changed(userId);
+    }
+
+    private void changed(long userId) {
+        index.onEntityChanged(new EntityChangedEvent(User.class, userId, ChangeType.UPDATED, Set.of(userId)));
+    }
+
+    private void awaitCompaction() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (index.changedUserCount() > 0) {
+            assertThat(System.currentTimeMillis()).as("compaction done").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private List<Long> ids(String prefix) {
+        return index.suggest(prefix, 10).stream().map(UserSuggestion::getId).distinct().toList();
+    }
+
+    private List<String> labels(String prefix) {
+        return index.suggest(prefix, 10).stream().map(UserSuggestion::getLabel).toList();
+    }
+
+    private static UserName name(long id, String firstName, String lastName) {
+        return new UserName(id, firstName, lastName);
+    }
+}
@@ -0,0 +1,62 @@
+package com.userorder.service.uniqueness;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    private static final int VALUES = 100_000;
+
+    @Test
+    void valuesThatWerePutAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(VALUES, 0.01);
+        for (int i = 0; i < VALUES; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+        for (int i = 0; i < VALUES; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).as("value %d", i).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        assertThat(falsePositiveRate(0.01)).isLessThan(0.015);
+        assertThat(falsePositiveRate(0.001)).isLessThan(0.002);
+    }
+
+    @Test
+    void filterIsSizedForTheExpectedValues() {
+        // -n ln p / (ln 2)^2 bits: about 9.6 bits per value at 1 %
+        long bytes = new BloomFilter(VALUES, 0.01).sizeInBytes();
+        assertThat(bytes).isBetween(VALUES * 9L / 8, VALUES * 10L / 8);
+    }
+
+    @Test
+    void overfilledFilterStillHasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put("+1555" + i);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.mightContain("+1555" + i)).isTrue();
+        }
+    }
+
+    /**
+     * Share of never put values that the filter reports, after filling it to its expected size
+     */
+    private static double falsePositiveRate(double target) {
+        BloomFilter filter = new BloomFilter(VALUES, target);
+        for (int i = 0; i < VALUES; i++) {
+            filter.put("present-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < VALUES; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+        return (double) falsePositives / VALUES;
+    }
+}
@@ -0,0 +1,89 @@
+package com.userorder.service.uniqueness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Contact endpoints answer 409 (Conflict) for emails and phone numbers another contact has, as seen by
+ * {@link ContactUniquenessGuard}: emails ignoring case, phone numbers by their digits
+ */
+@WithMockUser
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@SpringBootTest
+class ContactUniquenessEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createRejectsTakenEmailsAndPhoneNumbers() throws Exception {
+        create("taken@create.test", "+1 555 0400").andExpect(status().isCreated());
+
+        create("TAKEN@create.test", "+1 555 0401").andExpect(status().isConflict());
+        create("free@create.test", "1 (555) 0400").andExpect(status().isConflict());
+        create("free@create.test", "+1 555 0401").andExpect(status().isCreated());
+    }
+
+    @Test
+    void updateRejectsValuesOfOtherContactsButKeepsItsOwn() throws Exception {
+        long first = id(create("first@update.test", "+1 555 0500"));
+        long second = id(create("second@update.test", "+1 555 0501"));
+
+        update(second, "First@Update.test", "+1 555 0501").andExpect(status().isConflict());
+        update(second, "second@update.test", "+1-555-0500").andExpect(status().isConflict());
+        update(first, "first@update.test", "+1 555 0500").andExpect(status().isOk());
+        update(second, "renamed@update.test", "+1 555 0501").andExpect(status().isOk());
+
+        // The old email of the second contact is free again
+        create("second@update.test", "+1 555 0502").andExpect(status().isCreated());
+    }
+
+    @Test
+    void deleteFreesTheValues() throws Exception {
+        long id = id(create("deleted@delete.test", "+1 555 0600"));
+        create("deleted@delete.test", "+1 555 0601").andExpect(status().isConflict());
+
+        mockMvc.perform(delete("/api/contacts/" + id).with(csrf())).andExpect(status().isNoContent());
+
+        create("deleted@delete.test", "+1 555 0600").andExpect(status().isCreated());
+    }
+
+    private ResultActions create(String email, String phoneNumber) throws Exception {
+        return mockMvc.perform(post("/api/contacts").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(contact(email, phoneNumber)));
+    }
+
+    private ResultActions update(long id, String email, String phoneNumber) throws Exception {
+        return mockMvc.perform(put("/api/contacts/" + id).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(contact(email, phoneNumber)));
+    }
+
+    private long id(ResultActions created) throws Exception {
+        String body = created.andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private static String contact(String email, String phoneNumber) {
+        return "{\"contactType\":\"WORK\",\"email\":\"" + email + "\",\"phoneNumber\":\"" + phoneNumber + "\"}";
+    }
+}
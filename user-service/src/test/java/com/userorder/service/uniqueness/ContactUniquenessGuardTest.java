@@ -0,0 +1,118 @@
+package com.userorder.service.uniqueness;
+
+import com.userorder.persistence.repository.ContactRepository;
+import com.userorder.persistence.repository.projection.ContactKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link ContactUniquenessGuard} over a mocked repository, outside of any transaction, so registered changes
+ * apply at once
+ */
+class ContactUniquenessGuardTest {
+
+    private static final ContactKey ANN = new ContactKey(1L, "Ann@Example.com", "+1 (555) 010-0100");
+
+    private final ContactRepository contactRepository = mock(ContactRepository.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ContactUniquenessGuard guard = new ContactUniquenessGuard(contactRepository, meterRegistry, 1_000, 0.01, 100);
+
+    @AfterEach
+    void tearDown() {
+        guard.close();
+    }
+
+    @Test
+    void emailsIgnoreCaseAndPhoneNumbersCompareDigitsOnly() {
+        assertThat(ContactUniquenessGuard.normalizeEmail("  Ann@Example.COM ")).isEqualTo("ann@example.com");
+        assertThat(ContactUniquenessGuard.normalizeEmail(" ")).isNull();
+        assertThat(ContactUniquenessGuard.normalizePhoneNumber("+1 (555) 010-0100")).isEqualTo("15550100100");
+        assertThat(ContactUniquenessGuard.normalizePhoneNumber("()-")).isNull();
+    }
+
+    @Test
+    void everythingPassesUntilPreloaded() {
+        assertThatCode(() -> guard.checkAvailable(null, ANN.email(), ANN.phoneNumber())).doesNotThrowAnyException();
+    }
+
+    @Test
+    void duplicatesAreConfirmedAgainstTheDatabase() {
+        preload(ANN);
+        when(contactRepository.findKeyById(1L)).thenReturn(Optional.of(ANN));
+
+        assertThatThrownBy(() -> guard.checkAvailable(null, "ann@example.COM", null))
+                .isInstanceOfSatisfying(DuplicateContactException.class, e -> assertThat(e.getField()).isEqualTo("email"));
+        assertThatThrownBy(() -> guard.checkAvailable(2L, null, "1 555 010 0100"))
+                .isInstanceOfSatisfying(DuplicateContactException.class, e -> assertThat(e.getField()).isEqualTo("phoneNumber"));
+        assertThat(count("email", "duplicate")).isEqualTo(1);
+        assertThat(count("phoneNumber", "duplicate")).isEqualTo(1);
+
+        // The contact keeps its own values, and values nobody has are free
+        assertThatCode(() -> guard.checkAvailable(1L, ANN.email(), ANN.phoneNumber())).doesNotThrowAnyException();
+        assertThatCode(() -> guard.checkAvailable(null, "bob@example.com", "+1 555 0200")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void staleEntriesAreDroppedWhenTheDatabaseDisagrees() {
+        preload(ANN);
+        // Deleted elsewhere, e.g. by a cascade or another instance
+        when(contactRepository.findKeyById(1L)).thenReturn(Optional.empty());
+
+        assertThatCode(() -> guard.checkAvailable(null, ANN.email(), null)).doesNotThrowAnyException();
+        assertThat(count("email", "stale")).isEqualTo(1);
+
+        // The map entry is gone, the next check does not ask the database again
+        assertThatCode(() -> guard.checkAvailable(null, ANN.email(), null)).doesNotThrowAnyException();
+        assertThat(count("email", "stale")).isEqualTo(1);
+        assertThat(count("email", "exact-negative")).isEqualTo(1);
+    }
+
+    @Test
+    void changesRegisteredDuringPreloadAreKept() {
+        ContactKey bob = new ContactKey(2L, "bob@example.com", "+1 555 0200");
+        when(contactRepository.findKeysAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            // Committed after the page was read: not in the page, but must be in the index that is swapped in
+            guard.registerChange(bob.id(), null, null, bob.email(), bob.phoneNumber());
+            return List.of(ANN);
+        });
+        guard.preload();
+        when(contactRepository.findKeyById(2L)).thenReturn(Optional.of(bob));
+
+        assertThatThrownBy(() -> guard.checkAvailable(null, "BOB@example.com", null)).isInstanceOf(DuplicateContactException.class);
+        assertThatThrownBy(() -> guard.checkAvailable(null, null, "15550200")).isInstanceOf(DuplicateContactException.class);
+    }
+
+    @Test
+    void changedValuesMoveToTheirNewOwner() {
+        preload(ANN);
+        guard.registerChange(1L, ANN.email(), ANN.phoneNumber(), "ann@new.example.com", ANN.phoneNumber());
+        ContactKey moved = new ContactKey(1L, "ann@new.example.com", ANN.phoneNumber());
+        when(contactRepository.findKeyById(1L)).thenReturn(Optional.of(moved));
+
+        assertThatCode(() -> guard.checkAvailable(null, ANN.email(), null)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> guard.checkAvailable(null, moved.email(), null)).isInstanceOf(DuplicateContactException.class);
+    }
+
+    private void preload(ContactKey... keys) {
+        when(contactRepository.findKeysAfter(anyLong(), any(Limit.class))).thenReturn(List.of(keys));
+        guard.preload();
+    }
+
+    private double count(String field, String result) {
+        return meterRegistry.get("contact.uniqueness.checks").tags("field", field, "result", result).counter().count();
+    }
+}